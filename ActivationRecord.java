@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+/**
+ * A class representing one call to a user-defined function on the Interpreter's explicit call stack. An
+ * ActivationRecord holds the function's Frame, the stack of blocks currently being executed within the function,
+ * and the information needed to update the caller's var variables once the function is finished.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class ActivationRecord {
+
+	private Frame frame;							   // The Frame holding the function's locals.
+	private ArrayList<BlockCursor> blocks;			   // The stack of blocks being executed.
+	private FunctionCallNode call;					   // The call that created this record, or null for Start.
+	private ArrayList<InterpreterDataType> arguments;  // The arguments passed into the function.
+
+	/**
+	 * Constructor for the ActivationRecord class. Takes in the function's Frame, the call that created the record and
+	 * the arguments passed in, and starts executing the function body.
+	 *
+	 * @param frame		 The Frame to store in the frame field.
+	 * @param call		 The FunctionCallNode to store in the call field.
+	 * @param arguments  The collection of IDTs to store in the arguments field.
+	 */
+	public ActivationRecord(Frame frame, FunctionCallNode call, ArrayList<InterpreterDataType> arguments) {
+		this.frame = frame;
+		this.call = call;
+		this.arguments = arguments;
+		blocks = new ArrayList<BlockCursor>();
+		blocks.add(new BlockCursor(frame.getFunction().getStatements(), null));
+	}
+
+	/**
+	 * Accessor for the frame field.
+	 *
+	 * @return  The Frame stored in the frame field.
+	 */
+	public Frame getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Accessor for the call field.
+	 *
+	 * @return  The FunctionCallNode stored in the call field.
+	 */
+	public FunctionCallNode getCall() {
+		return call;
+	}
+
+	/**
+	 * Accessor for the arguments field.
+	 *
+	 * @return  The collection of IDTs stored in the arguments field.
+	 */
+	public ArrayList<InterpreterDataType> getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * Starts executing the function body again from the first statement, discarding any blocks being executed. 
+	 * Used when the function makes a tail call to itself.
+	 */
+	public void restart() {
+		blocks.clear();
+		blocks.add(new BlockCursor(frame.getFunction().getStatements(), null));
+	}
+
+	/**
+	 * Evaluates whether the function is finished, ie there are no blocks left to execute.
+	 *
+	 * @return  true if there are no blocks left, and false otherwise.
+	 */
+	public boolean isFinished() {
+		return blocks.isEmpty();
+	}
+
+	/**
+	 * Returns the innermost block currently being executed.
+	 *
+	 * @return  The BlockCursor at the top of the blocks stack.
+	 */
+	public BlockCursor currentBlock() {
+		return blocks.get(blocks.size() - 1);
+	}
+
+	/**
+	 * Starts executing a new inner block, such as an if block or a loop body.
+	 *
+	 * @param block  The BlockCursor to push onto the blocks stack.
+	 */
+	public void pushBlock(BlockCursor block) {
+		blocks.add(block);
+	}
+
+	/**
+	 * Finishes executing the innermost block.
+	 */
+	public void popBlock() {
+		blocks.remove(blocks.size() - 1);
+	}
+}
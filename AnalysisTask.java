@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+/**
+ * A class used to run a FunctionAnalysis on many functions at once, using a fork/join pool. The functions are sorted
+ * by name, and each AnalysisTask analyzes a range of them, splitting the range in half until it is small enough. The
+ * error message of each function is stored at the function's own index, so no locking is needed, and the errors are
+ * always reported in the same order no matter which thread found them.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class AnalysisTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	// The least number of functions analyzed using the fork/join pool. Fewer functions are analyzed on the calling thread.
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	// The greatest number of functions analyzed by a single AnalysisTask without splitting.
+	private static final int SPLIT_SIZE = 16;
+
+	private FunctionAnalysis analysis;		  // The analysis to run on each function.
+	private ArrayList<FunctionNode> functions;  // Every function to analyze, sorted by name.
+	private String[] errors;					  // The error message of each function, or null if it has no error.
+	private int start;						  // The index of the first function to analyze.
+	private int end;							  // The index after the last function to analyze.
+
+	/**
+	 * Constructor for the AnalysisTask class.
+	 *
+	 * @param analysis   The FunctionAnalysis to store in the analysis field.
+	 * @param functions  The ArrayList of FunctionNodes to store in the functions field.
+	 * @param errors	 The array of error messages to store in the errors field.
+	 * @param start		 The int to store in the start field.
+	 * @param end		 The int to store in the end field.
+	 */
+	public AnalysisTask(FunctionAnalysis analysis, ArrayList<FunctionNode> functions, String[] errors, int start, int end) {
+		this.analysis = analysis;
+		this.functions = functions;
+		this.errors = errors;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Runs an analysis on every user-defined function in a collection. The functions are analyzed in parallel when
+	 * there are enough of them. Every function is analyzed, even after an error is found, so that all errors can be
+	 * reported at once.
+	 *
+	 * @param analysis   The FunctionAnalysis to run.
+	 * @param functions  The HashMap of function names and FunctionNodes to analyze. Built-in functions are skipped.
+	 * @throws SyntaxErrorException  When an error is found in any function. The message lists every error, in order
+	 * 									of function name.
+	 */
+	public static void analyze(FunctionAnalysis analysis, HashMap<String, FunctionNode> functions) throws SyntaxErrorException {
+		ArrayList<String> names = new ArrayList<String>(functions.keySet());
+		Collections.sort(names);
+		ArrayList<FunctionNode> userFunctions = new ArrayList<FunctionNode>();
+		for (String name : names)
+			if (!functions.get(name).isBuiltIn())
+				userFunctions.add(functions.get(name));
+
+		String[] errors = new String[userFunctions.size()];
+		AnalysisTask task = new AnalysisTask(analysis, userFunctions, errors, 0, userFunctions.size());
+		if (userFunctions.size() >= PARALLEL_THRESHOLD)
+			ForkJoinPool.commonPool().invoke(task);
+		else
+			task.compute();
+
+		// Join the error messages, in order of function name. A single error keeps its own message.
+		int errorCount = 0;
+		String firstError = null;
+		String message = "";
+		for (int i = 0; i < errors.length; i++)
+			if (errors[i] != null) {
+				errorCount++;
+				if (firstError == null)
+					firstError = errors[i];
+				message += "\n\tIn function " + userFunctions.get(i).getName() + ": " + errors[i];
+			}
+		if (errorCount == 1)
+			throw new SyntaxErrorException(firstError);
+		if (errorCount > 1)
+			throw new SyntaxErrorException("Found " + errorCount + " errors:" + message);
+	}
+
+	/**
+	 * Analyzes each function in the task's range, or splits the range into two tasks when it is too large.
+	 */
+	@Override
+	protected void compute() {
+		if (end - start > SPLIT_SIZE) {
+			int middle = (start + end) / 2;
+			invokeAll(new AnalysisTask(analysis, functions, errors, start, middle),
+					  new AnalysisTask(analysis, functions, errors, middle, end));
+			return;
+		}
+		for (int i = start; i < end; i++) {
+			try {
+				analysis.analyzeFunction(functions.get(i));
+			} catch (SyntaxErrorException e) {
+				errors[i] = e.getMessage();
+			}
+		}
+	}
+}
@@ -1,52 +1,482 @@
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 /**
  * A subclass of the InterpreterDataType. The ArrayDataType will be used in the Interpreter to hold an
- * array read from the AST created in the Parser. The array will hold generic InterpreterDataType elements.
+ * array read from the AST created in the Parser. The elements are stored in a primitive array matching the
+ * elementType (int[] for INTEGER, float[] for REAL, boolean[] for BOOLEAN, char[] for CHARACTER and String[] for
+ * STRING), so no InterpreterDataType is created for each element. Only the array matching the elementType is used;
+ * the others are left null.
  * 
+ * An INTEGER, REAL, BOOLEAN or CHARACTER array of at least OFF_HEAP_THRESHOLD elements is instead stored outside the
+ * Java heap, in direct ByteBuffers of up to 2^CHUNK_SHIFT bytes each, so the garbage collector never has to copy or
+ * scan it. Its storage is released by free() rather than by the garbage collector. An INTEGER or REAL array can also
+ * be bound to a binary file by the mapFile built-in function, in which case its ByteBuffers are mapped from the file.
+ * 
+ * An array passed into a function without var is passed as a copy-on-write copy: the copy shares the elements of the
+ * original until either of them is changed, and only then is the changed one given its own elements. So a function
+ * that only reads an array argument never copies it. The sharers field counts the ArrayDataTypes sharing the elements.
+ * 
+ * The primitive array (or ByteBuffers) may hold more elements than the array's length, so the append and resize
+ * built-in functions can grow an array without copying it each time. Its capacity is doubled whenever it runs out, so
+ * appending n elements copies fewer than 2n elements in all. The elements past the length always hold their default
+ * values, and shrinkToFit() drops them.
+ *
  * @author Tara Pedigo
  *
  */
 public class ArrayDataType extends InterpreterDataType {
 
 	public enum elementType { STRING, CHARACTER, INTEGER, REAL, BOOLEAN }  // enum for the possible element types.
-	private InterpreterDataType[] array;  // The array of InterPreterDataType to store.
+	private int[] integers;				  // The elements of an INTEGER array.
+	private float[] reals;				  // The elements of a REAL array.
+	private boolean[] booleans;			  // The elements of a BOOLEAN array.
+	private char[] characters;			  // The elements of a CHARACTER array.
+	private String[] strings;			  // The elements of a STRING array.
+	private ByteBuffer[] offHeap;		  // The elements of an array stored outside the Java heap, or null.
+	private boolean mapped;				  // Flag for an off-heap array whose ByteBuffers are mapped from a file.
+	private int length;					  // The number of elements, or -1 if the elements have not been created yet (at most the capacity).
 	private int from;					  // The minimum length of the array.
 	private int to;						  // The maximum length of the array.
 	private elementType type;  	 		  // The ElementType of the elements of the array.
 	private boolean changeable;			  // Flag for constant value or not.
+	private int[] sharers;				  // Holds the number of ArrayDataTypes sharing the elements (shared by each of them).
+	private boolean copy;				  // Flag for a copy-on-write copy that has not been given its own elements or released.
+	
+	// The smallest number of elements for a (non-STRING) array to be stored outside the Java heap.
+	public static final int OFF_HEAP_THRESHOLD = 1 << 24;
+	
+	// Each off-heap ByteBuffer holds 2^CHUNK_SHIFT bytes (except the last), so the byte offset of an element is split 
+	// into the ByteBuffer holding it and its position within that ByteBuffer.
+	public static final int CHUNK_SHIFT = 30;
+	private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+	
+	// The Unsafe.invokeCleaner() method used to release a direct ByteBuffer's memory right away, or null if it is not available.
+	private static final Object unsafe;
+	private static final Method invokeCleaner;
+	
+	static {
+		Object foundUnsafe = null;
+		Method foundCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			java.lang.reflect.Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			foundUnsafe = field.get(null);
+			foundCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		}
+		catch (Exception e) {
+			// Without it, off-heap memory is released once the garbage collector finds the ByteBuffers unused.
+			foundUnsafe = null;
+			foundCleaner = null;
+		}
+		unsafe = foundUnsafe;
+		invokeCleaner = foundCleaner;
+	}
 	
 	/**
 	 * Constructor for the ArrayDataType. Takes in a value for the length of the array, the minimum length,
 	 * the maximum length, and the InterpreterDataType for the array elements.
-	 * 
-	 * @param length  	   The length of the array.
+	 *
+	 * @param length  	   The length of the array, or -1 to create the elements when the array is first read into.
 	 * @param from    	   The minimum length of the array.
 	 * @param to	  	   The maximum length of the array.
 	 * @param elementType  The ElementType of the elements of the array.
 	 * @param changeable  The boolean to store in the changeable field.
 	 */
-	public ArrayDataType(IntegerDataType[] array, int from, int to, elementType type, boolean changeable) {
-		this.array = array;
+	public ArrayDataType(int length, int from, int to, elementType type, boolean changeable) {
 		this.from = from;
 		this.to = to;
 		this.type = type;
 		this.changeable = changeable;
+		this.length = -1;
+		this.sharers = new int[] {1};
+		if (length >= 0)
+			allocate(length);
 	}
 	
 	/**
-	 * Constructor for the ArrayDataType to create a "clone" of another ArrayDataType.
-	 * 
+	 * Constructor for the ArrayDataType to create a "clone" of another ArrayDataType. The clone is a copy-on-write
+	 * copy, which shares the elements of the original until either is changed.
+	 *
 	 * @param clone  The ArrayDataType to copy values from.
 	 */
 	public ArrayDataType(ArrayDataType clone) {
-		this.array = clone.array;
+		this.integers = clone.integers;
+		this.reals = clone.reals;
+		this.booleans = clone.booleans;
+		this.characters = clone.characters;
+		this.strings = clone.strings;
+		this.offHeap = clone.offHeap;
+		this.mapped = clone.mapped;
+		this.length = clone.length;
 		this.type = clone.type;
 		this.from = clone.from;
 		this.to = clone.to;
+		this.sharers = clone.sharers;
+		this.sharers[0]++;
+		this.copy = true;
+	}
+	
+	/**
+	 * Gives the array its own copy of its elements, if they are shared with another ArrayDataType. Called before
+	 * each change to the elements, so code changing the arrays returned by getIntegers() (and the other array
+	 * accessors) must call it first.
+	 */
+	public void unshare() {
+		if (sharers[0] <= 1)
+			return;
+		detach();
+		if (length < 0)
+			return;
+		if (offHeap == null) {
+			switch (type) {
+				case INTEGER:
+					integers = integers.clone();
+					break;
+				
+				case REAL:
+					reals = reals.clone();
+					break;
+				
+				case BOOLEAN:
+					booleans = booleans.clone();
+					break;
+				
+				case CHARACTER:
+					characters = characters.clone();
+					break;
+				
+				case STRING:
+					strings = strings.clone();
+					break;
+			}
+			return;
+		}
+		// An off-heap array is copied one ByteBuffer at a time, keeping its capacity. The elements of an array mapped from
+		// a file are copied one at a time instead, since the file's byte order may not match.
+		ByteBuffer[] source = offHeap;
+		boolean sourceMapped = mapped;
+		int count = length;
+		int capacity = getCapacity();
+		offHeap = null;
+		mapped = false;
+		allocate(capacity);
+		length = count;
+		if (offHeap != null && !sourceMapped) {
+			for (int i = 0; i < offHeap.length; i++)
+				offHeap[i].put(0, source[i], 0, source[i].capacity());
+		}
+		else {
+			for (int i = 0; i < length; i++) {
+				long offset = (long) i << 2;
+				int bits = source[(int) (offset >>> CHUNK_SHIFT)].getInt((int) (offset & CHUNK_MASK));
+				if (type == elementType.INTEGER)
+					setInteger(i, bits);
+				else
+					setReal(i, Float.intBitsToFloat(bits));
+			}
+		}
 	}
 	
 	/**
-	 * Accessor for the changeable field. 
-	 * 
+	 * Stops sharing the elements with the other ArrayDataTypes, without copying them. The caller must give the array
+	 * new elements (or a copy of the shared ones).
+	 */
+	private void detach() {
+		sharers[0]--;
+		sharers = new int[] {1};
+		copy = false;
+	}
+	
+	/**
+	 * Releases a copy-on-write copy once the function it was passed into is finished, so the original no longer
+	 * needs to copy its elements before it is changed. The copy must not be used afterwards.
+	 */
+	public void release() {
+		if (!copy)
+			return;
+		copy = false;
+		sharers[0]--;
+	}
+	
+	/**
+	 * Creates the primitive array matching the elementType, with every element set to its default value (0, 0.0,
+	 * false, the null character or the empty string). Large arrays are created outside the Java heap.
+	 *
+	 * @param newLength  The number of elements to create.
+	 */
+	private void allocate(int newLength) {
+		if (newLength >= OFF_HEAP_THRESHOLD && type != elementType.STRING) {
+			allocateOffHeap(newLength);
+			return;
+		}
+		switch (type) {
+			case INTEGER:
+				integers = new int[newLength];
+				break;
+			
+			case REAL:
+				reals = new float[newLength];
+				break;
+			
+			case BOOLEAN:
+				booleans = new boolean[newLength];
+				break;
+			
+			case CHARACTER:
+				characters = new char[newLength];
+				break;
+			
+			case STRING:
+				strings = new String[newLength];
+				java.util.Arrays.fill(strings, "");
+				break;
+		}
+		length = newLength;
+	}
+	
+	/**
+	 * Creates the direct ByteBuffers holding an array outside the Java heap. Direct ByteBuffers start out zeroed, so
+	 * every element starts at its default value.
+	 *
+	 * @param newLength  The number of elements to create.
+	 */
+	private void allocateOffHeap(int newLength) {
+		long bytes = (long) newLength * elementSize();
+		offHeap = new ByteBuffer[(int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT)];
+		for (int i = 0; i < offHeap.length; i++) {
+			long chunkBytes = Math.min(bytes - ((long) i << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+			offHeap[i] = ByteBuffer.allocateDirect((int) chunkBytes).order(ByteOrder.nativeOrder());
+		}
+		length = newLength;
+	}
+	
+	/**
+	 * Finds the number of bytes each element takes up outside the Java heap.
+	 *
+	 * @return  1 for a BOOLEAN array, 2 for a CHARACTER array, and 4 otherwise.
+	 */
+	private int elementSize() {
+		return (type == elementType.BOOLEAN) ? 1 : (type == elementType.CHARACTER) ? 2 : 4;
+	}
+	
+	/**
+	 * Finds the number of elements the array can hold before it has to be given new storage.
+	 *
+	 * @return  The number of elements in the primitive array (or ByteBuffers) holding the array.
+	 */
+	public int getCapacity() {
+		if (offHeap != null)
+			return (int) ((((long) (offHeap.length - 1) << CHUNK_SHIFT) + offHeap[offHeap.length - 1].capacity()) / elementSize());
+		switch (type) {
+			case INTEGER:
+				return integers == null ? 0 : integers.length;
+			
+			case REAL:
+				return reals == null ? 0 : reals.length;
+			
+			case BOOLEAN:
+				return booleans == null ? 0 : booleans.length;
+			
+			case CHARACTER:
+				return characters == null ? 0 : characters.length;
+			
+			default:
+				return strings == null ? 0 : strings.length;
+		}
+	}
+	
+	/**
+	 * Changes the number of elements, keeping the elements that are still within the array and giving any new elements
+	 * their default values. The to value becomes (from + newLength - 1). When the array runs out of capacity, its
+	 * capacity is at least doubled. The array must not be mapped from a file.
+	 *
+	 * @param newLength  The new number of elements, at least 0.
+	 */
+	public void resize(int newLength) {
+		if (length < 0)
+			length = 0;
+		if (newLength > getCapacity())
+			reallocate((int) Math.max(newLength, Math.min(2L * getCapacity(), Integer.MAX_VALUE - 8)));
+		else {
+			unshare();
+			// Reset the dropped elements, so the elements past the length keep their default values.
+			if (newLength < length)
+				clear(newLength, length);
+		}
+		length = newLength;
+		to = from + newLength - 1;
+	}
+	
+	/**
+	 * Adds an element after the last element, growing the array as resize() does. The IDT must match the elementType.
+	 *
+	 * @param value  The IDT holding the value to store in the new element.
+	 */
+	public void append(InterpreterDataType value) {
+		resize(Math.max(length, 0) + 1);
+		setElement(length - 1, value);
+	}
+	
+	/**
+	 * Gives the array new storage holding exactly its elements, releasing the capacity past its length. The array must
+	 * not be mapped from a file.
+	 */
+	public void shrinkToFit() {
+		if (length >= 0 && getCapacity() > length)
+			reallocate(length);
+	}
+	
+	/**
+	 * Moves the elements into new storage of a different capacity (outside the Java heap if it is large enough). The old
+	 * storage is released right away, unless its elements are still shared with another ArrayDataType.
+	 *
+	 * @param newCapacity  The number of elements the new storage can hold, at least the number kept.
+	 */
+	private void reallocate(int newCapacity) {
+		ArrayDataType old = new ArrayDataType(-1, from, to, type, changeable);
+		old.integers = integers;
+		old.reals = reals;
+		old.booleans = booleans;
+		old.characters = characters;
+		old.strings = strings;
+		old.offHeap = offHeap;
+		old.length = length;
+		boolean shared = sharers[0] > 1;
+		if (shared)
+			detach();
+		int count = Math.min(length, newCapacity);
+		integers = null;
+		reals = null;
+		booleans = null;
+		characters = null;
+		strings = null;
+		offHeap = null;
+		allocate(newCapacity);
+		length = count;
+		
+		// Off-heap storage is copied one ByteBuffer at a time, since both are split into ByteBuffers at the same positions.
+		// Any other storage is copied by copy().
+		if (offHeap != null && old.offHeap != null) {
+			for (int i = 0; i < Math.min(offHeap.length, old.offHeap.length); i++)
+				offHeap[i].put(0, old.offHeap[i], 0, Math.min(offHeap[i].capacity(), old.offHeap[i].capacity()));
+		}
+		else if (count > 0)
+			copy(old, 0, 0, count);
+		if (!shared)
+			old.free();
+	}
+	
+	/**
+	 * Resets a range of elements to their default values.
+	 *
+	 * @param start  The position (starting at 0) of the first element to reset.
+	 * @param end	 The position just after the last element to reset.
+	 */
+	private void clear(int start, int end) {
+		if (offHeap != null) {
+			for (long offset = (long) start * elementSize(); offset < (long) end * elementSize(); offset++)
+				offHeap[(int) (offset >>> CHUNK_SHIFT)].put((int) (offset & CHUNK_MASK), (byte) 0);
+			return;
+		}
+		switch (type) {
+			case INTEGER:
+				java.util.Arrays.fill(integers, start, end, 0);
+				break;
+			
+			case REAL:
+				java.util.Arrays.fill(reals, start, end, 0);
+				break;
+			
+			case BOOLEAN:
+				java.util.Arrays.fill(booleans, start, end, false);
+				break;
+			
+			case CHARACTER:
+				java.util.Arrays.fill(characters, start, end, '\0');
+				break;
+			
+			case STRING:
+				java.util.Arrays.fill(strings, start, end, "");
+				break;
+		}
+	}
+	
+	/**
+	 * Checks whether the elements are stored outside the Java heap.
+	 *
+	 * @return  true if the elements are in the offHeap field, and false otherwise.
+	 */
+	public boolean isOffHeap() {
+		return offHeap != null;
+	}
+	
+	/**
+	 * Binds the array to a file mapped into memory, replacing its elements. Each ByteBuffer must hold 2^CHUNK_SHIFT bytes
+	 * (except the last), and the array's from and to values become 0 and (length - 1).
+	 *
+	 * @param chunks	 The ByteBuffers mapped from the file, in order.
+	 * @param newLength  The number of elements in the file.
+	 */
+	public void map(ByteBuffer[] chunks, int newLength) {
+		if (sharers[0] > 1)
+			detach();
+		integers = null;
+		reals = null;
+		booleans = null;
+		characters = null;
+		strings = null;
+		offHeap = chunks;
+		mapped = true;
+		length = newLength;
+		from = 0;
+		to = newLength - 1;
+	}
+	
+	/**
+	 * Accessor for the mapped field.
+	 *
+	 * @return  The boolean stored in the mapped field.
+	 */
+	public boolean isMapped() {
+		return mapped;
+	}
+	
+	/**
+	 * Writes any changed elements of an array mapped from a file back to the file.
+	 */
+	public void flush() {
+		if (!mapped)
+			return;
+		for (ByteBuffer chunk : offHeap)
+			((java.nio.MappedByteBuffer) chunk).force();
+	}
+	
+	/**
+	 * Releases the memory of an array stored outside the Java heap right away, instead of waiting for the garbage
+	 * collector. The array must not be used afterwards. An array mapped from a file is not released, since it may have
+	 * been passed back to a calling function, and neither is an array whose elements are still shared.
+	 */
+	public void free() {
+		if (offHeap == null || mapped || sharers[0] > 1)
+			return;
+		if (invokeCleaner != null) {
+			try {
+				for (ByteBuffer chunk : offHeap)
+					invokeCleaner.invoke(unsafe, chunk);
+			}
+			catch (Exception e) {
+				// The memory will be released by the garbage collector instead.
+			}
+		}
+		offHeap = null;
+		length = -1;
+	}
+	
+	/**
+	 * Accessor for the changeable field.
+	 *
 	 * @return  The boolean stored in the changeable field.
 	 */
 	public boolean isChangeable() {
@@ -54,26 +484,517 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Accessor for the array field. 
-	 * 
-	 * @return  The array of generic InterpreterDataTypes stored in the array field.
+	 * Accessor for the length field.
+	 *
+	 * @return  The int stored in the length field.
+	 */
+	public int getLength() {
+		return length;
+	}
+	
+	/**
+	 * Accessor for the integers field.
+	 *
+	 * @return  The int array stored in the integers field, or null if the array is stored outside the Java heap.
+	 */
+	public int[] getIntegers() {
+		return integers;
+	}
+	
+	/**
+	 * Accessor for the reals field.
+	 *
+	 * @return  The float array stored in the reals field, or null if the array is stored outside the Java heap.
+	 */
+	public float[] getReals() {
+		return reals;
+	}
+	
+	/**
+	 * Accessor for the booleans field.
+	 *
+	 * @return  The boolean array stored in the booleans field, or null if the array is stored outside the Java heap.
+	 */
+	public boolean[] getBooleans() {
+		return booleans;
+	}
+	
+	/**
+	 * Accessor for the characters field.
+	 *
+	 * @return  The char array stored in the characters field, or null if the array is stored outside the Java heap.
+	 */
+	public char[] getCharacters() {
+		return characters;
+	}
+	
+	/**
+	 * Accessor for the strings field.
+	 *
+	 * @return  The String array stored in the strings field.
+	 */
+	public String[] getStrings() {
+		return strings;
+	}
+	
+	/**
+	 * Reads an element of an INTEGER array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  The int stored at the index.
+	 */
+	public int getInteger(int index) {
+		if (offHeap != null) {
+			long offset = (long) index << 2;
+			return offHeap[(int) (offset >>> CHUNK_SHIFT)].getInt((int) (offset & CHUNK_MASK));
+		}
+		return integers[index];
+	}
+	
+	/**
+	 * Writes an element of an INTEGER array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The int to store at the index.
+	 */
+	public void setInteger(int index, int value) {
+		if (sharers[0] > 1)
+			unshare();
+		if (offHeap != null) {
+			long offset = (long) index << 2;
+			offHeap[(int) (offset >>> CHUNK_SHIFT)].putInt((int) (offset & CHUNK_MASK), value);
+		}
+		else
+			integers[index] = value;
+	}
+	
+	/**
+	 * Reads an element of a REAL array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  The float stored at the index.
+	 */
+	public float getReal(int index) {
+		if (offHeap != null) {
+			long offset = (long) index << 2;
+			return offHeap[(int) (offset >>> CHUNK_SHIFT)].getFloat((int) (offset & CHUNK_MASK));
+		}
+		return reals[index];
+	}
+	
+	/**
+	 * Writes an element of a REAL array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The float to store at the index.
+	 */
+	public void setReal(int index, float value) {
+		if (sharers[0] > 1)
+			unshare();
+		if (offHeap != null) {
+			long offset = (long) index << 2;
+			offHeap[(int) (offset >>> CHUNK_SHIFT)].putFloat((int) (offset & CHUNK_MASK), value);
+		}
+		else
+			reals[index] = value;
+	}
+	
+	/**
+	 * Reads an element of a BOOLEAN array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  The boolean stored at the index.
+	 */
+	public boolean getBoolean(int index) {
+		if (offHeap != null) {
+			long offset = index;
+			return offHeap[(int) (offset >>> CHUNK_SHIFT)].get((int) (offset & CHUNK_MASK)) != 0;
+		}
+		return booleans[index];
+	}
+	
+	/**
+	 * Writes an element of a BOOLEAN array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The boolean to store at the index.
+	 */
+	public void setBoolean(int index, boolean value) {
+		if (sharers[0] > 1)
+			unshare();
+		if (offHeap != null) {
+			long offset = index;
+			offHeap[(int) (offset >>> CHUNK_SHIFT)].put((int) (offset & CHUNK_MASK), (byte) (value ? 1 : 0));
+		}
+		else
+			booleans[index] = value;
+	}
+	
+	/**
+	 * Reads an element of a CHARACTER array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  The char stored at the index.
+	 */
+	public char getCharacter(int index) {
+		if (offHeap != null) {
+			long offset = (long) index << 1;
+			return offHeap[(int) (offset >>> CHUNK_SHIFT)].getChar((int) (offset & CHUNK_MASK));
+		}
+		return characters[index];
+	}
+	
+	/**
+	 * Writes an element of a CHARACTER array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The char to store at the index.
+	 */
+	public void setCharacter(int index, char value) {
+		if (sharers[0] > 1)
+			unshare();
+		if (offHeap != null) {
+			long offset = (long) index << 1;
+			offHeap[(int) (offset >>> CHUNK_SHIFT)].putChar((int) (offset & CHUNK_MASK), value);
+		}
+		else
+			characters[index] = value;
+	}
+	
+	/**
+	 * Reads an element of a STRING array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  The String stored at the index.
 	 */
-	public InterpreterDataType[] getArray() {
-		return array;
+	public String getString(int index) {
+		return strings[index];
 	}
 	
 	/**
-	 * Mutator for the array field. 
-	 * 
-	 * @param  The array of generic InterpreterDataTypes to store in the array field.
+	 * Writes an element of a STRING array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The String to store at the index.
 	 */
-	public void setArray(InterpreterDataType[] newArray) {
-		array = newArray;
+	public void setString(int index, String value) {
+		if (sharers[0] > 1)
+			unshare();
+		strings[index] = value;
 	}
 	
 	/**
-	 * Accessor for the from field. 
-	 * 
+	 * Creates a new InterpreterDataType holding a copy of an element, for code that works with any elementType.
+	 * Changing the returned IDT does not change the array.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @return  An IDT matching the elementType, holding the element stored at the index.
+	 */
+	public InterpreterDataType getElement(int index) {
+		switch (type) {
+			case INTEGER:
+				return new IntegerDataType(getInteger(index), 0, 0, changeable);
+			
+			case REAL:
+				return new RealDataType(getReal(index), 0, 0, changeable);
+			
+			case BOOLEAN:
+				return new BooleanDataType(getBoolean(index), changeable);
+			
+			case CHARACTER:
+				return new CharacterDataType(getCharacter(index), changeable);
+			
+			case STRING:
+				return new StringDataType(getString(index), 0, 0, changeable);
+		}
+		return null;
+	}
+	
+	/**
+	 * Writes an element from an InterpreterDataType, for code that works with any elementType. The IDT must match
+	 * the elementType.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The IDT holding the value to store at the index.
+	 */
+	public void setElement(int index, InterpreterDataType value) {
+		switch (type) {
+			case INTEGER:
+				setInteger(index, ((IntegerDataType) value).getValue());
+				break;
+			
+			case REAL:
+				setReal(index, ((RealDataType) value).getValue());
+				break;
+			
+			case BOOLEAN:
+				setBoolean(index, ((BooleanDataType) value).getBool());
+				break;
+			
+			case CHARACTER:
+				setCharacter(index, ((CharacterDataType) value).getChar());
+				break;
+			
+			case STRING:
+				setString(index, ((StringDataType) value).getString());
+				break;
+		}
+	}
+	
+	/**
+	 * Writes the same value into every element. The IDT must match the elementType.
+	 *
+	 * @param value  The IDT holding the value to store in each element.
+	 */
+	public void fill(InterpreterDataType value) {
+		unshare();
+		if (offHeap != null) {
+			fillOffHeap(value);
+			return;
+		}
+		switch (type) {
+			case INTEGER:
+				java.util.Arrays.fill(integers, 0, length, ((IntegerDataType) value).getValue());
+				break;
+				
+			case REAL:
+				java.util.Arrays.fill(reals, 0, length, ((RealDataType) value).getValue());
+				break;
+				
+			case BOOLEAN:
+				java.util.Arrays.fill(booleans, 0, length, ((BooleanDataType) value).getBool());
+				break;
+				
+			case CHARACTER:
+				java.util.Arrays.fill(characters, 0, length, ((CharacterDataType) value).getChar());
+				break;
+				
+			case STRING:
+				java.util.Arrays.fill(strings, 0, length, ((StringDataType) value).getString());
+				break;
+		}
+	}
+	
+	/**
+	 * Writes the same value into every element of an array stored outside the Java heap. A block of bytes holding the
+	 * value repeatedly is built first, in the ByteBuffers' byte order (a mapped file's order may not match the native
+	 * order), and then copied over each ByteBuffer, up to the last element.
+	 *
+	 * @param value  The IDT holding the value to store in each element.
+	 */
+	private void fillOffHeap(InterpreterDataType value) {
+		ByteBuffer pattern = ByteBuffer.allocate(4096).order(offHeap[0].order());
+		while (pattern.hasRemaining()) {
+			switch (type) {
+				case INTEGER:
+					pattern.putInt(((IntegerDataType) value).getValue());
+					break;
+					
+				case REAL:
+					pattern.putFloat(((RealDataType) value).getValue());
+					break;
+					
+				case BOOLEAN:
+					pattern.put((byte) (((BooleanDataType) value).getBool() ? 1 : 0));
+					break;
+					
+				case CHARACTER:
+					pattern.putChar(((CharacterDataType) value).getChar());
+					break;
+					
+				default:
+					return;
+			}
+		}
+		long remaining = (long) length * elementSize();
+		for (ByteBuffer chunk : offHeap) {
+			ByteBuffer target = chunk.duplicate();
+			target.clear();
+			target.limit((int) Math.min(target.capacity(), Math.max(remaining, 0)));
+			remaining -= target.capacity();
+			while (target.hasRemaining()) {
+				pattern.clear();
+				pattern.limit(Math.min(pattern.capacity(), target.remaining()));
+				target.put(pattern);
+			}
+		}
+	}
+	
+	/**
+	 * Copies a range of elements from another array (or from this array) with the same elementType. The result is the
+	 * same as if the elements were first copied somewhere else, so overlapping ranges of the same array are copied
+	 * correctly.
+	 *
+	 * @param source		  The ArrayDataType to copy the elements from.
+	 * @param sourcePosition  The position (starting at 0) of the first element to copy.
+	 * @param position		  The position (starting at 0) to copy the first element to.
+	 * @param count			  The number of elements to copy.
+	 */
+	public void copy(ArrayDataType source, int sourcePosition, int position, int count) {
+		unshare();
+		if (offHeap == null && source.offHeap == null) {
+			switch (type) {
+				case INTEGER:
+					System.arraycopy(source.integers, sourcePosition, integers, position, count);
+					break;
+				
+				case REAL:
+					System.arraycopy(source.reals, sourcePosition, reals, position, count);
+					break;
+				
+				case BOOLEAN:
+					System.arraycopy(source.booleans, sourcePosition, booleans, position, count);
+					break;
+				
+				case CHARACTER:
+					System.arraycopy(source.characters, sourcePosition, characters, position, count);
+					break;
+				
+				case STRING:
+					System.arraycopy(source.strings, sourcePosition, strings, position, count);
+					break;
+			}
+			return;
+		}
+		// Off-heap elements are copied one at a time, in the direction that reads each element before it is overwritten.
+		if (position <= sourcePosition) {
+			for (int k = 0; k < count; k++)
+				setElement(position + k, source.getElement(sourcePosition + k));
+		}
+		else {
+			for (int k = count - 1; k >= 0; k--)
+				setElement(position + k, source.getElement(sourcePosition + k));
+		}
+	}
+	
+	/**
+	 * Sorts the elements into ascending order (false before true for BOOLEAN arrays). The elements of an array stored
+	 * outside the Java heap are copied into a primitive array to be sorted, and then copied back.
+	 */
+	public void sort() {
+		unshare();
+		if (offHeap != null) {
+			switch (type) {
+				case INTEGER:
+					int[] sortedIntegers = new int[length];
+					for (int i = 0; i < length; i++)
+						sortedIntegers[i] = getInteger(i);
+					java.util.Arrays.sort(sortedIntegers);
+					for (int i = 0; i < length; i++)
+						setInteger(i, sortedIntegers[i]);
+					break;
+				
+				case REAL:
+					float[] sortedReals = new float[length];
+					for (int i = 0; i < length; i++)
+						sortedReals[i] = getReal(i);
+					java.util.Arrays.sort(sortedReals);
+					for (int i = 0; i < length; i++)
+						setReal(i, sortedReals[i]);
+					break;
+				
+				case CHARACTER:
+					char[] sortedCharacters = new char[length];
+					for (int i = 0; i < length; i++)
+						sortedCharacters[i] = getCharacter(i);
+					java.util.Arrays.sort(sortedCharacters);
+					for (int i = 0; i < length; i++)
+						setCharacter(i, sortedCharacters[i]);
+					break;
+				
+				default:
+					sortBooleans();
+					break;
+			}
+			return;
+		}
+		switch (type) {
+			case INTEGER:
+				java.util.Arrays.sort(integers, 0, length);
+				break;
+			
+			case REAL:
+				java.util.Arrays.sort(reals, 0, length);
+				break;
+			
+			case BOOLEAN:
+				sortBooleans();
+				break;
+			
+			case CHARACTER:
+				java.util.Arrays.sort(characters, 0, length);
+				break;
+			
+			case STRING:
+				java.util.Arrays.sort(strings, 0, length);
+				break;
+		}
+	}
+	
+	/**
+	 * Sorts the elements of a BOOLEAN array, by counting the false elements and then rewriting every element.
+	 */
+	private void sortBooleans() {
+		int falseCount = 0;
+		for (int i = 0; i < length; i++)
+			if (!getBoolean(i))
+				falseCount++;
+		for (int i = 0; i < length; i++)
+			setBoolean(i, i >= falseCount);
+	}
+	
+	/**
+	 * Searches for an element in an array whose elements are in ascending order (as left by sort()), using a binary
+	 * search. The IDT must match the elementType.
+	 *
+	 * @param value  The IDT holding the value to search for.
+	 * @return  The position (starting at 0) of an element equal to the value, or -1 if there is none.
+	 */
+	public int search(InterpreterDataType value) {
+		int low = 0;
+		int high = length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = compareElement(middle, value);
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Compares an element with a value, using the same order as sort(). The IDT must match the elementType.
+	 *
+	 * @param index  The position of the element, starting at 0.
+	 * @param value  The IDT holding the value to compare with.
+	 * @return  A negative number, zero, or a positive number as the element is less than, equal to, or greater than the value.
+	 */
+	private int compareElement(int index, InterpreterDataType value) {
+		switch (type) {
+			case INTEGER:
+				return Integer.compare(getInteger(index), ((IntegerDataType) value).getValue());
+			
+			case REAL:
+				return Float.compare(getReal(index), ((RealDataType) value).getValue());
+			
+			case BOOLEAN:
+				return Boolean.compare(getBoolean(index), ((BooleanDataType) value).getBool());
+			
+			case CHARACTER:
+				return Character.compare(getCharacter(index), ((CharacterDataType) value).getChar());
+			
+			default:
+				return getString(index).compareTo(((StringDataType) value).getString());
+		}
+	}
+	
+	/**
+	 * Accessor for the from field.
+	 *
 	 * @return  The int stored in the from field.
 	 */
 	public int getFrom() {
@@ -81,8 +1002,8 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Mutator for the from field. 
-	 * 
+	 * Mutator for the from field.
+	 *
 	 * @param  The int to store in the from field.
 	 */
 	public void setFrom(int newFrom) {
@@ -90,8 +1011,8 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Accessor for the to field. 
-	 * 
+	 * Accessor for the to field.
+	 *
 	 * @return  The int stored in the to field.
 	 */
 	public int getTo() {
@@ -99,8 +1020,8 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Mutator for the to field. 
-	 * 
+	 * Mutator for the to field.
+	 *
 	 * @param  The int to store in the to field.
 	 */
 	public void setTo(int newTo) {
@@ -108,8 +1029,8 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Accessor for the type field. 
-	 * 
+	 * Accessor for the type field.
+	 *
 	 * @return  The elementType stored in the type field.
 	 */
 	public elementType getType() {
@@ -117,80 +1038,157 @@ public class ArrayDataType extends InterpreterDataType {
 	}
 	
 	/**
-	 * Mutator for the type field. 
-	 * 
-	 * @param  The elementType to store in the type field.
+	 * Checks whether an InterpreterDataType holds the same data type as the elements of the array.
+	 *
+	 * @param value  The IDT to check.
+	 * @return  true if the IDT could be stored as an element, and false otherwise.
 	 */
-	public void setType(elementType newType) {
-		type = newType;
+	public boolean isElementType(InterpreterDataType value) {
+		switch (type) {
+			case INTEGER:
+				return value instanceof IntegerDataType;
+			
+			case REAL:
+				return value instanceof RealDataType;
+			
+			case BOOLEAN:
+				return value instanceof BooleanDataType;
+			
+			case CHARACTER:
+				return value instanceof CharacterDataType;
+			
+			default:
+				return value instanceof StringDataType;
+		}
+	}
+	
+	/**
+	 * Adds a single element to a StringBuilder, in the same format as the toString() method of the matching IDT.
+	 *
+	 * @param builder  The StringBuilder to add to.
+	 * @param index	   The position of the element, starting at 0.
+	 */
+	private void appendElement(StringBuilder builder, int index) {
+		switch (type) {
+			case INTEGER:
+				builder.append(getInteger(index));
+				break;
+			
+			case REAL:
+				builder.append(getReal(index));
+				break;
+			
+			case BOOLEAN:
+				builder.append(getBoolean(index));
+				break;
+			
+			case CHARACTER:
+				builder.append(getCharacter(index));
+				break;
+			
+			case STRING:
+				builder.append(getString(index));
+				break;
+		}
+	}
+	
+	/**
+	 * Adds every element to a StringBuilder in the format "a1,a2,a3" (comma separated elements), so an array can be
+	 * written out without building a separate String for it.
+	 *
+	 * @param builder  The StringBuilder to add to.
+	 */
+	public void appendTo(StringBuilder builder) {
+		for (int i = 0; i < length; i++) {
+			if (i > 0)
+				builder.append(',');
+			appendElement(builder, i);
+		}
 	}
 	
 	/**
 	 * Implementation of the toString() method for the ArrayDataType.
-	 * 
+	 *
 	 * @return  A String version of the ArrayDataType in the format "a1,a2,a3" (comma separated elements).
 	 */
 	@Override
 	public String toString() {
-		String returnString = "";
-		for (int i = 0; i < array.length-1; i++)
-			returnString += array[i].toString() + ",";
-		return returnString + array[array.length-1].toString();  // add last element.
+		StringBuilder builder = new StringBuilder();
+		appendTo(builder);
+		return builder.toString();
 	}
-
+	
 	/**
 	 * An implementation of the fromString method used only for Read. The String input is assumed to be comma-separated
 	 * values which are to be the individual elements of the array. The method will check the elementType of the array
-	 * being added to and interpret the input accordingly.
-	 * 
+	 * being added to and interpret the input accordingly. The input is scanned once to count the elements and once to
+	 * read them, without splitting it into a String per element (except for REAL and STRING elements). As with
+	 * String.split(), commas at the end of the input are ignored.
+	 *
 	 * @param input  The String to read from, assumed to be comma-separated array elements.
-	 * @throws SyntaxErrorException  When an incorrect data type is inputted, i.e. the input does not match elementType.  
+	 * @throws SyntaxErrorException  When an incorrect data type is inputted, i.e. the input does not match elementType.
 	 */
 	@Override
 	public void fromString(String input) throws SyntaxErrorException {
-		// Split the string at each comma, since the array elements will be separated by commas.
-		String[] splitInput = input.split(",");
-		int i = 0;  // To represent current index at which to input into array.
+		// Find the end of the elements (before any trailing commas), and count the elements, since they are separated by commas.
+		int end = input.length();
+		while (end > 0 && input.charAt(end - 1) == ',')
+			end--;
+		int count = (end == 0 && input.length() > 0) ? 0 : 1;
+		for (int k = 0; k < end; k++)
+			if (input.charAt(k) == ',')
+				count++;
+		unshare();
 		
 		// Initialize array if necessary.
-		if (array == null)
-			array = new InterpreterDataType[splitInput.length];
+		if (length < 0)
+			allocate(count);
 		// Otherwise, array is initialized so input length needs to match pre-existing array's length.
 		else {
-			if (array.length != splitInput.length)
-				throw new SyntaxErrorException("Error using read: must input " + array.length + " elements to match the pre-existing array's length.");
+			if (length != count)
+				throw new SyntaxErrorException("Error using read: must input " + length + " elements to match the pre-existing array's length.");
 		}
-		// Add the items from the split string into the array, according to the matching element type.
-		for (String item : splitInput) {
-			switch (type) {
-				case INTEGER:
-					array[i] = new IntegerDataType(Integer.parseInt(item), 0, 0, true);
-					break;
-				
-				case REAL:
-					array[i] = new RealDataType(Float.parseFloat(item), 0, 0, true);
-					break;
-				
-				case BOOLEAN:
-					if (input.equals("true"))
-						array[i] = new BooleanDataType(true, true);
-					else if (input.equals("false"))
-						array[i] = new BooleanDataType(false, true);
-					else
-						throw new SyntaxErrorException("Error using read function: boolean input for array must be \"true\" or \"false\".");
-					break;
-				
-				case CHARACTER:
-					if (item.length() != 1) 
-						throw new SyntaxErrorException("Error using read function: char input must be one character long.");
-					array[i] = new CharacterDataType(item.charAt(0), true);
-					break;
-				
-				case STRING:
-					array[i] = new StringDataType(item, 0, 0, true);
-					break;
+		// Add each item between commas into the array, according to the matching element type.
+		int itemStart = 0;  // To represent the position in input of the current item.
+		for (int i = 0; i < count; i++) {
+			int itemEnd = input.indexOf(',', itemStart);
+			if (itemEnd < 0 || itemEnd > end)
+				itemEnd = end;
+			try {
+				switch (type) {
+					case INTEGER:
+						setInteger(i, Integer.parseInt(input, itemStart, itemEnd, 10));
+						break;
+					
+					case REAL:
+						setReal(i, Float.parseFloat(input.substring(itemStart, itemEnd)));
+						break;
+					
+					case BOOLEAN:
+						if (itemEnd - itemStart == 4 && input.startsWith("true", itemStart))
+							setBoolean(i, true);
+						else if (itemEnd - itemStart == 5 && input.startsWith("false", itemStart))
+							setBoolean(i, false);
+						else
+							throw new SyntaxErrorException("Error using read function: boolean input for array must be \"true\" or \"false\".");
+						break;
+					
+					case CHARACTER:
+						if (itemEnd - itemStart != 1)
+							throw new SyntaxErrorException("Error using read function: char input must be one character long.");
+						setCharacter(i, input.charAt(itemStart));
+						break;
+					
+					case STRING:
+						setString(i, input.substring(itemStart, itemEnd));
+						break;
+				}
+			}
+			catch (NumberFormatException e) {
+				throw new SyntaxErrorException("Error using read function: \"" + input.substring(itemStart, itemEnd) + 
+						"\" is not a valid " + (type == elementType.INTEGER ? "integer" : "real") + ".");
 			}
-			i++;  // increment the index in splitString.
+			itemStart = itemEnd + 1;  // move past the comma.
 		}
 	}
 
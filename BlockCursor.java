@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+/**
+ * A class representing a block of statements that is currently being executed by the Interpreter's explicit call
+ * stack. A BlockCursor holds the block's statements and the index of the next statement to run. If the block is the
+ * body of a loop, it also holds the loop and any state needed to decide whether the block should run again.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class BlockCursor {
+
+	private ArrayList<StatementNode> statements;  // The statements in the block.
+	private int index;							  // The index of the next statement to run.
+	private StatementNode loop;					  // The While/Repeat/ForNode owning the block, or null if not a loop.
+	private InterpreterDataType controlVariable;  // The control variable of a for loop.
+	private int intCount;						  // The current count of an integer for loop.
+	private int intLimit;						  // The terminating count of an integer for loop.
+	private float floatCount;					  // The current count of a real for loop.
+	private float floatLimit;					  // The terminating count of a real for loop.
+
+	/**
+	 * Constructor for the BlockCursor class. Takes in a block of statements and the loop owning the block.
+	 *
+	 * @param statements  The collection of StatementNodes to store in the statements field.
+	 * @param loop		  The While/Repeat/ForNode to store in the loop field, or null if the block is not a loop.
+	 */
+	public BlockCursor(ArrayList<StatementNode> statements, StatementNode loop) {
+		this.statements = statements;
+		this.loop = loop;
+		index = 0;
+	}
+
+	/**
+	 * Constructor for the BlockCursor class, used for the block of an integer for loop. Also takes in the control 
+	 * variable and the initial and terminating counts of the loop.
+	 *
+	 * @param statement		   The ForNode owning the block.
+	 * @param controlVariable  The IDT to store in the controlVariable field.
+	 * @param count			   The int to store in the intCount field.
+	 * @param limit			   The int to store in the intLimit field.
+	 */
+	public BlockCursor(ForNode statement, IntegerDataType controlVariable, int count, int limit) {
+		this(statement.getStatements(), statement);
+		this.controlVariable = controlVariable;
+		intCount = count;
+		intLimit = limit;
+	}
+
+	/**
+	 * Constructor for the BlockCursor class, used for the block of a real for loop. Also takes in the control 
+	 * variable and the initial and terminating counts of the loop.
+	 *
+	 * @param statement		   The ForNode owning the block.
+	 * @param controlVariable  The IDT to store in the controlVariable field.
+	 * @param count			   The float to store in the floatCount field.
+	 * @param limit			   The float to store in the floatLimit field.
+	 */
+	public BlockCursor(ForNode statement, RealDataType controlVariable, float count, float limit) {
+		this(statement.getStatements(), statement);
+		this.controlVariable = controlVariable;
+		floatCount = count;
+		floatLimit = limit;
+	}
+
+	/**
+	 * Evaluates whether there are statements left to run in the block.
+	 *
+	 * @return  true if there is another statement to run, and false otherwise.
+	 */
+	public boolean hasNext() {
+		return statements != null && index < statements.size();
+	}
+
+	/**
+	 * Returns the next statement to run, and moves the index past it.
+	 *
+	 * @return  The next StatementNode in the block.
+	 */
+	public StatementNode next() {
+		return statements.get(index++);
+	}
+
+	/**
+	 * Moves the index back to the first statement, so the block runs again.
+	 */
+	public void restart() {
+		index = 0;
+	}
+
+	/**
+	 * Accessor for the loop field.
+	 *
+	 * @return  The StatementNode stored in the loop field.
+	 */
+	public StatementNode getLoop() {
+		return loop;
+	}
+
+	/**
+	 * Accessor for the controlVariable field.
+	 *
+	 * @return  The IDT stored in the controlVariable field.
+	 */
+	public InterpreterDataType getControlVariable() {
+		return controlVariable;
+	}
+
+	/**
+	 * Increments the count of a for loop, and evaluates whether the loop should run again.
+	 *
+	 * @return  true if the count is still less than the limit, and false otherwise.
+	 */
+	public boolean nextCount() {
+		if (controlVariable instanceof IntegerDataType) {
+			intCount++;
+			return intCount < intLimit;
+		}
+		floatCount++;
+		return floatCount < floatLimit;
+	}
+}
@@ -0,0 +1,47 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "append" function in Shank. Takes in two arguments and adds the first argument as
+ * a new element after the last element of the second (var) argument, an array holding the same data type. The array's
+ * to value goes up by one. The array's capacity is doubled whenever it runs out, so appending is fast on average.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInAppend extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInAppend class. Calls a specific super constructor.
+	 */
+	public BuiltInAppend() {
+		super("append");
+	}
+	
+	/**
+	 * Execute method for the BuiltInAppend class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and adding the value to the end of the second (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or
+	 * 									the array cannot grow.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid append function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(1) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid append function call: second argument is not an array.");
+		ArrayDataType array = (ArrayDataType) args.get(1);
+		if (!array.isElementType(args.get(0)))
+			throw new SyntaxErrorException("Invalid append function call: first argument does not match the array's element type.");
+		if (array.isMapped())
+			throw new SyntaxErrorException("Invalid append function call: an array mapped from a file cannot be resized.");
+		if (array.getTo() == Integer.MAX_VALUE || array.getLength() == Integer.MAX_VALUE - 8)
+			throw new SyntaxErrorException("Invalid append function call: the array cannot hold any more elements.");
+		
+		// Update the second (var) array argument to hold the new element.
+		array.append(args.get(0));
+	}
+}
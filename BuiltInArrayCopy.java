@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "arrayCopy" function in Shank. Takes in five arguments: a source array, the index
+ * of the first element to copy, the number of elements to copy, the index to copy the first element to, and the
+ * (var) target array, which must hold the same data type. The source and target may be the same array, in which case
+ * overlapping ranges are copied as if through a temporary array.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInArrayCopy extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInArrayCopy class. Calls a specific super constructor.
+	 */
+	public BuiltInArrayCopy() {
+		super("arrayCopy");
+	}
+	
+	/**
+	 * Execute method for the BuiltInArrayCopy class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types and indexes, and copying the range of elements into the
+	 * fifth (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or
+	 * 									either range is out of its array's bounds.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 5)
+			throw new SyntaxErrorException("Invalid arrayCopy function call: must have five arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid arrayCopy function call: first argument is not an array.");
+		if (!(args.get(1) instanceof IntegerDataType))
+			throw new SyntaxErrorException("Invalid arrayCopy function call: second argument is not an integer.");
+		if (!(args.get(2) instanceof IntegerDataType))
+			throw new SyntaxErrorException("Invalid arrayCopy function call: third argument is not an integer.");
+		if (!(args.get(3) instanceof IntegerDataType))
+			throw new SyntaxErrorException("Invalid arrayCopy function call: fourth argument is not an integer.");
+		if (!(args.get(4) instanceof ArrayDataType) || ((ArrayDataType) args.get(4)).getType() != ((ArrayDataType) args.get(0)).getType())
+			throw new SyntaxErrorException("Invalid arrayCopy function call: fifth argument is not an array of the same type as the first.");
+		
+		// Check that both ranges are within their array's bounds.
+		ArrayDataType source = (ArrayDataType) args.get(0);
+		ArrayDataType target = (ArrayDataType) args.get(4);
+		int sourceIndex = ((IntegerDataType) args.get(1)).getValue();  // the index of the first element to copy
+		int count = ((IntegerDataType) args.get(2)).getValue();		  // the number of elements to copy
+		int targetIndex = ((IntegerDataType) args.get(3)).getValue();  // the index to copy the first element to
+		if (count < 0)
+			throw new SyntaxErrorException("Invalid arrayCopy function call: cannot copy " + count + " elements.");
+		if (sourceIndex < source.getFrom() || (long) sourceIndex + count - 1 > source.getTo())
+			throw new SyntaxErrorException("Invalid arrayCopy function call: elements " + sourceIndex + " to " + ((long) sourceIndex + count - 1) +
+					" must be from " + source.getFrom() + " to " + source.getTo() + ".");
+		if (targetIndex < target.getFrom() || (long) targetIndex + count - 1 > target.getTo())
+			throw new SyntaxErrorException("Invalid arrayCopy function call: elements " + targetIndex + " to " + ((long) targetIndex + count - 1) +
+					" must be from " + target.getFrom() + " to " + target.getTo() + ".");
+		
+		// Update the fifth (var) array argument to hold the copied elements.
+		target.copy(source, sourceIndex - source.getFrom(), targetIndex - target.getFrom(), count);
+	}
+}
@@ -0,0 +1,42 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "arrayFill" function in Shank. Takes in two arguments and stores the first
+ * argument into every element of the second (var) argument, an array holding the same data type.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInArrayFill extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInArrayFill class. Calls a specific super constructor.
+	 */
+	public BuiltInArrayFill() {
+		super("arrayFill");
+	}
+	
+	/**
+	 * Execute method for the BuiltInArrayFill class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and storing the value into every element of the 
+	 * second (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid arrayFill function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(1) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid arrayFill function call: second argument is not an array.");
+		ArrayDataType array = (ArrayDataType) args.get(1);
+		if (!array.isElementType(args.get(0)))
+			throw new SyntaxErrorException("Invalid arrayFill function call: first argument does not match the array's element type.");
+		
+		// Update the second (var) array argument to hold the value in each element.
+		array.fill(args.get(0));
+	}
+}
@@ -0,0 +1,38 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "arraySort" function in Shank. Takes in one (var) argument, an array of any
+ * data type, and sorts its elements into ascending order.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInArraySort extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInArraySort class. Calls a specific super constructor.
+	 */
+	public BuiltInArraySort() {
+		super("arraySort");
+	}
+	
+	/**
+	 * Execute method for the BuiltInArraySort class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and sorting the elements of the (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 1)
+			throw new SyntaxErrorException("Invalid arraySort function call: must have one argument.");
+		
+		// Check inputed argument to ensure it matches the built-in's necessary type.
+		if (!(args.get(0) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid arraySort function call: argument is not an array.");
+		
+		// Sort the elements of the (var) array argument.
+		((ArrayDataType) args.get(0)).sort();
+	}
+}
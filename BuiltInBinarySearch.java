@@ -0,0 +1,46 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "binarySearch" function in Shank. Takes in three arguments: an array whose elements
+ * are in ascending order (as left by arraySort), a value of the same data type, and a (var) integer. Stores the index
+ * of an element equal to the value into the third argument, or the array's from value - 1 if there is none.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInBinarySearch extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInBinarySearch class. Calls a specific super constructor.
+	 */
+	public BuiltInBinarySearch() {
+		super("binarySearch");
+	}
+	
+	/**
+	 * Execute method for the BuiltInBinarySearch class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and storing the index of the value in the array into the
+	 * third (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 3)
+			throw new SyntaxErrorException("Invalid binarySearch function call: must have three arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid binarySearch function call: first argument is not an array.");
+		ArrayDataType array = (ArrayDataType) args.get(0);
+		if (!array.isElementType(args.get(1)))
+			throw new SyntaxErrorException("Invalid binarySearch function call: second argument does not match the array's element type.");
+		if (!(args.get(2) instanceof IntegerDataType))
+			throw new SyntaxErrorException("Invalid binarySearch function call: third argument is not an integer.");
+		
+		// Update the third (var) integer argument to hold the index found, counting from the array's from value.
+		int position = array.search(args.get(1));
+		((IntegerDataType) args.get(2)).setValue((position < 0) ? array.getFrom() - 1 : array.getFrom() + position);
+	}
+}
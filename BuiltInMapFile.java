@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/**
+ * Class representing the built-in "mapFile" function in Shank. Takes in two arguments: the name of a binary file, and
+ * a (var) array of integers or reals. The array is bound to the file, so each element is read from and written to the
+ * file (through the operating system's page cache) instead of being loaded into memory. Each element is 4 bytes, in
+ * big-endian order, so the array's from value becomes 0 and its to value becomes the file size / 4 - 1. Changes are
+ * written to the file when the function calling mapFile is finished.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInMapFile extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInMapFile class. Calls a specific super constructor.
+	 */
+	public BuiltInMapFile() {
+		super("mapFile");
+	}
+
+	/**
+	 * Execute method for the BuiltInMapFile class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and mapping the file named by the first argument into
+	 * the second (var) argument.
+	 *
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or the
+	 * 									file cannot be mapped.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid mapFile function call: must have two arguments.");
+
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof StringDataType))
+			throw new SyntaxErrorException("Invalid mapFile function call: first argument is not a string.");
+		if (!(args.get(1) instanceof ArrayDataType) || (((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.INTEGER &&
+				((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.REAL))
+			throw new SyntaxErrorException("Invalid mapFile function call: second argument is not an array of integers or reals.");
+
+		String fileName = ((StringDataType) args.get(0)).getString();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long elements = channel.size() / 4;
+			if (elements == 0 || elements > Integer.MAX_VALUE)
+				throw new SyntaxErrorException("Invalid mapFile function call: file \"" + fileName + "\" must hold from 1 to " +
+						Integer.MAX_VALUE + " elements.");
+
+			// Map the file in parts of the size ArrayDataType uses for off-heap storage, since a single mapping cannot be larger
+			// than 2GB. The mappings stay valid once the channel is closed.
+			long bytes = elements * 4;
+			ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + (1L << ArrayDataType.CHUNK_SHIFT) - 1) >>> ArrayDataType.CHUNK_SHIFT)];
+			for (int i = 0; i < chunks.length; i++) {
+				long position = (long) i << ArrayDataType.CHUNK_SHIFT;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(bytes - position, 1L << ArrayDataType.CHUNK_SHIFT))
+						.order(ByteOrder.BIG_ENDIAN);
+			}
+			// Update the second (var) array argument to hold the mapped file.
+			((ArrayDataType) args.get(1)).map(chunks, (int) elements);
+		}
+		catch (IOException e) {
+			throw new SyntaxErrorException("Invalid mapFile function call: cannot map file \"" + fileName + "\" (" + e.getMessage() + ").");
+		}
+	}
+}
@@ -0,0 +1,50 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "parallelMax" function in Shank. Takes in two arguments: an array of integers or reals,
+ * and a (var) variable of the same data type. Stores the largest of the array's elements into the second argument. The
+ * work is split between threads for a large array (see ParallelArrays).
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInParallelMax extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInParallelMax class. Calls a specific super constructor.
+	 */
+	public BuiltInParallelMax() {
+		super("parallelMax");
+	}
+	
+	/**
+	 * Execute method for the BuiltInParallelMax class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and storing the largest of the array's elements into
+	 * the second (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid parallelMax function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof ArrayDataType) || (((ArrayDataType) args.get(0)).getType() != ArrayDataType.elementType.INTEGER &&
+				((ArrayDataType) args.get(0)).getType() != ArrayDataType.elementType.REAL))
+			throw new SyntaxErrorException("Invalid parallelMax function call: first argument is not an array of integers or reals.");
+		ArrayDataType array = (ArrayDataType) args.get(0);
+		if (array.getLength() <= 0)
+			throw new SyntaxErrorException("Invalid parallelMax function call: first argument has no elements.");
+		if (!array.isElementType(args.get(1)))
+			throw new SyntaxErrorException("Invalid parallelMax function call: second argument does not match the array's element type.");
+		
+		// Update the second (var) argument to hold the largest element.
+		InterpreterDataType result = ParallelArrays.extreme(array, true);
+		if (result instanceof IntegerDataType)
+			((IntegerDataType) args.get(1)).setValue(((IntegerDataType) result).getValue());
+		else
+			((RealDataType) args.get(1)).setValue(((RealDataType) result).getValue());
+	}
+}
@@ -0,0 +1,41 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "parallelPrefixSum" function in Shank. Takes in one (var) argument, an array of
+ * integers or reals, and replaces each element with the sum of itself and every element before it. The work is
+ * split between threads for a large array (see ParallelArrays).
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInParallelPrefixSum extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInParallelPrefixSum class. Calls a specific super constructor.
+	 */
+	public BuiltInParallelPrefixSum() {
+		super("parallelPrefixSum");
+	}
+	
+	/**
+	 * Execute method for the BuiltInParallelPrefixSum class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and replacing the elements of the (var) argument with their
+	 * prefix sums.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 1)
+			throw new SyntaxErrorException("Invalid parallelPrefixSum function call: must have one argument.");
+		
+		// Check inputed argument to ensure it matches the built-in's necessary type.
+		if (!(args.get(0) instanceof ArrayDataType) || (((ArrayDataType) args.get(0)).getType() != ArrayDataType.elementType.INTEGER &&
+				((ArrayDataType) args.get(0)).getType() != ArrayDataType.elementType.REAL))
+			throw new SyntaxErrorException("Invalid parallelPrefixSum function call: argument is not an array of integers or reals.");
+		
+		// Replace the elements of the (var) array argument with their prefix sums.
+		ParallelArrays.prefixSum((ArrayDataType) args.get(0));
+	}
+}
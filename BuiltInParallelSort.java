@@ -0,0 +1,39 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "parallelSort" function in Shank. Takes in one (var) argument, an array of any
+ * data type, and sorts its elements into ascending order, like arraySort. The work is split between threads for
+ * a large array (see ParallelArrays).
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInParallelSort extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInParallelSort class. Calls a specific super constructor.
+	 */
+	public BuiltInParallelSort() {
+		super("parallelSort");
+	}
+	
+	/**
+	 * Execute method for the BuiltInParallelSort class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and sorting the elements of the (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 1)
+			throw new SyntaxErrorException("Invalid parallelSort function call: must have one argument.");
+		
+		// Check inputed argument to ensure it matches the built-in's necessary type.
+		if (!(args.get(0) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid parallelSort function call: argument is not an array.");
+		
+		// Sort the elements of the (var) array argument.
+		ParallelArrays.sort((ArrayDataType) args.get(0));
+	}
+}
@@ -1,15 +1,20 @@
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 /**
  * Class representing the built-in "read" function in Shank. Takes in any number of arguments.
  * Calls the "fromString()" method for the corresponding argument's data type to store the input
- * into an IDT.
+ * into an IDT. Each argument reads one line of input. The input is read through a single BufferedReader
+ * shared by every read call, so a long line (such as a large array) is read in one pass.
  * 
  * @author Tara Pedigo
  *
  */
 public class BuiltInRead extends FunctionNode {
 
+	private static BufferedReader input;  // The reader of the standard input, created by the first read call.
+
 	/**
 	 * Constructor for the BuiltInRead class. Calls a specific super constructor.
 	 */
@@ -22,16 +27,24 @@ public class BuiltInRead extends FunctionNode {
 	 * calling the corresponding IDT's "fromString()" method to store the input.
 	 * 
 	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
-	 * @throws SyntaxErrorException  When the data type is incorrect.
+	 * @throws SyntaxErrorException  When the data type is incorrect, or there is no input left.
 	 */
 	@Override
 	public void execute(ArrayList<InterpreterDataType> data) throws SyntaxErrorException {
-		Scanner scanner = new Scanner(System.in);
+		if (input == null)
+			input = new BufferedReader(new InputStreamReader(System.in));
 		// Copy each inputed value into each variable passed into read.
-		for (int i = 0; i < data.size(); i++)  
-			data.get(i).fromString(scanner.nextLine());
-		
-		// Close the scanner.
-		scanner.close();
+		for (int i = 0; i < data.size(); i++) {
+			String line;
+			try {
+				line = input.readLine();
+			}
+			catch (IOException e) {
+				throw new SyntaxErrorException("Error using read function: cannot read input (" + e.getMessage() + ").");
+			}
+			if (line == null)
+				throw new SyntaxErrorException("Error using read function: no input left to read.");
+			data.get(i).fromString(line);
+		}
 	}
 }
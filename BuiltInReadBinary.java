@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/**
+ * Class representing the built-in "readBinary" function in Shank. Takes in two arguments: the name of a binary file,
+ * and a (var) array of integers or reals. Every element of the file is read into the array, which is resized to hold
+ * them (keeping its from value). Each element is 4 bytes, in big-endian order, the same format used by mapFile and
+ * written by writeBinary. The file is read in blocks, which are copied straight into the array's elements.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInReadBinary extends FunctionNode {
+
+	private static final int BLOCK_SIZE = 1 << 16;  // The number of bytes read from the file at a time.
+	
+	/**
+	 * Constructor for the BuiltInReadBinary class. Calls a specific super constructor.
+	 */
+	public BuiltInReadBinary() {
+		super("readBinary");
+	}
+	
+	/**
+	 * Execute method for the BuiltInReadBinary class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and reading the file named by the first argument into
+	 * the second (var) argument.
+	 *
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or the
+	 * 									file cannot be read.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid readBinary function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof StringDataType))
+			throw new SyntaxErrorException("Invalid readBinary function call: first argument is not a string.");
+		if (!(args.get(1) instanceof ArrayDataType) || (((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.INTEGER &&
+				((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.REAL))
+			throw new SyntaxErrorException("Invalid readBinary function call: second argument is not an array of integers or reals.");
+		ArrayDataType array = (ArrayDataType) args.get(1);
+		if (array.isMapped())
+			throw new SyntaxErrorException("Invalid readBinary function call: an array mapped from a file cannot be resized.");
+		
+		String fileName = ((StringDataType) args.get(0)).getString();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long elements = channel.size() / 4;
+			if (elements > Integer.MAX_VALUE - 8 || array.getFrom() + elements - 1 > Integer.MAX_VALUE)
+				throw new SyntaxErrorException("Invalid readBinary function call: file \"" + fileName + "\" holds too many elements.");
+			
+			// Update the second (var) array argument to hold the file's elements, one block at a time.
+			int length = (int) elements;
+			array.resize(length);
+			array.unshare();
+			boolean integers = array.getType() == ArrayDataType.elementType.INTEGER;
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.BIG_ENDIAN);
+			int position = 0;  // The position of the next element to read.
+			while (position < length) {
+				block.clear();
+				block.limit((int) Math.min(BLOCK_SIZE, (long) (length - position) * 4));
+				while (block.hasRemaining())
+					if (channel.read(block) < 0)
+						throw new SyntaxErrorException("Invalid readBinary function call: file \"" + fileName + "\" ended early.");
+				block.flip();
+				int count = block.remaining() / 4;
+				if (integers && array.getIntegers() != null)
+					block.asIntBuffer().get(array.getIntegers(), position, count);
+				else if (!integers && array.getReals() != null)
+					block.asFloatBuffer().get(array.getReals(), position, count);
+				else
+					for (int i = 0; i < count; i++) {
+						if (integers)
+							array.setInteger(position + i, block.getInt(i * 4));
+						else
+							array.setReal(position + i, block.getFloat(i * 4));
+					}
+				position += count;
+			}
+		}
+		catch (IOException e) {
+			throw new SyntaxErrorException("Invalid readBinary function call: cannot read file \"" + fileName + "\" (" + e.getMessage() + ").");
+		}
+	}
+}
@@ -0,0 +1,49 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "resize" function in Shank. Takes in two arguments: the new number of elements (an
+ * integer, at least 0), and a (var) array. The array's to value becomes (from + number of elements - 1). Elements that
+ * are still within the array keep their values, and new elements start at their default values (0, 0.0, false, the
+ * null character or the empty string).
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInResize extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInResize class. Calls a specific super constructor.
+	 */
+	public BuiltInResize() {
+		super("resize");
+	}
+	
+	/**
+	 * Execute method for the BuiltInResize class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and changing the number of elements of the second (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or
+	 * 									the number of elements is invalid.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid resize function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof IntegerDataType))
+			throw new SyntaxErrorException("Invalid resize function call: first argument is not an integer.");
+		if (!(args.get(1) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid resize function call: second argument is not an array.");
+		ArrayDataType array = (ArrayDataType) args.get(1);
+		if (array.isMapped())
+			throw new SyntaxErrorException("Invalid resize function call: an array mapped from a file cannot be resized.");
+		int length = ((IntegerDataType) args.get(0)).getValue();
+		if (length < 0 || length > Integer.MAX_VALUE - 8 || (long) array.getFrom() + length - 1 > Integer.MAX_VALUE)
+			throw new SyntaxErrorException("Invalid resize function call: cannot give the array " + length + " elements.");
+		
+		// Update the second (var) array argument to hold the new number of elements.
+		array.resize(length);
+	}
+}
@@ -0,0 +1,38 @@
+import java.util.ArrayList;
+/**
+ * Class representing the built-in "shrinkToFit" function in Shank. Takes in one (var) array argument, and releases
+ * the capacity it holds past its last element (left over from append or resize), without changing its elements.
+ * 
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInShrinkToFit extends FunctionNode {
+
+	/**
+	 * Constructor for the BuiltInShrinkToFit class. Calls a specific super constructor.
+	 */
+	public BuiltInShrinkToFit() {
+		super("shrinkToFit");
+	}
+	
+	/**
+	 * Execute method for the BuiltInShrinkToFit class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and shrinking the storage of the (var) argument.
+	 * 
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, or the data types are incorrect.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 1)
+			throw new SyntaxErrorException("Invalid shrinkToFit function call: must have one argument.");
+		
+		// Check inputed argument to ensure it matches the built-in's necessary type.
+		if (!(args.get(0) instanceof ArrayDataType))
+			throw new SyntaxErrorException("Invalid shrinkToFit function call: argument is not an array.");
+		
+		// Release the unused capacity of the (var) array argument. An array mapped from a file has none.
+		((ArrayDataType) args.get(0)).shrinkToFit();
+	}
+}
@@ -23,10 +23,16 @@ public class BuiltInWrite extends FunctionNode {
 	 */
 	@Override
 	public void execute(ArrayList<InterpreterDataType> data) {
-		String printString = "";
-		// Add the data stored in each InterpreterDataType to the printString, separated by a space.
-		for (int i = 0; i < data.size(); i++) 
-			printString += data.get(i).toString() + " ";
+		StringBuilder printString = new StringBuilder();
+		// Add the data stored in each InterpreterDataType to the printString, separated by a space. Arrays add their
+		// elements directly, rather than building a String first.
+		for (int i = 0; i < data.size(); i++) {
+			if (data.get(i) instanceof ArrayDataType)
+				((ArrayDataType) data.get(i)).appendTo(printString);
+			else
+				printString.append(data.get(i).toString());
+			printString.append(' ');
+		}
 		
 		// Print the printString.
 		System.out.println(printString);
@@ -0,0 +1,83 @@
+import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/**
+ * Class representing the built-in "writeBinary" function in Shank. Takes in two arguments: the name of a binary file,
+ * and an array of integers or reals. The file is replaced with the array's elements, each 4 bytes in big-endian order
+ * (the same format used by mapFile and readBinary). The elements are copied into blocks, which are written straight
+ * to the file.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class BuiltInWriteBinary extends FunctionNode {
+
+	private static final int BLOCK_SIZE = 1 << 16;  // The number of bytes written to the file at a time.
+	
+	/**
+	 * Constructor for the BuiltInWriteBinary class. Calls a specific super constructor.
+	 */
+	public BuiltInWriteBinary() {
+		super("writeBinary");
+	}
+	
+	/**
+	 * Execute method for the BuiltInWriteBinary class. This method does the actual work in checking for correct
+	 * number of arguments, correct argument data types, and writing the second argument into the file named by
+	 * the first argument.
+	 *
+	 * @param args  The ArrayList of InterpreterDataTypes to act as the passed in arguments.
+	 * @throws SyntaxErrorException  When an incorrect number of arguments is passed in, the data types are incorrect, or the
+	 * 									file cannot be written.
+	 */
+	@Override
+	public void execute(ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		// First, check that there are the correct number of arguments.
+		if (args.size() != 2)
+			throw new SyntaxErrorException("Invalid writeBinary function call: must have two arguments.");
+		
+		// Check inputed arguments to ensure they match the built-in's necessary types.
+		if (!(args.get(0) instanceof StringDataType))
+			throw new SyntaxErrorException("Invalid writeBinary function call: first argument is not a string.");
+		if (!(args.get(1) instanceof ArrayDataType) || (((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.INTEGER &&
+				((ArrayDataType) args.get(1)).getType() != ArrayDataType.elementType.REAL))
+			throw new SyntaxErrorException("Invalid writeBinary function call: second argument is not an array of integers or reals.");
+		ArrayDataType array = (ArrayDataType) args.get(1);
+		
+		String fileName = ((StringDataType) args.get(0)).getString();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			// Write the array's elements to the file, one block at a time.
+			int length = Math.max(array.getLength(), 0);
+			boolean integers = array.getType() == ArrayDataType.elementType.INTEGER;
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.BIG_ENDIAN);
+			int position = 0;  // The position of the next element to write.
+			while (position < length) {
+				int count = Math.min(BLOCK_SIZE / 4, length - position);
+				block.clear();
+				if (integers && array.getIntegers() != null)
+					block.asIntBuffer().put(array.getIntegers(), position, count);
+				else if (!integers && array.getReals() != null)
+					block.asFloatBuffer().put(array.getReals(), position, count);
+				else
+					for (int i = 0; i < count; i++) {
+						if (integers)
+							block.putInt(i * 4, array.getInteger(position + i));
+						else
+							block.putFloat(i * 4, array.getReal(position + i));
+					}
+				block.limit(count * 4);
+				while (block.hasRemaining())
+					channel.write(block);
+				position += count;
+			}
+		}
+		catch (IOException e) {
+			throw new SyntaxErrorException("Invalid writeBinary function call: cannot write file \"" + fileName + "\" (" + e.getMessage() + ").");
+		}
+	}
+}
@@ -0,0 +1,293 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+/**
+ * A class representing which functions of a Shank program call which other functions. The CallGraph is built once
+ * from every FunctionCallNode in the program, and is stored in the ProgramNode so that later passes (such as the
+ * Optimizer) can use it without searching the statements again. Besides the calls themselves, it holds:
+ *
+ * The strongly connected components of the program, found using Tarjan's algorithm. Functions in the same component
+ * can all call each other, so a function is recursive when its component holds another function or it calls itself.
+ *
+ * Which functions are reachable from the "Start" function. Any other function can never run, so it is removed.
+ *
+ * Which var parameters each function may change, directly or by passing them on to another function. The
+ * UsageAnalysis uses this to count a var argument as written only when the called function may change it.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class CallGraph {
+
+	// The HashMap to hold all the program's functions. Holds a String for the function name and a FunctionNode
+	// for the actual function.
+	private HashMap<String, FunctionNode> functions;
+
+	private HashMap<FunctionNode, ArrayList<FunctionNode>> callees;  // the functions called by each function.
+	private HashMap<FunctionNode, Integer> components;				 // the strongly connected component of each function.
+	private HashMap<Integer, Integer> componentSizes;				 // the number of functions in each component.
+	private HashSet<FunctionNode> selfCalls;						 // the functions that call themselves directly.
+	private HashSet<FunctionNode> reachable;						 // the functions reachable from the "Start" function.
+	private HashMap<FunctionNode, boolean[]> parameterWrites;		 // whether each function may change each parameter.
+
+	// Used by Tarjan's algorithm: the order each function was found in, and the lowest order reachable from it.
+	private HashMap<FunctionNode, Integer> order;
+	private HashMap<FunctionNode, Integer> lowest;
+	private ArrayList<FunctionNode> stack;
+	private HashSet<FunctionNode> onStack;
+
+	/**
+	 * Constructor for the CallGraph class. Builds the call graph and every summary for a Shank program.
+	 *
+	 * @param program  The ProgramNode to build the call graph for.
+	 */
+	public CallGraph(ProgramNode program) {
+		functions = program.getFunctions();
+		callees = new HashMap<FunctionNode, ArrayList<FunctionNode>>();
+		components = new HashMap<FunctionNode, Integer>();
+		componentSizes = new HashMap<Integer, Integer>();
+		selfCalls = new HashSet<FunctionNode>();
+		reachable = new HashSet<FunctionNode>();
+		parameterWrites = new HashMap<FunctionNode, boolean[]>();
+
+		// Find the calls made by each function. A built-in function makes no calls.
+		for (FunctionNode function : functions.values()) {
+			ArrayList<FunctionNode> calls = new ArrayList<FunctionNode>();
+			if (!function.isBuiltIn())
+				collectCallees(function.getStatements(), function, calls);
+			callees.put(function, calls);
+		}
+
+		// Find the strongly connected components, using Tarjan's algorithm.
+		order = new HashMap<FunctionNode, Integer>();
+		lowest = new HashMap<FunctionNode, Integer>();
+		stack = new ArrayList<FunctionNode>();
+		onStack = new HashSet<FunctionNode>();
+		for (FunctionNode function : functions.values())
+			if (!order.containsKey(function))
+				findComponents(function);
+		order = null;
+		lowest = null;
+		stack = null;
+		onStack = null;
+
+		findReachable(functions.get("Start"));
+		findParameterWrites();
+	}
+
+	/**
+	 * Evaluates whether a function can call itself, directly or through the other functions it calls.
+	 *
+	 * @param function  The FunctionNode to evaluate.
+	 * @return  true if the function is recursive, and false otherwise.
+	 */
+	public boolean isRecursive(FunctionNode function) {
+		Integer component = components.get(function);
+		return selfCalls.contains(function) || (component != null && componentSizes.get(component) > 1);
+	}
+
+	/**
+	 * Evaluates whether a user-defined function may change one of its var parameters. A function the call graph was
+	 * not built with is assumed to change every parameter.
+	 *
+	 * @param function  The FunctionNode to evaluate.
+	 * @param index		The index of the parameter.
+	 * @return  true if the parameter is a var parameter that may be changed, and false otherwise.
+	 */
+	public boolean writesParameter(FunctionNode function, int index) {
+		boolean[] writes = parameterWrites.get(function);
+		return writes == null || (index < writes.length && writes[index]);
+	}
+
+	/**
+	 * Evaluates whether a function call may change the variable passed as one of its arguments. Every variable argument
+	 * of read (or of a function that does not exist) may be changed, as may every var argument of any other built-in
+	 * function. A var argument of a user-defined function is only changed when the function may change that parameter.
+	 *
+	 * @param callGraph  The CallGraph used to find the var parameters a user-defined function may change, or null to 
+	 * 					 assume every var parameter may be changed.
+	 * @param function   The FunctionNode being called, or null if there is none.
+	 * @param argument   The ParameterNode of the argument.
+	 * @param index		 The index of the argument.
+	 * @return  true if the argument is a variable the call may change, and false otherwise.
+	 */
+	public static boolean writesArgument(CallGraph callGraph, FunctionNode function, ParameterNode argument, int index) {
+		if (!(argument.getParameter() instanceof VariableReferenceNode))
+			return false;
+		if (function == null || function instanceof BuiltInRead)
+			return true;
+		if (!argument.isVar())
+			return false;
+		return function.isBuiltIn() || callGraph == null || callGraph.writesParameter(function, index);
+	}
+
+	/**
+	 * Removes every user-defined function that is not reachable from the "Start" function from a program, so that
+	 * no later pass spends any time on a function that can never run.
+	 *
+	 * @param program  The ProgramNode to remove the functions from.
+	 */
+	public void removeUnreachable(ProgramNode program) {
+		ArrayList<String> unreachable = new ArrayList<String>();
+		for (FunctionNode function : program.getFunctions().values())
+			if (!function.isBuiltIn() && !reachable.contains(function))
+				unreachable.add(function.getName());
+		for (String name : unreachable)
+			program.getFunctions().remove(name);
+	}
+
+	/**
+	 * Adds each function called within a block of statements (including any inner blocks) to a list, if it is not
+	 * already in the list.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param function	  The FunctionNode containing the statements.
+	 * @param calls		  The ArrayList of FunctionNodes to add to.
+	 */
+	private void collectCallees(ArrayList<StatementNode> statements, FunctionNode function, ArrayList<FunctionNode> calls) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof FunctionCallNode) {
+				FunctionNode callee = functions.get(((FunctionCallNode) statement).getName());
+				if (callee != null && !calls.contains(callee)) {
+					calls.add(callee);
+					if (callee == function)
+						selfCalls.add(function);
+				}
+			}
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					collectCallees(ifBlock.getStatements(), function, calls);
+			}
+			else if (statement instanceof ForNode)
+				collectCallees(((ForNode) statement).getStatements(), function, calls);
+			else if (statement instanceof WhileNode)
+				collectCallees(((WhileNode) statement).getStatements(), function, calls);
+			else if (statement instanceof RepeatNode)
+				collectCallees(((RepeatNode) statement).getStatements(), function, calls);
+		}
+	}
+
+	/**
+	 * Tarjan's algorithm: finds the strongly connected component of a function and of every function it calls that
+	 * has not been found yet.
+	 *
+	 * @param function  The FunctionNode to start the search from.
+	 */
+	private void findComponents(FunctionNode function) {
+		order.put(function, order.size());
+		lowest.put(function, order.get(function));
+		stack.add(function);
+		onStack.add(function);
+
+		for (FunctionNode callee : callees.get(function)) {
+			if (!order.containsKey(callee)) {
+				findComponents(callee);
+				lowest.put(function, Math.min(lowest.get(function), lowest.get(callee)));
+			}
+			else if (onStack.contains(callee))
+				lowest.put(function, Math.min(lowest.get(function), order.get(callee)));
+		}
+
+		// The function is the first one found in its component, so the rest of the component is above it on the stack.
+		if (lowest.get(function).equals(order.get(function))) {
+			int component = componentSizes.size();
+			int size = 0;
+			FunctionNode member;
+			do {
+				member = stack.remove(stack.size() - 1);
+				onStack.remove(member);
+				components.put(member, component);
+				size++;
+			} while (member != function);
+			componentSizes.put(component, size);
+		}
+	}
+
+	/**
+	 * Adds a function, and every function it calls directly or indirectly, to the set of reachable functions.
+	 *
+	 * @param start  The FunctionNode to start from, or null if there is none.
+	 */
+	private void findReachable(FunctionNode start) {
+		if (start == null)
+			return;
+		ArrayList<FunctionNode> pending = new ArrayList<FunctionNode>();
+		pending.add(start);
+		reachable.add(start);
+		while (!pending.isEmpty())
+			for (FunctionNode callee : callees.get(pending.remove(pending.size() - 1)))
+				if (reachable.add(callee))
+					pending.add(callee);
+	}
+
+	/**
+	 * Finds which var parameters each user-defined function may change. Since changing a parameter can depend on the
+	 * functions it is passed to, every function is summarized again until no summary changes.
+	 */
+	private void findParameterWrites() {
+		for (FunctionNode function : functions.values())
+			if (!function.isBuiltIn())
+				parameterWrites.put(function, new boolean[function.getParameters().size()]);
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (FunctionNode function : parameterWrites.keySet()) {
+				HashSet<String> writes = new HashSet<String>();
+				collectWrites(function.getStatements(), writes);
+				boolean[] summary = parameterWrites.get(function);
+				for (int i = 0; i < summary.length; i++) {
+					VariableNode parameter = function.getParameters().get(i);
+					// A local of the same name replaces the parameter, so changing it never changes the parameter.
+					boolean shadowed = false;
+					for (VariableNode variable : function.getConstAndVars())
+						if (variable.getName().equals(parameter.getName()))
+							shadowed = true;
+					if (!summary[i] && parameter.isChangeable() && !shadowed && writes.contains(parameter.getName())) {
+						summary[i] = true;
+						changed = true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the name of every variable that may be changed within a block of statements (including any inner blocks)
+	 * to a set. An argument is only counted when writesArgument() finds the call may change it.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param writes	  The set of variable names to add to.
+	 */
+	private void collectWrites(ArrayList<StatementNode> statements, HashSet<String> writes) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode)
+				writes.add(((AssignmentNode) statement).getTarget().getName());
+
+			else if (statement instanceof FunctionCallNode) {
+				FunctionNode callee = functions.get(((FunctionCallNode) statement).getName());
+				ArrayList<ParameterNode> arguments = ((FunctionCallNode) statement).getParameters();
+				for (int i = 0; i < arguments.size(); i++)
+					if (writesArgument(this, callee, arguments.get(i), i))
+						writes.add(((VariableReferenceNode) arguments.get(i).getParameter()).getName());
+			}
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					collectWrites(ifBlock.getStatements(), writes);
+			}
+			else if (statement instanceof ForNode) {
+				writes.add(((ForNode) statement).getControl().getName());
+				collectWrites(((ForNode) statement).getStatements(), writes);
+			}
+			else if (statement instanceof WhileNode)
+				collectWrites(((WhileNode) statement).getStatements(), writes);
+
+			else if (statement instanceof RepeatNode)
+				collectWrites(((RepeatNode) statement).getStatements(), writes);
+		}
+	}
+}
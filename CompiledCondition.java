@@ -0,0 +1,32 @@
+import java.util.HashMap;
+/**
+ * An abstract class for a boolean compare expression compiled by the TierCompiler. A subclass only finds the result
+ * of the comparison as a Java boolean, and an IDT is only created when the result is needed as an IDT.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public abstract class CompiledCondition extends CompiledExpression {
+
+	/**
+	 * Finds the result of the comparison as a new Boolean IDT.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  A Boolean IDT holding the result of the comparison.
+	 */
+	@Override
+	public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return new BooleanDataType(boolValue(locals), true);
+	}
+
+	/**
+	 * Finds the result of the comparison.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The boolean result of the comparison.
+	 */
+	@Override
+	public abstract boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException;
+}
@@ -0,0 +1,75 @@
+import java.util.HashMap;
+/**
+ * An abstract class for an expression compiled by the TierCompiler. Every CompiledExpression can create an IDT holding
+ * its value, and a compiled expression of a known data type also returns its value directly as a Java int, float,
+ * boolean, char or String, so that a math expression does not create an IDT for each part of the expression.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public abstract class CompiledExpression {
+
+	/**
+	 * Finds the value of the expression as an IDT.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  An IDT holding the value of the expression.
+	 */
+	public abstract InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException;
+
+	/**
+	 * Finds the value of an integer expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The int value of the expression.
+	 */
+	public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return ((IntegerDataType) value(locals)).getValue();
+	}
+
+	/**
+	 * Finds the value of a real expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The float value of the expression.
+	 */
+	public float realValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return ((RealDataType) value(locals)).getValue();
+	}
+
+	/**
+	 * Finds the value of a boolean expression, including a boolean compare expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The boolean value of the expression.
+	 */
+	public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return ((BooleanDataType) value(locals)).getBool();
+	}
+
+	/**
+	 * Finds the value of a character expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The char value of the expression.
+	 */
+	public char charValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return ((CharacterDataType) value(locals)).getChar();
+	}
+
+	/**
+	 * Finds the value of a string expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The String value of the expression.
+	 */
+	public String stringValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return ((StringDataType) value(locals)).getString();
+	}
+}
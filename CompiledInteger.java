@@ -0,0 +1,32 @@
+import java.util.HashMap;
+/**
+ * An abstract class for an integer math expression compiled by the TierCompiler. A subclass only finds the expression's
+ * value as a Java int, and an IDT is only created when the whole expression's value is needed as an IDT.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public abstract class CompiledInteger extends CompiledExpression {
+
+	/**
+	 * Finds the value of the expression as a new Integer IDT.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  An Integer IDT holding the value of the expression.
+	 */
+	@Override
+	public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		return new IntegerDataType(intValue(locals), 0, 0, true);
+	}
+
+	/**
+	 * Finds the value of the expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the expression.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @return  The int value of the expression.
+	 */
+	@Override
+	public abstract int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException;
+}
@@ -0,0 +1,18 @@
+import java.util.HashMap;
+/**
+ * An interface for a statement compiled by the TierCompiler. A CompiledStatement is a closure holding everything it
+ * needs from its StatementNode, so running it does not need to find the kind of statement or the data types again.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public interface CompiledStatement {
+
+	/**
+	 * Runs the compiled statement.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the statement.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made, or a called function throws.
+	 */
+	public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException;
+}
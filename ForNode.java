@@ -13,6 +13,11 @@ public class ForNode extends StatementNode {
 	private Node from;								// The from value/expression.
 	private Node to;								// The to value/expression.
 	private ArrayList<StatementNode> statements;	// The statements in the for block.
+	private boolean counted;						// Whether the for block never writes the control variable.
+	private boolean controlRead;					// Whether the for block reads the control variable.
+	private ArrayList<VariableReferenceNode> rangeReferences;  // The array references in the for block indexed by the control variable.
+	private boolean inBounds;						// Whether every range reference stays within its array's bounds during the current run.
+	private LoopKernel kernel;						// The LoopKernel running the whole loop at once, or null.
 	
 	/**
 	 * Constructor for the ForNode class. Takes in a control variable, from and to values, and a collection 
@@ -66,6 +71,96 @@ public class ForNode extends StatementNode {
 		return statements;
 	}
 	
+	/**
+	 * Accessor for the counted field.
+	 * 
+	 * @return  The boolean in the counted field.
+	 */
+	public boolean isCounted() {
+		return counted;
+	}
+	
+	/**
+	 * Mutator for the counted field.
+	 * 
+	 * @param counted  The boolean to store in the counted field.
+	 */
+	public void setCounted(boolean counted) {
+		this.counted = counted;
+	}
+	
+	/**
+	 * Accessor for the controlRead field.
+	 * 
+	 * @return  The boolean in the controlRead field.
+	 */
+	public boolean isControlRead() {
+		return controlRead;
+	}
+	
+	/**
+	 * Mutator for the controlRead field.
+	 * 
+	 * @param controlRead  The boolean to store in the controlRead field.
+	 */
+	public void setControlRead(boolean controlRead) {
+		this.controlRead = controlRead;
+	}
+	
+	/**
+	 * Accessor for the rangeReferences field.
+	 * 
+	 * @return  The ArrayList of VariableReferenceNodes in the rangeReferences field, or null if there are none.
+	 */
+	public ArrayList<VariableReferenceNode> getRangeReferences() {
+		return rangeReferences;
+	}
+	
+	/**
+	 * Mutator for the rangeReferences field.
+	 * 
+	 * @param rangeReferences  The ArrayList of VariableReferenceNodes to store in the rangeReferences field, or null.
+	 */
+	public void setRangeReferences(ArrayList<VariableReferenceNode> rangeReferences) {
+		this.rangeReferences = rangeReferences;
+	}
+	
+	/**
+	 * Accessor for the inBounds field.
+	 * 
+	 * @return  The boolean in the inBounds field.
+	 */
+	public boolean isInBounds() {
+		return inBounds;
+	}
+	
+	/**
+	 * Mutator for the inBounds field.
+	 * 
+	 * @param inBounds  The boolean to store in the inBounds field.
+	 */
+	public void setInBounds(boolean inBounds) {
+		this.inBounds = inBounds;
+	}
+	
+	/**
+	 * Accessor for the kernel field.
+	 * 
+	 * @return  The LoopKernel in the kernel field, or null if the loop does not match an idiom.
+	 */
+	public LoopKernel getKernel() {
+		return kernel;
+	}
+	
+	/**
+	 * Mutator for the kernel field.
+	 * 
+	 * @param kernel  The LoopKernel to store in the kernel field, or null.
+	 */
+	public void setKernel(LoopKernel kernel) {
+		this.kernel = kernel;
+	}
+	
 	/**
 	 * Implementation of the toString() method for the ForNode.
 	 * 
@@ -0,0 +1,210 @@
+import java.util.HashMap;
+/**
+ * A class representing a single activation frame for a user-defined function. A Frame holds the HashMap of local
+ * constants/variables used by the Interpreter, as well as one IDT per declared constant/variable (a "slot"). Frames
+ * are pooled by the Interpreter, so a Frame is reset and reused on function entry instead of being reallocated.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class Frame {
+
+	private FunctionNode function;						  // The function this Frame belongs to.
+	private HashMap<String, InterpreterDataType> locals;  // The locals HashMap passed to interpretBlock().
+	private InterpreterDataType[] slots;				  // One IDT per entry in the function's constAndVars.
+
+	/**
+	 * Constructor for the Frame class. Creates a locals HashMap pre-sized from the function's SymbolTable, and
+	 * allocates one IDT slot per declared constant/variable.
+	 *
+	 * @param function  The FunctionNode to create the Frame for.
+	 */
+	public Frame(FunctionNode function) {
+		this.function = function;
+		int variableCount = (function.getConstAndVars() != null) ? function.getConstAndVars().size() : 0;
+		if (function.getSymbolTable() == null)
+			function.setSymbolTable(new SymbolTable(function));
+
+		// Size the HashMap for the function's different names, so that it never needs to rehash while the function runs.
+		locals = new HashMap<String, InterpreterDataType>(function.getSymbolTable().size() * 4 / 3 + 1);
+		slots = new InterpreterDataType[variableCount];
+		for (int i = 0; i < variableCount; i++)
+			slots[i] = createSlot(function.getConstAndVars().get(i));
+	}
+
+	/**
+	 * Accessor for the function field.
+	 *
+	 * @return  The FunctionNode stored in the function field.
+	 */
+	public FunctionNode getFunction() {
+		return function;
+	}
+
+	/**
+	 * Accessor for the locals field.
+	 *
+	 * @return  The HashMap stored in the locals field.
+	 */
+	public HashMap<String, InterpreterDataType> getLocals() {
+		return locals;
+	}
+
+	/**
+	 * Resets every constant/variable slot back to its declared initial value, and (re-)adds each slot to the locals
+	 * HashMap. A slot is re-added since a var argument may have replaced it in the HashMap during the last call.
+	 */
+	public void reset() {
+		for (int i = 0; i < slots.length; i++) {
+			VariableNode variable = function.getConstAndVars().get(i);
+			// An array keeps its elements, which are each reset to the declared initial value. An array that was freed
+			// when the last call finished, or that was resized (or mapped) since its declaration, is created again.
+			if (variable.isArray()) {
+				if (slots[i] == null || !hasDeclaredBounds((ArrayDataType) slots[i], variable))
+					slots[i] = createSlot(variable);
+				else
+					((ArrayDataType) slots[i]).fill(createValue(variable));
+				locals.put(variable.getName(), slots[i]);
+				continue;
+			}
+			switch (variable.getType()) {
+				case STRING:
+					((StringDataType) slots[i]).setString(((StringNode) variable.getValue()).getString());
+					break;
+
+				case INTEGER:
+					((IntegerDataType) slots[i]).setValue(((IntegerNode) variable.getValue()).getNum());
+					break;
+
+				case REAL:
+					((RealDataType) slots[i]).setValue(((RealNode) variable.getValue()).getNum());
+					break;
+
+				case BOOLEAN:
+					((BooleanDataType) slots[i]).setBool(((BooleanNode) variable.getValue()).getBool());
+					break;
+
+				case CHARACTER:
+					((CharacterDataType) slots[i]).setChar(((CharacterNode) variable.getValue()).getChar());
+					break;
+			}
+			locals.put(variable.getName(), slots[i]);
+		}
+	}
+
+	/**
+	 * Releases the memory of each array slot stored outside the Java heap, once the function call using this Frame is
+	 * finished, so a pooled Frame does not hold on to a very large array. A slot passed as a var argument to mapFile is
+	 * dropped as well, so the next call does not reset its file. The slot is created again by the next reset().
+	 */
+	public void freeArrays() {
+		for (int i = 0; i < slots.length; i++) {
+			if (slots[i] instanceof ArrayDataType && ((ArrayDataType) slots[i]).isOffHeap()) {
+				((ArrayDataType) slots[i]).free();
+				slots[i] = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes each array in the locals HashMap that is mapped from a file back to its file, once the function call using
+	 * this Frame is finished.
+	 */
+	public void flushArrays() {
+		for (InterpreterDataType variable : locals.values())
+			if (variable instanceof ArrayDataType)
+				((ArrayDataType) variable).flush();
+	}
+
+	/**
+	 * Removes the parameter entries from the locals HashMap, so a pooled Frame does not keep the caller's
+	 * arguments alive.
+	 */
+	public void clearParameters() {
+		if (function.getParameters() != null)
+			for (VariableNode parameter : function.getParameters())
+				locals.remove(parameter.getName());
+	}
+
+	/**
+	 * Creates a new IDT matching the data type of a declared constant/variable. An array declaration creates an
+	 * ArrayDataType with one element per index from its from value to its to value, each holding the declared initial value.
+	 *
+	 * @param variable  The VariableNode to create an IDT for.
+	 * @return  A new IDT holding the declared initial value of the variable.
+	 */
+	private InterpreterDataType createSlot(VariableNode variable) {
+		if (!variable.isArray())
+			return createValue(variable);
+		ArrayDataType array = new ArrayDataType(variable.getTo() - variable.getFrom() + 1, variable.getFrom(), variable.getTo(), 
+				elementTypeOf(variable.getType()), variable.isChangeable());
+		array.fill(createValue(variable));
+		return array;
+	}
+
+	/**
+	 * Checks whether an array slot still has the bounds of its declaration, and no capacity past them.
+	 *
+	 * @param array     The ArrayDataType stored in the slot.
+	 * @param variable  The VariableNode declaring the array.
+	 * @return  true if the array's from, to, length and capacity match the declaration, and false otherwise.
+	 */
+	private static boolean hasDeclaredBounds(ArrayDataType array, VariableNode variable) {
+		int length = variable.getTo() - variable.getFrom() + 1;
+		return array.getFrom() == variable.getFrom() && array.getTo() == variable.getTo() && array.getLength() == length &&
+				array.getCapacity() == length;
+	}
+
+	/**
+	 * Finds the elementType of an ArrayDataType holding elements of a declared data type.
+	 *
+	 * @param type  The data type of the array's elements.
+	 * @return  The matching elementType.
+	 */
+	private static ArrayDataType.elementType elementTypeOf(VariableNode.Type type) {
+		switch (type) {
+			case STRING:
+				return ArrayDataType.elementType.STRING;
+
+			case INTEGER:
+				return ArrayDataType.elementType.INTEGER;
+
+			case REAL:
+				return ArrayDataType.elementType.REAL;
+
+			case BOOLEAN:
+				return ArrayDataType.elementType.BOOLEAN;
+
+			case CHARACTER:
+				return ArrayDataType.elementType.CHARACTER;
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a new IDT holding the declared initial value of a constant/variable (for an array, the initial value of
+	 * each element).
+	 *
+	 * @param variable  The VariableNode to create an IDT for.
+	 * @return  A new IDT holding the declared initial value of the variable.
+	 */
+	private InterpreterDataType createValue(VariableNode variable) {
+		switch (variable.getType()) {
+			case STRING:
+				return new StringDataType(((StringNode) variable.getValue()).getString(), variable.getFrom(), variable.getTo(), variable.isChangeable());
+
+			case INTEGER:
+				return new IntegerDataType(((IntegerNode) variable.getValue()).getNum(), variable.getFrom(), variable.getTo(), variable.isChangeable());
+
+			case REAL:
+				return new RealDataType(((RealNode) variable.getValue()).getNum(), variable.getRealFrom(), variable.getRealTo(), variable.isChangeable());
+
+			case BOOLEAN:
+				return new BooleanDataType(((BooleanNode) variable.getValue()).getBool(), variable.isChangeable());
+
+			case CHARACTER:
+				return new CharacterDataType(((CharacterNode) variable.getValue()).getChar(), variable.isChangeable());
+		}
+		return null;
+	}
+}
@@ -0,0 +1,18 @@
+/**
+ * An interface for an analysis that checks each user-defined function on its own, such as the SemanticAnalysis and
+ * the TypeChecker. Since a function's analysis does not depend on any other function's analysis, an AnalysisTask may
+ * run the analysis of different functions at the same time.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public interface FunctionAnalysis {
+
+	/**
+	 * This method analyzes a single user-defined function. It must only change the function's own Nodes.
+	 *
+	 * @param function  The FunctionNode to analyze.
+	 * @throws SyntaxErrorException  When an error is found in the function.
+	 */
+	public void analyzeFunction(FunctionNode function) throws SyntaxErrorException;
+}
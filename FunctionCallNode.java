@@ -10,6 +10,7 @@ public class FunctionCallNode extends StatementNode {
 
 	private String name;						  // The name of the function.
 	private ArrayList<ParameterNode> parameters;  // The list of parameters being passing into the function.
+	private boolean tailCall;					  // Flag for a self-recursive call in tail position.
 	
 	/**
 	 * Constructor for the FunctionCallNode class. Takes in a function name and a list of parameters. 
@@ -20,6 +21,7 @@ public class FunctionCallNode extends StatementNode {
 	public FunctionCallNode(String name, ArrayList<ParameterNode> parameters) {
 		this.name = name;
 		this.parameters = parameters;
+		this.tailCall = false;
 	}
 	
 	/**
@@ -40,6 +42,24 @@ public class FunctionCallNode extends StatementNode {
 		return parameters;
 	}
 	
+	/**
+	 * Accessor for the tailCall field.
+	 * 
+	 * @return  The boolean stored in the tailCall field.
+	 */
+	public boolean isTailCall() {
+		return tailCall;
+	}
+	
+	/**
+	 * Mutator for the tailCall field.
+	 * 
+	 * @param tailCall  The boolean to store in the tailCall field.
+	 */
+	public void setTailCall(boolean tailCall) {
+		this.tailCall = tailCall;
+	}
+	
 	/**
 	 * Implementation of the toString() method for the FunctionCallNode.
 	 * 
@@ -14,6 +14,14 @@ public class FunctionNode extends Node {
 	private ArrayList<VariableNode> constAndVars; // The constants and variables of the function.
 	private ArrayList<StatementNode> statements;  // The statements of the function.
 	private boolean builtIn;					  // Flag for built-in function.
+	private SymbolTable symbolTable;			  // The declared names of the function, built by the analysis.
+	private boolean prepared;					  // Flag for a function the Interpreter has prepared to run.
+	private int callCount;						  // The number of times the Interpreter has called the function.
+	private long backEdgeCount;					  // The number of passes made through the function's loop blocks.
+	
+	// The function's statements compiled by the TierCompiler, or null while the function is still interpreted. Set by
+	// the TierCompiler's background thread, so it is volatile.
+	private volatile CompiledStatement[] compiledBody;
 	
 	/**
 	 * Constructor for the FunctionNode class. Takes in various arguments to store in their respective fields.
@@ -106,6 +114,105 @@ public class FunctionNode extends Node {
 		return statements;
 	}
 	
+	/**
+	 * Mutator for the statements field.
+	 * 
+	 * @param statements  The collection of StatementNodes to store in the statements field.
+	 */
+	public void setStatements(ArrayList<StatementNode> statements) {
+		this.statements = statements;
+	}
+	
+	/**
+	 * Accessor for the symbolTable field.
+	 * 
+	 * @return  The SymbolTable stored in the symbolTable field.
+	 */
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+	
+	/**
+	 * Mutator for the symbolTable field.
+	 * 
+	 * @param symbolTable  The SymbolTable to store in the symbolTable field.
+	 */
+	public void setSymbolTable(SymbolTable symbolTable) {
+		this.symbolTable = symbolTable;
+	}
+	
+	/**
+	 * Accessor for the prepared field.
+	 * 
+	 * @return  The boolean stored in the prepared field.
+	 */
+	public boolean isPrepared() {
+		return prepared;
+	}
+	
+	/**
+	 * Mutator for the prepared field.
+	 * 
+	 * @param prepared  The boolean to store in the prepared field.
+	 */
+	public void setPrepared(boolean prepared) {
+		this.prepared = prepared;
+	}
+	
+	/**
+	 * Accessor for the callCount field.
+	 * 
+	 * @return  The int stored in the callCount field.
+	 */
+	public int getCallCount() {
+		return callCount;
+	}
+	
+	/**
+	 * Mutator for the callCount field.
+	 * 
+	 * @param callCount  The int to store in the callCount field.
+	 */
+	public void setCallCount(int callCount) {
+		this.callCount = callCount;
+	}
+	
+	/**
+	 * Accessor for the backEdgeCount field.
+	 * 
+	 * @return  The long stored in the backEdgeCount field.
+	 */
+	public long getBackEdgeCount() {
+		return backEdgeCount;
+	}
+	
+	/**
+	 * Mutator for the backEdgeCount field.
+	 * 
+	 * @param backEdgeCount  The long to store in the backEdgeCount field.
+	 */
+	public void setBackEdgeCount(long backEdgeCount) {
+		this.backEdgeCount = backEdgeCount;
+	}
+	
+	/**
+	 * Accessor for the compiledBody field.
+	 * 
+	 * @return  The array of CompiledStatements stored in the compiledBody field, or null if not compiled.
+	 */
+	public CompiledStatement[] getCompiledBody() {
+		return compiledBody;
+	}
+	
+	/**
+	 * Mutator for the compiledBody field.
+	 * 
+	 * @param compiledBody  The array of CompiledStatements to store in the compiledBody field.
+	 */
+	public void setCompiledBody(CompiledStatement[] compiledBody) {
+		this.compiledBody = compiledBody;
+	}
+	
 	/**
 	 * Implementation of the toString() method for the FunctionNode.
 	 * 
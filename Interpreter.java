@@ -1,5 +1,6 @@
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 /**
  * A class representing the Interpreter component of a compiler. Contais two mains methods used to interpret a
  * function, and then various helper functions used in interpreting individual statements/statement components.
@@ -13,26 +14,259 @@ public class Interpreter {
 	// for the actual function.
 	private HashMap<String, FunctionNode> functions;
 	
+	// The HashMap to hold the pool of unused Frames for each user-defined function. Frames are reused across calls
+	// so that calling a function does not allocate a new HashMap and new IDTs for its constants and variables.
+	private HashMap<FunctionNode, ArrayList<Frame>> framePool;
+	
+	// Flag for explicit stack mode. When set, calls to user-defined functions are kept on a heap-allocated stack of
+	// ActivationRecords instead of the Java call stack, so the recursion depth is only limited by the heap.
+	private boolean explicitStack;
+	
+	// The arguments of a pending tail call. A tail call only evaluates its arguments, and then the calling function
+	// runs its own body again using these arguments instead of making a new call.
+	private ArrayList<InterpreterDataType> tailCallArguments;
+	
+	// The Optimizer used to optimize each function the first time it is called, or null to run functions as parsed.
+	private Optimizer optimizer;
+	
+	// Used to find the variables written and read by each for block, when marking counted for loops.
+	private UsageAnalysis usage;
+	
+	// Used to find the array references in each counted for loop whose index only needs checking before the loop runs.
+	private RangeAnalysis range;
+	
+	// The TierCompiler used to compile hot functions, or null to interpret every function by walking its statements.
+	private TierCompiler tierCompiler;
+	
+	// The function currently being interpreted, whose back-edge count is increased by each loop it runs.
+	private FunctionNode currentFunction;
+	
+	// The largest number of statements a counted for block may have for the Interpreter to unroll it. An unrolled
+	// loop runs four iterations per pass, so short blocks spend less time in the loop itself.
+	private static final int UNROLL_LIMIT = 2;
+	
 	/**
 	 * Constructor for the Interpreter class. Takes in a HashMap of functions, from the ProgramNode, to store in 
-	 * the functions field.
+	 * the functions field. Also, initializes the framePool to be an empty HashMap. Each user-defined function is
+	 * prepared the first time it is called, so functions a run never calls are never prepared.
 	 */
 	public Interpreter(HashMap<String, FunctionNode> functions) {
 		this.functions = functions;
+		framePool = new HashMap<FunctionNode, ArrayList<Frame>>();
+		explicitStack = false;
+		usage = new UsageAnalysis(functions);
+		range = new RangeAnalysis(usage);
+	}
+	
+	/**
+	 * Gives the Interpreter's UsageAnalysis the program's CallGraph, so a var argument is only counted as written when
+	 * the called function may change it.
+	 * 
+	 * @param callGraph  The CallGraph of the program, or null.
+	 */
+	public void setCallGraph(CallGraph callGraph) {
+		usage.setCallGraph(callGraph);
+	}
+	
+	/**
+	 * Mutator for the optimizer field.
+	 * 
+	 * @param optimizer  The Optimizer to store in the optimizer field, or null.
+	 */
+	public void setOptimizer(Optimizer optimizer) {
+		this.optimizer = optimizer;
+	}
+	
+	/**
+	 * Mutator for the tierCompiler field. Compiled functions are only run outside explicit stack mode.
+	 * 
+	 * @param tierCompiler  The TierCompiler to store in the tierCompiler field, or null.
+	 */
+	public void setTierCompiler(TierCompiler tierCompiler) {
+		this.tierCompiler = tierCompiler;
+	}
+	
+	/**
+	 * Prepares a user-defined function to run, the first time it is called. The function is optimized (if there is an
+	 * Optimizer), and then its tail calls, counted for loops, their range references and their LoopKernels are marked, 
+	 * since optimizing can change each of them.
+	 * 
+	 * @param function  The FunctionNode to prepare.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found in the optimized statements.
+	 */
+	private void prepareFunction(FunctionNode function) throws SyntaxErrorException {
+		if (optimizer != null)
+			optimizer.optimizeFunction(function);
+		markTailCalls(function, function.getStatements());
+		markCountedLoops(usage, function.getStatements());
+		range.markRangeReferences(function.getStatements());
+		markKernels(function.getStatements());
+		function.setPrepared(true);
+	}
+	
+	/**
+	 * Gives each counted for loop (including inner loops) that matches an array idiom a LoopKernel, which runs the
+	 * whole loop at once. The loops' range references must already be marked.
+	 * 
+	 * @param statements  The ArrayList of StatementNodes to search for for loops.
+	 */
+	private void markKernels(ArrayList<StatementNode> statements) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					markKernels(ifBlock.getStatements());
+			}
+			else if (statement instanceof ForNode) {
+				((ForNode) statement).setKernel(LoopKernel.recognize((ForNode) statement));
+				markKernels(((ForNode) statement).getStatements());
+			}
+			else if (statement instanceof WhileNode)
+				markKernels(((WhileNode) statement).getStatements());
+			
+			else if (statement instanceof RepeatNode)
+				markKernels(((RepeatNode) statement).getStatements());
+		}
+	}
+	
+	/**
+	 * Marks each for loop (including inner loops) whose block never writes the control variable as counted, and 
+	 * records whether the block reads the control variable. A counted loop can keep its count in a Java int.
+	 * 
+	 * @param usage		  The UsageAnalysis used to find the variables written and read by each for block.
+	 * @param statements  The ArrayList of StatementNodes to search for for loops.
+	 */
+	private void markCountedLoops(UsageAnalysis usage, ArrayList<StatementNode> statements) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					markCountedLoops(usage, ifBlock.getStatements());
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				HashSet<String> writes = new HashSet<String>();
+				HashSet<String> reads = new HashSet<String>();
+				usage.collectWrites(forNode.getStatements(), writes);
+				usage.collectReads(forNode.getStatements(), reads);
+				forNode.setCounted(!writes.contains(forNode.getControl().getName()));
+				forNode.setControlRead(reads.contains(forNode.getControl().getName()));
+				markCountedLoops(usage, forNode.getStatements());
+			}
+			else if (statement instanceof WhileNode)
+				markCountedLoops(usage, ((WhileNode) statement).getStatements());
+			
+			else if (statement instanceof RepeatNode)
+				markCountedLoops(usage, ((RepeatNode) statement).getStatements());
+		}
+	}
+	
+	/**
+	 * Marks each self-recursive function call in tail position, ie a call that is the last statement of the function
+	 * body, or the last statement of an if block that is itself in tail position. A call is only marked when no
+	 * argument needs a var update afterwards, so the function can re-use its own Frame instead of making the call.
+	 * 
+	 * @param function    The FunctionNode containing the statements.
+	 * @param statements  The ArrayList of StatementNodes whose last statement is in tail position.
+	 */
+	private void markTailCalls(FunctionNode function, ArrayList<StatementNode> statements) {
+		if (statements == null || statements.isEmpty())
+			return;
+		StatementNode last = statements.get(statements.size() - 1);
+		
+		// Each if/elsif/else block of an if statement in tail position ends in tail position.
+		if (last instanceof IfNode) {
+			for (IfNode ifBlock = (IfNode) last; ifBlock != null; ifBlock = ifBlock.getNext())
+				markTailCalls(function, ifBlock.getStatements());
+		}
+		else if (last instanceof FunctionCallNode) {
+			FunctionCallNode functionCall = (FunctionCallNode) last;
+			if (functions.get(functionCall.getName()) != function || functionCall.getParameters().size() != function.getParameters().size())
+				return;
+			// A var argument would need to be updated after the call, so the call is not a tail call.
+			for (int i = 0; i < function.getParameters().size(); i++)
+				if (functionCall.getParameters().get(i).isVar() && function.getParameters().get(i).isChangeable())
+					return;
+			functionCall.setTailCall(true);
+		}
+	}
+	
+	/**
+	 * Mutator for the explicitStack field.
+	 * 
+	 * @param explicitStack  The boolean to store in the explicitStack field.
+	 */
+	public void setExplicitStack(boolean explicitStack) {
+		this.explicitStack = explicitStack;
 	}
 	
 	/**
 	 * Populates the HashMap to contain all local variables and constants in the function definition. Then, it
-	 * passes this newly created HashMap and the function's statements to the interpretBlock() method.
+	 * passes this HashMap and the function's statements to the interpretBlock() method. The HashMap belongs to
+	 * a pooled Frame, which is reset rather than reallocated on each call.
 	 * 
 	 * @param function  The FunctionNode to interpret.
 	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
 	 */
 	public void interpretFunction(FunctionNode function, ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
-		// The HashMap to hold all the function's local variables (declared in the constants and variables section of
-		// function body). Holds a String for the variable name and an IDT to match the variable type and hold the data.
-		HashMap<String, InterpreterDataType> locals = new HashMap<String, InterpreterDataType>();
+		// In explicit stack mode, the function and every call it makes are run by interpretCallStack() instead.
+		if (explicitStack) {
+			interpretCallStack(function, args);
+			return;
+		}
+		// Take a frame from the pool. Its HashMap holds all the function's local variables (declared in the constants and
+		// variables section of function body). Holds a String for the variable name and an IDT to match the variable type 
+		// and hold the data.
+		Frame frame = acquireFrame(function);
+		HashMap<String, InterpreterDataType> locals = frame.getLocals();
+		bindParameters(locals, function, args);
+		
+		// Count the call, and have the function compiled once it is hot.
+		function.setCallCount(function.getCallCount() + 1);
+		if (tierCompiler != null && function.getCompiledBody() == null)
+			tierCompiler.promoteIfHot(function);
 		
+		// Reset the frame's local variables and constants, which adds each to the "locals" HashMap. Then, pass the
+		// HashMap of local variables/constants and the function statements to interpretBlock(), or run the compiled
+		// statements if the function has been compiled. The frame is returned to the pool once the function is finished.
+		frame.reset();
+		FunctionNode caller = currentFunction;
+		currentFunction = function;
+		try {
+			while (true) {
+				CompiledStatement[] compiledBody = function.getCompiledBody();
+				if (compiledBody != null)
+					TierCompiler.runBlock(compiledBody, locals);
+				else
+					interpretBlock(locals, function.getStatements());
+				
+				// While the function body ended in a tail call, run the body again with the tail call's arguments.
+				if (tailCallArguments == null)
+					break;
+				ArrayList<InterpreterDataType> arguments = tailCallArguments;
+				tailCallArguments = null;
+				bindParameters(locals, function, arguments);
+				frame.reset();
+			}
+		}
+		finally {
+			currentFunction = caller;
+			releaseFrame(frame);
+		}
+	}
+	
+	/**
+	 * Checks each argument passed into a function against the matching parameter's data type, and adds each argument
+	 * to the "locals" HashMap under the parameter's name.
+	 * 
+	 * @param locals	The HashMap of the function's local constants/variables.
+	 * @param function  The FunctionNode being called.
+	 * @param args		The ArrayList of IDTs passed into the function.
+	 * @throws SyntaxErrorException  When an argument's data type does not match the parameter's data type.
+	 */
+	private void bindParameters(HashMap<String, InterpreterDataType> locals, FunctionNode function, ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
 		// Loop over the function's parameters and add each to the "locals" HashMap, assigning a copy of the corresponding 
 		// IDT from the args collection.
 		if (function.getParameters() != null) {
@@ -46,7 +280,7 @@ public class Interpreter {
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an array of strings.");
 						
 						// Not an array. So, check if the inputted argument is a String IDT.
-						if (!(args.get(i) instanceof StringDataType)) 
+						if (!parameter.isArray() && !(args.get(i) instanceof StringDataType)) 
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be a string.");
 						
 						// Inputted argument is correct type, so assign it to the locals hash map with the corresponding parameter name.
@@ -60,7 +294,7 @@ public class Interpreter {
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an array of integers.");
 						
 						// Not an array. So, check if the inputted argument is an Integer IDT.
-						if (!(args.get(i) instanceof IntegerDataType)) 
+						if (!parameter.isArray() && !(args.get(i) instanceof IntegerDataType)) 
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an integer.");
 						
 						// Inputted argument is correct type, so assign it to the locals hash map with the corresponding parameter name.
@@ -74,7 +308,7 @@ public class Interpreter {
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an array of reals.");
 						
 						// Not an array. So, check if the inputted argument is a Real IDT.
-						if (!(args.get(i) instanceof RealDataType)) 
+						if (!parameter.isArray() && !(args.get(i) instanceof RealDataType)) 
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be a real.");
 						
 						// Inputted argument is correct type, so assign it to the locals hash map with the corresponding parameter name.
@@ -88,7 +322,7 @@ public class Interpreter {
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an array of booleans.");
 						
 						// Not an array. So, check if the inputted argument is a Boolean IDT.
-						if (!(args.get(i) instanceof BooleanDataType)) 
+						if (!parameter.isArray() && !(args.get(i) instanceof BooleanDataType)) 
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be a boolean.");
 						
 						// Inputted argument is correct type, so assign it to the locals hash map with the corresponding parameter name.
@@ -102,7 +336,7 @@ public class Interpreter {
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be an array of characters.");
 						
 						// Not an array. So, check if the inputted argument is a Character IDT.
-						if (!(args.get(i) instanceof CharacterDataType)) 
+						if (!parameter.isArray() && !(args.get(i) instanceof CharacterDataType)) 
 							throw new SyntaxErrorException("Invalid function call. Argument " + i + " must be a character.");
 						
 						// Inputted argument is correct type, so assign it to the locals hash map with the corresponding parameter name.
@@ -112,69 +346,176 @@ public class Interpreter {
 				i++;  // assign next argument
 			}
 		}
-		// Loop over the function's local variables and constants and add each to the "locals" HashMap.
-		if (function.getConstAndVars() != null) {
-			for (VariableNode variable : function.getConstAndVars()) {
-				switch (variable.getType()) {
-					// Variable/constant is a String (or, array of strings).
-					case STRING:
-						// First check if variable is an array of Strings.
-						if (variable.isArray()) 
-							// Add a new empty Array IDT to the HashMap, with known information.
-							locals.put(variable.getName(), new ArrayDataType(null, variable.getFrom(), 
-									variable.getTo(), ArrayDataType.elementType.STRING, variable.isChangeable()));
-						// Not an array. So, add a new empty String IDT to the HashMap.
-						locals.put(variable.getName(), new StringDataType(((StringNode) variable.getValue()).getString(), variable.getFrom(), variable.getTo(), variable.isChangeable()));
-						break;
-						
-					// Variable/constant is an Integer (or, array of integers).
-					case INTEGER:
-						// First check if variable is an array of ints.
-						if (variable.isArray()) 
-							// Add a new empty Array IDT to the HashMap, with known information.
-							locals.put(variable.getName(), new ArrayDataType(null, variable.getFrom(), 
-									variable.getTo(), ArrayDataType.elementType.INTEGER, variable.isChangeable()));
-						// Not an array. So, add a new empty Integer IDT to the HashMap.
-						locals.put(variable.getName(), new IntegerDataType(((IntegerNode) variable.getValue()).getNum(), variable.getFrom(), variable.getTo(), variable.isChangeable()));
-						break;
-						
-					// Variable/constant is a Real (or, array of reals).
-					case REAL:
-						// First check if variable is an array of reals.
-						if (variable.isArray()) 
-							// Add a new empty Real IDT to the HashMap, with known information.
-							locals.put(variable.getName(), new ArrayDataType(null, variable.getFrom(), 
-									variable.getTo(), ArrayDataType.elementType.REAL, variable.isChangeable()));
-						// Not an array. So, add a new empty Real IDT to the HashMap.
-						locals.put(variable.getName(), new RealDataType(((RealNode) variable.getValue()).getNum(), variable.getRealFrom(), variable.getRealTo(), variable.isChangeable()));
-						break;
-						
-					// Variable/constant is a Boolean (or, array of bools).
-					case BOOLEAN:
-						// First check if variable is an array of bools.
-						if (variable.isArray()) 
-							// Add a new empty Array IDT to the HashMap, with known information.
-							locals.put(variable.getName(), new ArrayDataType(null, variable.getFrom(), 
-									variable.getTo(), ArrayDataType.elementType.BOOLEAN, variable.isChangeable()));
-						// Not an array. So, add a new empty Boolean IDT to the HashMap.
-						locals.put(variable.getName(), new BooleanDataType(((BooleanNode) variable.getValue()).getBool(), variable.isChangeable()));
-						break;
-						
-					// Variable/constant is a Character (or, array of chars).
-					case CHARACTER:
-						// First check if variable is an array of chars.
-						if (variable.isArray()) 
-							// Add a new empty Array IDT to the HashMap, with known information.
-							locals.put(variable.getName(), new ArrayDataType(null, variable.getFrom(), 
-									variable.getTo(), ArrayDataType.elementType.CHARACTER, variable.isChangeable()));
-						// Not an array. So, add a new empty Character IDT to the HashMap.
-						locals.put(variable.getName(), new CharacterDataType(((CharacterNode) variable.getValue()).getChar(), variable.isChangeable()));
-						break;
+	}
+	
+	/**
+	 * Takes a Frame for the function from the frame pool, or creates a new Frame if every pooled Frame for the
+	 * function is in use (ie, the function is recursive). On the function's first call, it is prepared before its
+	 * first Frame is created, since optimizing can add constants/variables to the function.
+	 * 
+	 * @param function  The FunctionNode to get a Frame for.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found while preparing the function.
+	 * @return  A Frame for the function, whose locals still need to be reset.
+	 */
+	private Frame acquireFrame(FunctionNode function) throws SyntaxErrorException {
+		if (!function.isPrepared())
+			prepareFunction(function);
+		ArrayList<Frame> pool = framePool.get(function);
+		if (pool == null || pool.isEmpty())
+			return new Frame(function);
+		return pool.remove(pool.size() - 1);
+	}
+	
+	/**
+	 * Returns a Frame to the frame pool once its function call is finished, so the next call can reuse it. Any of its
+	 * arrays mapped from a file are written to the file, and any arrays stored outside the Java heap are released first.
+	 * 
+	 * @param frame  The Frame to return to the pool.
+	 */
+	private void releaseFrame(Frame frame) {
+		frame.flushArrays();
+		frame.clearParameters();
+		frame.freeArrays();
+		ArrayList<Frame> pool = framePool.get(frame.getFunction());
+		if (pool == null) {
+			pool = new ArrayList<Frame>();
+			framePool.put(frame.getFunction(), pool);
+		}
+		pool.add(frame);
+	}
+	
+	/**
+	 * Interprets a function in explicit stack mode. Each call to a user-defined function pushes a new ActivationRecord
+	 * onto a heap-allocated call stack, and each if block or loop body pushes a BlockCursor onto its record, so no Java
+	 * stack frames are used per Shank call. Statements are run one at a time from the innermost block of the top record.
+	 * 
+	 * @param function  The FunctionNode to interpret.
+	 * @param args		The ArrayList of IDTs passed into the function.
+	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
+	 */
+	private void interpretCallStack(FunctionNode function, ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		ArrayList<ActivationRecord> callStack = new ArrayList<ActivationRecord>();
+		callStack.add(createRecord(function, null, args));
+		
+		while (!callStack.isEmpty()) {
+			ActivationRecord record = callStack.get(callStack.size() - 1);
+			HashMap<String, InterpreterDataType> locals = record.getFrame().getLocals();
+			
+			// The function is finished. So, pop its record and update the caller's var variables.
+			if (record.isFinished()) {
+				callStack.remove(callStack.size() - 1);
+				releaseFrame(record.getFrame());
+				if (record.getCall() != null) {
+					updateVarArguments(callStack.get(callStack.size() - 1).getFrame().getLocals(), record.getFrame().getFunction(), 
+							record.getCall(), record.getArguments());
+					releaseArguments(record.getFrame().getFunction(), record.getCall(), record.getArguments());
+				}
+				continue;
+			}
+			BlockCursor block = record.currentBlock();
+			
+			// The block is finished. So, either run a loop body again or pop the block.
+			if (!block.hasNext()) {
+				boolean runAgain = false;  // will hold the flag to run the block again.
+				if (block.getLoop() instanceof WhileNode) 
+					runAgain = evaluate(locals, ((WhileNode) block.getLoop()).getCondition());
+				else if (block.getLoop() instanceof RepeatNode) 
+					runAgain = evaluate(locals, ((RepeatNode) block.getLoop()).getCondition());
+				else if (block.getLoop() instanceof ForNode) {
+					incrementControl(block.getControlVariable());
+					runAgain = block.nextCount();
+				}
+				if (runAgain)
+					block.restart();
+				else
+					record.popBlock();
+				continue;
+			}
+			StatementNode statement = block.next();
+			
+			if (statement instanceof IfNode) {
+				// Follow the linked list until an if block's condition is true, or an else block is reached.
+				IfNode ifBlock = (IfNode) statement;
+				while (ifBlock != null && ifBlock.getCondition() != null && !evaluate(locals, ifBlock.getCondition()))
+					ifBlock = ifBlock.getNext();
+				if (ifBlock != null)
+					record.pushBlock(new BlockCursor(ifBlock.getStatements(), null));
+			}
+			else if (statement instanceof ForNode) {
+				// Find the control variable and the initial and terminating values, and enter the block if it runs at least once.
+				ForNode forNode = (ForNode) statement;
+				InterpreterDataType controlVariable = interpretVariableReference(locals, forNode.getControl());
+				InterpreterDataType from = expression(locals, forNode.getFrom());
+				InterpreterDataType to = expression(locals, forNode.getTo());
+				if (controlVariable instanceof IntegerDataType && forNode.isCounted() && runKernel(locals, forNode, (IntegerDataType) controlVariable, 
+						((IntegerDataType) from).getValue(), ((IntegerDataType) to).getValue()))
+					continue;
+				if (controlVariable instanceof IntegerDataType && ((IntegerDataType) from).getValue() < ((IntegerDataType) to).getValue())
+					record.pushBlock(new BlockCursor(forNode, (IntegerDataType) controlVariable, ((IntegerDataType) from).getValue(), 
+							((IntegerDataType) to).getValue()));
+				else if (controlVariable instanceof RealDataType && ((RealDataType) from).getValue() < ((RealDataType) to).getValue())
+					record.pushBlock(new BlockCursor(forNode, (RealDataType) controlVariable, ((RealDataType) from).getValue(), 
+							((RealDataType) to).getValue()));
+			}
+			else if (statement instanceof WhileNode) {
+				if (evaluate(locals, ((WhileNode) statement).getCondition()))
+					record.pushBlock(new BlockCursor(((WhileNode) statement).getStatements(), statement));
+			}
+			else if (statement instanceof RepeatNode) {
+				if (evaluate(locals, ((RepeatNode) statement).getCondition()))
+					record.pushBlock(new BlockCursor(((RepeatNode) statement).getStatements(), statement));
+			}
+			else if (statement instanceof AssignmentNode) {
+				interpretAssignment(locals, (AssignmentNode) statement);
+			}
+			else if (statement instanceof FunctionCallNode) {
+				// Built-in functions are executed right away. User-defined functions push a new record onto the call stack.
+				FunctionCallNode functionCall = (FunctionCallNode) statement;
+				FunctionNode calledFunction = findFunction(functionCall);
+				ArrayList<InterpreterDataType> arguments = evaluateArguments(locals, calledFunction, functionCall);
+				// A tail call re-uses the current record, running the function body again with the new arguments.
+				if (functionCall.isTailCall()) {
+					bindParameters(locals, calledFunction, arguments);
+					record.getFrame().reset();
+					record.restart();
+				}
+				else if (calledFunction.isBuiltIn()) {
+					calledFunction.execute(arguments);
+					updateVarArguments(locals, calledFunction, functionCall, arguments);
+					releaseArguments(calledFunction, functionCall, arguments);
 				}
+				else 
+					callStack.add(createRecord(calledFunction, functionCall, arguments));
 			}
 		}
-		// Pass the newly created HashMap of local variables/constants and the funciton statements to interpretBlock().
-		interpretBlock(locals, function.getStatements());
+	}
+	
+	/**
+	 * Creates an ActivationRecord for a call to a user-defined function, using a Frame from the frame pool.
+	 * 
+	 * @param function  The FunctionNode being called.
+	 * @param call		The FunctionCallNode making the call, or null for the first function.
+	 * @param args		The ArrayList of IDTs passed into the function.
+	 * @throws SyntaxErrorException  When an argument's data type does not match the parameter's data type.
+	 * @return  A new ActivationRecord, ready to run the function body.
+	 */
+	private ActivationRecord createRecord(FunctionNode function, FunctionCallNode call, ArrayList<InterpreterDataType> args) throws SyntaxErrorException {
+		Frame frame = acquireFrame(function);
+		bindParameters(frame.getLocals(), function, args);
+		frame.reset();
+		return new ActivationRecord(frame, call, args);
+	}
+	
+	/**
+	 * Increments the control variable of a for loop by one, after each time the for block's statements are run.
+	 * 
+	 * @param controlVariable  The Integer or Real IDT to increment.
+	 */
+	private void incrementControl(InterpreterDataType controlVariable) {
+		if (controlVariable instanceof IntegerDataType)
+			((IntegerDataType) controlVariable).setValue(((IntegerDataType) controlVariable).getValue() + 1);
+		else
+			((RealDataType) controlVariable).setValue(((RealDataType) controlVariable).getValue() + 1);
 	}
 	
 	/**
@@ -186,7 +527,8 @@ public class Interpreter {
 	 */
 	public void interpretBlock(HashMap<String, InterpreterDataType> locals, ArrayList<StatementNode> statements) throws SyntaxErrorException {
 		// Loop over each StatementNode in the collection and process each accordingly.
-		for (StatementNode statement : statements) {
+		for (int i = 0; i < statements.size(); i++) {
+			StatementNode statement = statements.get(i);
 			if (statement instanceof IfNode) {
 				interpretIf(locals, (IfNode) statement);
 			}
@@ -203,7 +545,12 @@ public class Interpreter {
 				interpretAssignment(locals, (AssignmentNode) statement);
 			}
 			else if (statement instanceof FunctionCallNode) {
-				interpretFunctionCall(locals, (FunctionCallNode) statement);
+				// A tail call is the last statement run by the function, so only its arguments are evaluated here.
+				// interpretFunction() then runs the function body again.
+				if (((FunctionCallNode) statement).isTailCall())
+					tailCallArguments = evaluateArguments(locals, functions.get(((FunctionCallNode) statement).getName()), (FunctionCallNode) statement);
+				else
+					interpretFunctionCall(locals, (FunctionCallNode) statement);
 			}
 		}
 	}
@@ -218,6 +565,30 @@ public class Interpreter {
 	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
 	 */
 	public void interpretFunctionCall(HashMap<String, InterpreterDataType> locals, FunctionCallNode functionCall) throws SyntaxErrorException {
+		FunctionNode function = findFunction(functionCall);
+		ArrayList<InterpreterDataType> parameterIDTsClone = evaluateArguments(locals, function, functionCall);
+		
+		// Now, call the function using intperpretFunction() if it is user-defined, or execute() if it is a built-in.
+		if (function.isBuiltIn())
+			function.execute(parameterIDTsClone);
+		else
+			interpretFunction(function, parameterIDTsClone);
+		
+		// Finally, update any var variables if they were correctly marked as var in the function call, and release the 
+		// copy-on-write arrays.
+		updateVarArguments(locals, function, functionCall, parameterIDTsClone);
+		releaseArguments(function, functionCall, parameterIDTsClone);
+	}
+	
+	/**
+	 * Locates the function definition for a function call in the functions HashMap. Then, checks that the parameter
+	 * count is correct.
+	 * 
+	 * @param functionCall  The FunctionCallNode to find the function definition for.
+	 * @throws SyntaxErrorException  When the function is not defined or the parameter count is incorrect.
+	 * @return  The FunctionNode being called.
+	 */
+	private FunctionNode findFunction(FunctionCallNode functionCall) throws SyntaxErrorException {
 		// First, locate the function by name in the functions HashMap, and throw an Exception if it cannot be found.
 		FunctionNode function = functions.get(functionCall.getName());
 		if (function == null)
@@ -230,6 +601,25 @@ public class Interpreter {
 				throw new SyntaxErrorException("Error: invalid function call. Incorrect number of arguments. Function " + function.getName() + 
 												" requires " + function.getParameters().size() + " arguments.");
 		}
+		return function;
+	}
+	
+	/**
+	 * Evaluates each argument of a function call, and creates a clone of each resulting IDT to pass into the function.
+	 * An array is cloned as a copy-on-write copy, which shares the caller's elements until either is changed. An array 
+	 * that is updated after the call (a var argument) is passed without a copy, so the function changes the caller's
+	 * array directly. When the same array is passed as more than one updated argument, each but the last is passed as
+	 * a copy-on-write copy, so the parameters do not alias one another. As with other var arguments, the last one is
+	 * the value the caller keeps.
+	 * 
+	 * @param locals	    The HashMap of local constants/variables of the calling function.
+	 * @param function		The FunctionNode being called.
+	 * @param functionCall  The FunctionCallNode being interpreted.
+	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
+	 * @return  The ArrayList of cloned IDTs to pass into the function.
+	 */
+	private ArrayList<InterpreterDataType> evaluateArguments(HashMap<String, InterpreterDataType> locals, FunctionNode function, 
+			FunctionCallNode functionCall) throws SyntaxErrorException {
 		// Make a new collection of IDTs matching the data types of the passed in arguments.
 		ArrayList<InterpreterDataType> parameterIDTs = new ArrayList<InterpreterDataType>();
 		for (ParameterNode parameter : functionCall.getParameters()) 
@@ -237,7 +627,8 @@ public class Interpreter {
 		
 		// Create a clone of the arguments to pass into the function.
 		ArrayList<InterpreterDataType> parameterIDTsClone = new ArrayList<InterpreterDataType>();
-		for (InterpreterDataType IDT : parameterIDTs) {
+		for (int i = 0; i < parameterIDTs.size(); i++) {
+			InterpreterDataType IDT = parameterIDTs.get(i);
 			if (IDT instanceof IntegerDataType)
 				parameterIDTsClone.add(new IntegerDataType((IntegerDataType)IDT));
 			else if (IDT instanceof RealDataType)
@@ -248,23 +639,96 @@ public class Interpreter {
 				parameterIDTsClone.add(new StringDataType((StringDataType)IDT));
 			else if (IDT instanceof CharacterDataType)
 				parameterIDTsClone.add(new CharacterDataType((CharacterDataType)IDT));
+			else if (IDT instanceof ArrayDataType && isUpdated(function, functionCall.getParameters().get(i), i) && 
+					!isPassedAgain(function, functionCall, i))
+				parameterIDTsClone.add(IDT);
 			else if (IDT instanceof ArrayDataType)
 				parameterIDTsClone.add(new ArrayDataType((ArrayDataType)IDT));
 	    }
-		// Now, call the function using intperpretFunction() if it is user-defined, or execute() if it is a built-in.
+		return parameterIDTsClone;
+	}
+	
+	/**
+	 * Checks whether an argument of a function call is updated once the call is finished. A built-in function updates
+	 * its var arguments (and read updates every variable argument), as in the CallGraph. A user-defined function 
+	 * updates the arguments marked as var for var parameters.
+	 * 
+	 * @param function   The FunctionNode being called.
+	 * @param parameter  The ParameterNode holding the argument.
+	 * @param index		 The position of the argument in the function call.
+	 * @return  true if the argument is updated after the call, and false otherwise.
+	 */
+	private boolean isUpdated(FunctionNode function, ParameterNode parameter, int index) {
 		if (function.isBuiltIn())
-			function.execute(parameterIDTsClone);
-		else
-			interpretFunction(function, parameterIDTsClone);
-		
-		// Finally, update any var variables if they were correctly marked as var in the function call.
+			return parameter.getParameter() instanceof VariableReferenceNode && (parameter.isVar() || function instanceof BuiltInRead);
+		return function.isVariadic() || (parameter.isVar() && index < function.getParameters().size() && 
+				function.getParameters().get(index).isChangeable());
+	}
+	
+	/**
+	 * Checks whether an updated argument naming a whole variable is followed by another updated argument naming the
+	 * same variable. Only the last of them is passed without a copy.
+	 * 
+	 * @param function		The FunctionNode being called.
+	 * @param functionCall  The FunctionCallNode holding the arguments.
+	 * @param index		    The position of the argument in the function call.
+	 * @return  true if the same variable is passed again as an updated argument, and false otherwise.
+	 */
+	private boolean isPassedAgain(FunctionNode function, FunctionCallNode functionCall, int index) {
+		VariableReferenceNode reference = (VariableReferenceNode) functionCall.getParameters().get(index).getParameter();
+		if (reference.getArrayIndexExpression() != null)
+			return false;
+		for (int i = index + 1; i < functionCall.getParameters().size(); i++) {
+			ParameterNode parameter = functionCall.getParameters().get(i);
+			if (isUpdated(function, parameter, i) && ((VariableReferenceNode) parameter.getParameter()).getArrayIndexExpression() == null &&
+					((VariableReferenceNode) parameter.getParameter()).getName().equals(reference.getName()))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Releases each copy-on-write array passed into a function once the call is finished, so the caller can change its
+	 * arrays again without copying them. Arrays passed as updated arguments were not copied, so they are skipped, 
+	 * unless the same array was passed again as a later updated argument.
+	 * 
+	 * @param function		The FunctionNode that was called.
+	 * @param functionCall  The FunctionCallNode that was interpreted.
+	 * @param arguments		The ArrayList of IDTs that were passed into the function.
+	 */
+	private void releaseArguments(FunctionNode function, FunctionCallNode functionCall, ArrayList<InterpreterDataType> arguments) {
+		for (int i = 0; i < arguments.size(); i++)
+			if (arguments.get(i) instanceof ArrayDataType && (!isUpdated(function, functionCall.getParameters().get(i), i) || 
+					isPassedAgain(function, functionCall, i)))
+				((ArrayDataType) arguments.get(i)).release();
+	}
+	
+	/**
+	 * Updates any var variables of the calling function once a function call is finished, if they were correctly 
+	 * marked as var in the function call. For a built-in function, each var argument is updated, as well as every 
+	 * variable argument of read. A var array element is written back into the array, using the value of its
+	 * index after the call.
+	 * 
+	 * @param locals	    The HashMap of local constants/variables of the calling function.
+	 * @param function		The FunctionNode that was called.
+	 * @param functionCall  The FunctionCallNode that was interpreted.
+	 * @param arguments		The ArrayList of IDTs that were passed into the function.
+	 * @throws SyntaxErrorException  When the index of a var array element is invalid.
+	 */
+	private void updateVarArguments(HashMap<String, InterpreterDataType> locals, FunctionNode function, FunctionCallNode functionCall, 
+			ArrayList<InterpreterDataType> arguments) throws SyntaxErrorException {
 		int i = 0;  // index to loop through parameters 
-		if (!function.isBuiltIn()) {
-			for (ParameterNode parameter : functionCall.getParameters()) {
-				if (function.isVariadic() || (parameter.isVar() && function.getParameters().get(i).isChangeable())) 
-					locals.replace(((VariableReferenceNode) parameter.getParameter()).getName(), parameterIDTsClone.get(i));
-				i++;
+		for (ParameterNode parameter : functionCall.getParameters()) {
+			if (isUpdated(function, parameter, i)) {
+				VariableReferenceNode reference = (VariableReferenceNode) parameter.getParameter();
+				if (reference.getArrayIndexExpression() != null) {
+					ArrayDataType array = findArray(locals, reference);
+					array.setElement(arrayIndex(locals, array, reference), arguments.get(i));
+				}
+				else
+					locals.replace(reference.getName(), arguments.get(i));
 			}
+			i++;
 		}
 	}
 	
@@ -311,24 +775,171 @@ public class Interpreter {
 			intFrom = ((IntegerDataType) from).getValue();
 			intTo = ((IntegerDataType) to).getValue();
 
+			// A counted loop keeps the control variable's value in a Java int instead.
+			if (statement.isCounted()) {
+				interpretCountedFor(locals, statement, (IntegerDataType) controlVariable, intFrom, intTo);
+				return;
+			}
 			// Run the for block statements, using the correct control statement.
 			for (int i = intFrom; i < intTo; i++) {
 				interpretBlock(locals, statement.getStatements());
 				((IntegerDataType) controlVariable).setValue(((IntegerDataType) controlVariable).getValue() + 1);
 			}
+			if (intTo > intFrom)
+				countBackEdges(statement, (long) intTo - intFrom);
 		}
 		
 		else if (controlVariable instanceof RealDataType) {
 			floatFrom = ((RealDataType) from).getValue();
 			floatTo = ((RealDataType) to).getValue();
 			// Run the for block statements, using the correct control statement.
+			long passes = 0;
 			for (float i = floatFrom; i < floatTo; i++) {
 				interpretBlock(locals, statement.getStatements());
 				((RealDataType) controlVariable).setValue(((RealDataType) controlVariable).getValue() + 1);
+				passes++;
 			}
+			countBackEdges(statement, passes);
 		}		
 	}
 	
+	/**
+	 * Interprets an integer for statement whose block never writes the control variable. The control variable's value
+	 * is kept in a Java int while the loop runs, and is only stored back into the control variable before each pass
+	 * through the block if the block reads it. Blocks of at most UNROLL_LIMIT statements are unrolled, running four
+	 * passes through the block for each check of the count. As with interpretFor(), the block runs (to - from) times 
+	 * and the control variable is incremented after each pass.
+	 * 
+	 * @param locals		   The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param statement		   The counted ForNode to interpret.
+	 * @param controlVariable  The Integer IDT of the control variable.
+	 * @param from			   The initial value of the count.
+	 * @param to			   The terminating value of the count.
+	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
+	 */
+	private void interpretCountedFor(HashMap<String, InterpreterDataType> locals, ForNode statement, IntegerDataType controlVariable, 
+			int from, int to) throws SyntaxErrorException {
+		ArrayList<StatementNode> statements = statement.getStatements();
+		int size = (statements != null) ? statements.size() : 0;
+		if (to > from)
+			countBackEdges(statement, (long) to - from);
+		if (size == 0) {  // an empty block, so the loop only changes the control variable.
+			if (to > from)
+				controlVariable.setValue(controlVariable.getValue() + (to - from));
+			return;
+		}
+		if (runKernel(locals, statement, controlVariable, from, to))
+			return;
+		boolean controlRead = statement.isControlRead();
+		int value = controlVariable.getValue();  // will hold the control variable's value while the loop runs.
+		int i = from;
+		
+		// Check the whole range of each array index made from the control variable, so the block can skip checking them. The
+		// previous flag is restored afterwards, since a recursive call within the block may run this loop over another range.
+		boolean inBounds = statement.isInBounds();
+		if (statement.getRangeReferences() != null)
+			statement.setInBounds(to > from && rangeInBounds(locals, statement, value, (long) value + ((long) to - from) - 1));
+		try {
+			if (size <= UNROLL_LIMIT) {
+				for (; (long) to - i >= 4; i += 4) {
+					interpretCountedBlock(locals, statements, controlVariable, value, controlRead);
+					interpretCountedBlock(locals, statements, controlVariable, value + 1, controlRead);
+					interpretCountedBlock(locals, statements, controlVariable, value + 2, controlRead);
+					interpretCountedBlock(locals, statements, controlVariable, value + 3, controlRead);
+					value += 4;
+				}
+			}
+			// Run the remaining passes one at a time.
+			for (; i < to; i++) {
+				interpretCountedBlock(locals, statements, controlVariable, value, controlRead);
+				value++;
+			}
+		}
+		finally {
+			statement.setInBounds(inBounds);
+		}
+		controlVariable.setValue(value);
+	}
+	
+	/**
+	 * Runs a whole counted for loop with its LoopKernel, if it has one and every range reference stays within bounds.
+	 * The control variable is left with the same value as after interpreting the loop.
+	 * 
+	 * @param locals		   The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param statement		   The counted ForNode about to run.
+	 * @param controlVariable  The Integer IDT of the control variable.
+	 * @param from			   The initial value of the count.
+	 * @param to			   The terminating value of the count.
+	 * @return  true if the loop was run, or false if it must be interpreted.
+	 */
+	private boolean runKernel(HashMap<String, InterpreterDataType> locals, ForNode statement, IntegerDataType controlVariable, int from, int to) {
+		LoopKernel kernel = statement.getKernel();
+		if (kernel == null || to <= from || (long) to - from > Integer.MAX_VALUE)
+			return false;
+		int value = controlVariable.getValue();
+		if (!rangeInBounds(locals, statement, value, (long) value + ((long) to - from) - 1) || !kernel.run(locals, value, to - from))
+			return false;
+		controlVariable.setValue(value + (to - from));
+		return true;
+	}
+	
+	/**
+	 * Checks whether every range reference of a counted for loop stays within its array's bounds, for each value the
+	 * control variable takes while the loop runs.
+	 * 
+	 * @param locals	 The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param statement  The counted ForNode about to run.
+	 * @param first		 The control variable's value during the first pass through the block.
+	 * @param last		 The control variable's value during the last pass through the block.
+	 * @return  true if every index made from the control variable is within bounds, and false otherwise.
+	 */
+	private boolean rangeInBounds(HashMap<String, InterpreterDataType> locals, ForNode statement, long first, long last) {
+		// The control variable would wrap around past the largest int, so its values are not a simple range.
+		if (last > Integer.MAX_VALUE)
+			return false;
+		for (VariableReferenceNode reference : statement.getRangeReferences()) {
+			InterpreterDataType variable = locals.get(reference.getName());
+			if (!(variable instanceof ArrayDataType))
+				return false;
+			ArrayDataType array = (ArrayDataType) variable;
+			if (first + reference.getIndexOffset() < array.getFrom() || last + reference.getIndexOffset() > array.getTo())
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Runs one pass through the block of a counted for statement.
+	 * 
+	 * @param locals		   The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param statements	   The ArrayList of StatementNodes in the for block.
+	 * @param controlVariable  The Integer IDT of the control variable.
+	 * @param value			   The value of the control variable for this pass.
+	 * @param controlRead	   Whether the block reads the control variable, so its value must be stored first.
+	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
+	 */
+	private void interpretCountedBlock(HashMap<String, InterpreterDataType> locals, ArrayList<StatementNode> statements, 
+			IntegerDataType controlVariable, int value, boolean controlRead) throws SyntaxErrorException {
+		if (controlRead)
+			controlVariable.setValue(value);
+		interpretBlock(locals, statements);
+	}
+	
+	/**
+	 * Adds the passes made through a loop's block to the loop's back-edges, and to the back-edge count of the function
+	 * currently being interpreted.
+	 * 
+	 * @param loop	  The For/While/RepeatNode that finished running.
+	 * @param passes  The number of passes made through the loop's block.
+	 */
+	private void countBackEdges(StatementNode loop, long passes) {
+		if (passes == 0)
+			return;
+		loop.setBackEdges(loop.getBackEdges() + passes);
+		if (currentFunction != null)
+			currentFunction.setBackEdgeCount(currentFunction.getBackEdgeCount() + passes);
+	}
+	
 	/**
 	 * Interprets a while statement within the function body. First checks if the condition is true, and if so, it executes
 	 * the while block's statements and then re-evaluates the condition. The loop will exit when the condition is false.
@@ -339,10 +950,13 @@ public class Interpreter {
 	 */
 	public void interpretWhile(HashMap<String, InterpreterDataType> locals, WhileNode statement) throws SyntaxErrorException {
 		boolean conditionIsTrue = evaluate(locals, statement.getCondition());  // will hold the flag to enter the while loop.
+		long passes = 0;  // the number of passes through the while block.
 		while (conditionIsTrue) {  // if the condition evaluated to true, interpret the while block's statements.
 			interpretBlock(locals, statement.getStatements());  // perform the statements.
 			conditionIsTrue = evaluate(locals, statement.getCondition());  // re-evaluate the condition.
+			passes++;
 		}
+		countBackEdges(statement, passes);
 	}
 	
 	/**
@@ -356,10 +970,13 @@ public class Interpreter {
 	 */
 	public void interpretRepeat(HashMap<String, InterpreterDataType> locals, RepeatNode statement) throws SyntaxErrorException {
 		boolean conditionIsFalse = evaluate(locals, statement.getCondition());  // will hold the flag to enter the repeat loop.
+		long passes = 0;  // the number of passes through the repeat block.
 		while (conditionIsFalse) {  // if the condition evaluated to false, interpret the repeat block's statements.
 			interpretBlock(locals, statement.getStatements());  // perform the statements.
 			conditionIsFalse = evaluate(locals, statement.getCondition());  // re-evaluate the condition.
+			passes++;
 		}   
+		countBackEdges(statement, passes);
 	}
 	
 
@@ -372,6 +989,11 @@ public class Interpreter {
 	 * @throws SyntaxErrorException  When invalid data types are present or an invalid variable reference is made.
 	 */
 	public void interpretAssignment(HashMap<String, InterpreterDataType> locals, AssignmentNode statement) throws SyntaxErrorException {
+		// An array element target is written directly into the array.
+		if (statement.getTarget().getArrayIndexExpression() != null) {
+			interpretElementAssignment(locals, statement);
+			return;
+		}
 		// Interpret the target side of the assignment, ie the variable reference.
 		InterpreterDataType target = interpretVariableReference(locals, statement.getTarget());
 		
@@ -382,24 +1004,85 @@ public class Interpreter {
 		}
 		else {  // the value should be interpreted through expression().
 			InterpreterDataType value = expression(locals, statement.getValue());
-			// Re-assign the target variable's value depending on the data type of the value.
-			if (value instanceof IntegerDataType)
+			// Re-assign the target variable's value depending on the data type of the value (or of the target, when the
+			// TypeChecker has found it).
+			VariableNode.Type type = statement.getTarget().getDataType();
+			if (type == VariableNode.Type.INTEGER || (type == null && value instanceof IntegerDataType))
 				((IntegerDataType) target).setValue(((IntegerDataType) value).getValue());
 			
-			else if (value instanceof RealDataType)
+			else if (type == VariableNode.Type.REAL || (type == null && value instanceof RealDataType))
 				((RealDataType) target).setValue(((RealDataType) value).getValue());
 			
-			else if (value instanceof StringDataType)
+			else if (type == VariableNode.Type.STRING || (type == null && value instanceof StringDataType))
 				((StringDataType) target).setString(((StringDataType) value).getString());
 			
-			else if (value instanceof CharacterDataType)
+			else if (type == VariableNode.Type.CHARACTER || (type == null && value instanceof CharacterDataType))
 				((CharacterDataType) target).setChar(((CharacterDataType) value).getChar());
 			
-			else if (value instanceof BooleanDataType)
+			else if (type == VariableNode.Type.BOOLEAN || (type == null && value instanceof BooleanDataType))
 				((BooleanDataType) target).setBool(((BooleanDataType) value).getBool());
 		}
 	}
 	
+	/**
+	 * Interprets an assignment statement whose target is an array element. The index is found first, and then the value
+	 * side of the assignment is evaluated and stored into the element.
+	 * 
+	 * @param locals	  The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param statement   The AssignmentNode to interpret, whose target has an array index expression.
+	 * @throws SyntaxErrorException  When invalid data types are present, an invalid variable reference is made, or the index
+	 * 									is out of the array's bounds.
+	 */
+	private void interpretElementAssignment(HashMap<String, InterpreterDataType> locals, AssignmentNode statement) throws SyntaxErrorException {
+		ArrayDataType array = findArray(locals, statement.getTarget());
+		int index = arrayIndex(locals, array, statement.getTarget());
+		if (statement.getValue() instanceof BooleanCompareNode) {
+			if (array.getType() != ArrayDataType.elementType.BOOLEAN)
+				throw new SyntaxErrorException("Error: invalid assignment. Array " + statement.getTarget().getName() + " does not hold booleans.");
+			array.setBoolean(index, evaluate(locals, (BooleanCompareNode) statement.getValue()));
+			return;
+		}
+		InterpreterDataType value = expression(locals, statement.getValue());
+		switch (array.getType()) {
+			case INTEGER:
+				if (value instanceof IntegerDataType) {
+					array.setInteger(index, ((IntegerDataType) value).getValue());
+					return;
+				}
+				break;
+			
+			case REAL:
+				if (value instanceof RealDataType) {
+					array.setReal(index, ((RealDataType) value).getValue());
+					return;
+				}
+				break;
+			
+			case STRING:
+				if (value instanceof StringDataType) {
+					array.setString(index, ((StringDataType) value).getString());
+					return;
+				}
+				break;
+			
+			case CHARACTER:
+				if (value instanceof CharacterDataType) {
+					array.setCharacter(index, ((CharacterDataType) value).getChar());
+					return;
+				}
+				break;
+			
+			case BOOLEAN:
+				if (value instanceof BooleanDataType) {
+					array.setBoolean(index, ((BooleanDataType) value).getBool());
+					return;
+				}
+				break;
+		}
+		throw new SyntaxErrorException("Error: invalid assignment. The value assigned to an element of array " + statement.getTarget().getName() + 
+				" must match the array's element type.");
+	}
+	
 	/**
 	 * Interprets a boolean compare expression by first interpreting the left and right sides of the inequality using
 	 * expression(). Then returns a boolean value depending on the comparison operator present.
@@ -413,9 +1096,10 @@ public class Interpreter {
 		// Interpret the left and right sides of the boolean compare expression using expression().
 		InterpreterDataType left = expression(locals, node.getLeft());
 		InterpreterDataType right = expression(locals, node.getRight());
-		// Ensure both sides of the comparison have the same data type. Then, evaluate the boolean expression 
-		// using the correct comparison operator.
-		if (left instanceof IntegerDataType && right instanceof IntegerDataType) {  // two integers present.
+		// When the TypeChecker has found the operands' data type, they are known to match. Otherwise, ensure both sides
+		// of the comparison have the same data type. Then, evaluate the boolean expression using the correct comparison operator.
+		VariableNode.Type type = node.getLeft().getDataType();
+		if (type == VariableNode.Type.INTEGER || (type == null && left instanceof IntegerDataType && right instanceof IntegerDataType)) {  // two integers present.
 			switch (node.getComparison()) {
 				case GREATERTHAN:
 					return ((IntegerDataType) left).getValue() > ((IntegerDataType) right).getValue();
@@ -436,7 +1120,7 @@ public class Interpreter {
 					return ((IntegerDataType) left).getValue() != ((IntegerDataType) right).getValue();
 			}
 		}
-		else if (left instanceof RealDataType && right instanceof RealDataType) {  // two floats present.
+		else if (type == VariableNode.Type.REAL || (type == null && left instanceof RealDataType && right instanceof RealDataType)) {  // two floats present.
 			switch (node.getComparison()) {
 				case GREATERTHAN:
 					return ((RealDataType) left).getValue() > ((RealDataType) right).getValue();
@@ -457,7 +1141,7 @@ public class Interpreter {
 					return ((RealDataType) left).getValue() != ((RealDataType) right).getValue();
 			}
 		}
-		else if (left instanceof CharacterDataType && right instanceof CharacterDataType) {  // two chars present.
+		else if (type == VariableNode.Type.CHARACTER || (type == null && left instanceof CharacterDataType && right instanceof CharacterDataType)) {  // two chars present.
 			switch (node.getComparison()) {
 				case GREATERTHAN:
 					return ((CharacterDataType) left).getChar() > ((CharacterDataType) right).getChar();
@@ -478,7 +1162,7 @@ public class Interpreter {
 					return ((CharacterDataType) left).getChar() != ((CharacterDataType) right).getChar();
 			}
 		}
-		else if (left instanceof StringDataType && right instanceof StringDataType) {  // two strings present.
+		else if (type == VariableNode.Type.STRING || (type == null && left instanceof StringDataType && right instanceof StringDataType)) {  // two strings present.
 			switch (node.getComparison()) {  // note: fewer valid comparisons are available for strings.
 				case EQUALS: 
 					return ((StringDataType) left).getString() == ((StringDataType) right).getString();
@@ -490,7 +1174,7 @@ public class Interpreter {
 					throw new SyntaxErrorException("Error: invalid boolean compare expression. Strings can only be compared using = and <>.");
 			}
 		}
-		else if (left instanceof BooleanDataType && right instanceof BooleanDataType) {  // two booleans present.
+		else if (type == VariableNode.Type.BOOLEAN || (type == null && left instanceof BooleanDataType && right instanceof BooleanDataType)) {  // two booleans present.
 			switch (node.getComparison()) {  // note: fewer valid comparisons are available for booleans.
 				case EQUALS: 
 					return ((BooleanDataType) left).getBool() == ((BooleanDataType) right).getBool();
@@ -508,14 +1192,19 @@ public class Interpreter {
 	
 	/**
 	 * Interprets a variable reference. Utilizes the "locals" HashMap from interpretFunction() to determine if
-	 * the variable was declared prior to use. If so, it returns the matching IDT from the HashMap.
+	 * the variable was declared prior to use. If so, it returns the matching IDT from the HashMap. A reference with an
+	 * array index expression instead returns a new IDT holding a copy of the array element.
 	 *
 	 * @param locals  The HashMap of local constants/variables from the interpretFunction() method.
 	 * @param node	  The VariableReferenceNode to determine the validity of.
-	 * @throws SyntaxErrorException  When an invalid variable reference is made.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made, or an array index is out of bounds.
 	 * @return  The corresponding IDT of the variable from the "locals" HashMap.
 	 */
 	public InterpreterDataType interpretVariableReference(HashMap<String, InterpreterDataType> locals, VariableReferenceNode node) throws SyntaxErrorException {
+		if (node.getArrayIndexExpression() != null) {
+			ArrayDataType array = findArray(locals, node);
+			return array.getElement(arrayIndex(locals, array, node));
+		}
 		// Check if the variable is in the HashMap. If not, throw Exception and exit.
 		if (!locals.containsKey(node.getName())) {
 			throw new SyntaxErrorException("Error: invalid variable reference. No variable with name " + node.getName() + ".");
@@ -525,6 +1214,47 @@ public class Interpreter {
 			return locals.get(node.getName());
 	}
 	
+	/**
+	 * Finds the array referenced by a VariableReferenceNode with an array index expression.
+	 *
+	 * @param locals  The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param node	  The VariableReferenceNode of the array element.
+	 * @throws SyntaxErrorException  When there is no variable with the name, or the variable is not an array.
+	 * @return  The ArrayDataType stored under the reference's name.
+	 */
+	private ArrayDataType findArray(HashMap<String, InterpreterDataType> locals, VariableReferenceNode node) throws SyntaxErrorException {
+		InterpreterDataType variable = locals.get(node.getName());
+		if (variable == null)
+			throw new SyntaxErrorException("Error: invalid variable reference. No variable with name " + node.getName() + ".");
+		if (!(variable instanceof ArrayDataType))
+			throw new SyntaxErrorException("Error: invalid variable reference. Variable " + node.getName() + " is not an array, so it cannot be indexed.");
+		return (ArrayDataType) variable;
+	}
+	
+	/**
+	 * Evaluates the array index expression of a VariableReferenceNode, and checks that the index is within the array's
+	 * from and to values. The check is skipped when the reference is a range reference of a counted for loop that is 
+	 * running, and whose range was found to be within bounds before the loop started.
+	 *
+	 * @param locals  The HashMap of local constants/variables from the interpretFunction() method.
+	 * @param array	  The ArrayDataType being indexed.
+	 * @param node	  The VariableReferenceNode of the array element.
+	 * @throws SyntaxErrorException  When the index is not an integer, or is out of the array's bounds.
+	 * @return  The position of the element within the array, starting at 0.
+	 */
+	private int arrayIndex(HashMap<String, InterpreterDataType> locals, ArrayDataType array, VariableReferenceNode node) throws SyntaxErrorException {
+		InterpreterDataType indexIDT = expression(locals, node.getArrayIndexExpression());
+		if (!(indexIDT instanceof IntegerDataType))
+			throw new SyntaxErrorException("Error: invalid array index. The index of array " + node.getName() + " must be an integer.");
+		int index = ((IntegerDataType) indexIDT).getValue();
+		
+		ForNode rangeLoop = node.getRangeLoop();
+		if ((rangeLoop == null || !rangeLoop.isInBounds()) && (index < array.getFrom() || index > array.getTo()))
+			throw new SyntaxErrorException("Error: array index out of bounds. Index " + index + " of array " + node.getName() + 
+					" must be from " + array.getFrom() + " to " + array.getTo() + ".");
+		return index - array.getFrom();
+	}
+	
 	/**
 	 * Interprets an expression by first finding the type of node that is present. Any "primitive data type" node will 
 	 * just return a new IDT holding the value that was in the node. A MathOpNode will require more work, but will eventually
@@ -565,51 +1295,56 @@ public class Interpreter {
 		else if (node instanceof MathOpNode) {
 			InterpreterDataType left = expression(locals, ((MathOpNode) node).getLeft());
 			InterpreterDataType right = expression(locals, ((MathOpNode) node).getRight());
+			// When the TypeChecker has found the node's data type, the operands are known to be integers or reals without
+			// checking them. Otherwise, check the operands' IDTs.
+			VariableNode.Type type = node.getDataType();
+			boolean integers = (type != null) ? type == VariableNode.Type.INTEGER : left instanceof IntegerDataType && right instanceof IntegerDataType;
+			boolean reals = (type != null) ? type == VariableNode.Type.REAL : left instanceof RealDataType && right instanceof RealDataType;
 			switch (((MathOpNode) node).getOperation()) {
 			// Evaluate the actual expression depending on the operator.
 				case PLUS:
-					if (left instanceof IntegerDataType && right instanceof IntegerDataType)  // int + int
+					if (integers)  // int + int
 						return new IntegerDataType(((IntegerDataType) left).getValue() + ((IntegerDataType) right).getValue(), 0, 0, true);
-					else if (left instanceof RealDataType && right instanceof RealDataType)  // float + float
+					else if (reals)  // float + float
 						return new RealDataType(((RealDataType) left).getValue() + ((RealDataType) right).getValue(), 0, 0, true);
 					else if (left instanceof StringDataType && right instanceof StringDataType)  // string + string
 						return new StringDataType(((StringDataType) left).getString() + ((StringDataType) right).getString(), 0, 0, true);
 					else if (left instanceof StringDataType && right instanceof CharacterDataType)  // string + char
 						return new StringDataType(((StringDataType) left).getString() + ((CharacterDataType) right).getChar(), 0, 0, true);
 					else if (left instanceof CharacterDataType && right instanceof StringDataType)  // char + string
-						return new StringDataType(((StringDataType) left).getString() + ((CharacterDataType) right).getChar(), 0, 0, true);	
+						return new StringDataType(((CharacterDataType) left).getChar() + ((StringDataType) right).getString(), 0, 0, true);
 					else  // Two different data types and/or invalid data types present. Throw Exception and exit.
 						throw new SyntaxErrorException("Error: invalid addition. Operands' data type must both be integers, reals, "
 								+ "or strings, or one must be a string and the other must be a character.");
 					
 				case MINUS:
-					if (left instanceof IntegerDataType && right instanceof IntegerDataType)
+					if (integers)
 						return new IntegerDataType(((IntegerDataType) left).getValue() - ((IntegerDataType) right).getValue(), 0, 0, true);
-					else if (left instanceof RealDataType && right instanceof RealDataType)
+					else if (reals)
 						return new RealDataType(((RealDataType) left).getValue() - ((RealDataType) right).getValue(), 0, 0, true);
 					else  // data types don't match. Throw Exception and exit.
 						throw new SyntaxErrorException("Error: invalid subtraction. Operands' data type must match and integers or reals.");
 					
 				case TIMES:
-					if (left instanceof IntegerDataType && right instanceof IntegerDataType)
+					if (integers)
 						return new IntegerDataType(((IntegerDataType) left).getValue() * ((IntegerDataType) right).getValue(), 0, 0, true);
-					else if (left instanceof RealDataType && right instanceof RealDataType)
+					else if (reals)
 						return new RealDataType(((RealDataType) left).getValue() * ((RealDataType) right).getValue(), 0, 0, true);
 					else  // data types don't match. Throw Exception and exit.
 						throw new SyntaxErrorException("Error: invalid multiplication. Operands' data type must match and integers or reals.");
 					
 				case DIVIDE:
-					if (left instanceof IntegerDataType && right instanceof IntegerDataType)
+					if (integers)
 						return new IntegerDataType(((IntegerDataType) left).getValue() / ((IntegerDataType) right).getValue(), 0, 0, true);
-					else if (left instanceof RealDataType && right instanceof RealDataType)
+					else if (reals)
 						return new RealDataType(((RealDataType) left).getValue() / ((RealDataType) right).getValue(), 0, 0, true);
 					else  // data types don't match. Throw Exception and exit.
 						throw new SyntaxErrorException("Error: invalid division. Operands' data type must match and integers or reals.");
 					
 				case MOD:
-					if (left instanceof IntegerDataType && right instanceof IntegerDataType)
+					if (integers)
 						return new IntegerDataType(((IntegerDataType) left).getValue() % ((IntegerDataType) right).getValue(), 0, 0, true);
-					else if (left instanceof RealDataType && right instanceof RealDataType)
+					else if (reals)
 						return new RealDataType(((RealDataType) left).getValue() % ((RealDataType) right).getValue(), 0, 0, true);
 					else  // data types don't match. Throw Exception and exit.
 						throw new SyntaxErrorException("Error: invalid modular expression. Operands' data type must match and integers or reals.");
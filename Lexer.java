@@ -69,6 +69,21 @@ public class Lexer {
 		keywords.put("integerToReal", Token.tokenType.INTEGERTOREAL);
 		keywords.put("realToInteger", Token.tokenType.REALTOINTEGER);
 		keywords.put("start", Token.tokenType.START);
+		keywords.put("mapFile", Token.tokenType.MAPFILE);
+		keywords.put("arrayFill", Token.tokenType.ARRAYFILL);
+		keywords.put("arrayCopy", Token.tokenType.ARRAYCOPY);
+		keywords.put("arraySort", Token.tokenType.ARRAYSORT);
+		keywords.put("binarySearch", Token.tokenType.BINARYSEARCH);
+		keywords.put("parallelSum", Token.tokenType.PARALLELSUM);
+		keywords.put("parallelMin", Token.tokenType.PARALLELMIN);
+		keywords.put("parallelMax", Token.tokenType.PARALLELMAX);
+		keywords.put("parallelSort", Token.tokenType.PARALLELSORT);
+		keywords.put("parallelPrefixSum", Token.tokenType.PARALLELPREFIXSUM);
+		keywords.put("append", Token.tokenType.APPEND);
+		keywords.put("resize", Token.tokenType.RESIZE);
+		keywords.put("shrinkToFit", Token.tokenType.SHRINKTOFIT);
+		keywords.put("readBinary", Token.tokenType.READBINARY);
+		keywords.put("writeBinary", Token.tokenType.WRITEBINARY);
 		keywords.put("true", Token.tokenType.TRUE);
 		keywords.put("false", Token.tokenType.FALSE);
 	}
@@ -0,0 +1,668 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+/**
+ * A class representing a counted for loop that matches a common array idiom, so the Interpreter can run the whole loop
+ * at once with plain Java loops over the arrays' elements, instead of interpreting its block once per pass. Loops over
+ * the primitive arrays of an ArrayDataType are simple enough for the JIT compiler to use SIMD instructions. With i as
+ * the control variable (each index may also add or subtract a constant), the idioms are:
+ *
+ *   a[i] := b[i]							(COPY)
+ *   a[i] := x								(FILL)
+ *   a[i] := b[i] op c[i], b[i] op x or x op b[i]	(MAP, where op is +, -, * or /)
+ *   s := s + a[i] or s := a[i] + s			(SUM)
+ *   if a[i] < m then m := a[i]				(COMPARE, using <, <=, > or >=, on either side)
+ *
+ * where x is a constant or a variable other than the control variable. Only INTEGER and REAL arrays are handled. A
+ * LoopKernel is only run once every array index of the loop is known to be within bounds, and it is skipped (so the
+ * loop is interpreted instead) when the arrays and variables do not all hold the same data type. The elements are
+ * visited in the same order as the interpreted loop, so the results always match. An array stored outside the Java
+ * heap is read and written one element at a time through the ArrayDataType accessors instead.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class LoopKernel {
+
+	enum Kind { COPY, FILL, MAP, SUM, COMPARE }	 // enum for the possible idioms.
+	private Kind kind;							 // The idiom the loop matches.
+	private VariableReferenceNode target;		 // The array element (for SUM and COMPARE, the variable) written by the loop.
+	private Node left;							 // The array element or value read (for MAP, the left operand).
+	private Node right;							 // The right operand of MAP, or null.
+	private MathOpNode.Operation operation;		 // The operation of MAP, or null.
+	private BooleanCompareNode.Comparison comparison;  // The comparison of COMPARE (with the element on the left), or null.
+
+	/**
+	 * Constructor for the LoopKernel class. LoopKernels are created by recognize().
+	 *
+	 * @param kind		  The Kind to store in the kind field.
+	 * @param target	  The VariableReferenceNode to store in the target field.
+	 * @param left		  The Node to store in the left field.
+	 * @param right		  The Node to store in the right field, or null.
+	 * @param operation	  The Operation to store in the operation field, or null.
+	 * @param comparison  The Comparison to store in the comparison field, or null.
+	 */
+	private LoopKernel(Kind kind, VariableReferenceNode target, Node left, Node right, MathOpNode.Operation operation,
+			BooleanCompareNode.Comparison comparison) {
+		this.kind = kind;
+		this.target = target;
+		this.left = left;
+		this.right = right;
+		this.operation = operation;
+		this.comparison = comparison;
+	}
+
+	/**
+	 * Checks whether a counted for loop matches one of the idioms. Every array element in the loop must be one of its
+	 * range references, so the Interpreter can check all of their indexes before running the LoopKernel.
+	 *
+	 * @param loop  The counted ForNode to check, whose range references are already marked.
+	 * @return  A LoopKernel for the loop, or null if the loop does not match any idiom.
+	 */
+	public static LoopKernel recognize(ForNode loop) {
+		ArrayList<StatementNode> statements = loop.getStatements();
+		if (!loop.isCounted() || loop.getRangeReferences() == null || statements == null || statements.size() != 1)
+			return null;
+
+		if (statements.get(0) instanceof AssignmentNode) {
+			VariableReferenceNode assigned = ((AssignmentNode) statements.get(0)).getTarget();
+			Node value = ((AssignmentNode) statements.get(0)).getValue();
+			if (isElement(loop, assigned)) {
+				if (isElement(loop, value))
+					return new LoopKernel(Kind.COPY, assigned, value, null, null, null);
+				if (isValue(loop, value))
+					return new LoopKernel(Kind.FILL, assigned, value, null, null, null);
+				if (value instanceof MathOpNode && ((MathOpNode) value).getOperation() != MathOpNode.Operation.MOD) {
+					Node operandLeft = ((MathOpNode) value).getLeft();
+					Node operandRight = ((MathOpNode) value).getRight();
+					if ((isElement(loop, operandLeft) && (isElement(loop, operandRight) || isValue(loop, operandRight))) ||
+							(isValue(loop, operandLeft) && isElement(loop, operandRight)))
+						return new LoopKernel(Kind.MAP, assigned, operandLeft, operandRight, ((MathOpNode) value).getOperation(), null);
+				}
+			}
+			// A sum adds each element to a variable, on either side of the +.
+			else if (isValue(loop, assigned) && value instanceof MathOpNode && ((MathOpNode) value).getOperation() == MathOpNode.Operation.PLUS) {
+				Node operandLeft = ((MathOpNode) value).getLeft();
+				Node operandRight = ((MathOpNode) value).getRight();
+				if (isVariable(operandLeft, assigned) && isElement(loop, operandRight))
+					return new LoopKernel(Kind.SUM, assigned, operandRight, null, null, null);
+				if (isElement(loop, operandLeft) && isVariable(operandRight, assigned))
+					return new LoopKernel(Kind.SUM, assigned, operandLeft, null, null, null);
+			}
+		}
+		else if (statements.get(0) instanceof IfNode) {
+			// A minimum or maximum has a single if block (without elsif or else), which assigns the compared element.
+			IfNode ifNode = (IfNode) statements.get(0);
+			if (ifNode.getNext() != null || ifNode.getCondition() == null || ifNode.getStatements() == null ||
+					ifNode.getStatements().size() != 1 || !(ifNode.getStatements().get(0) instanceof AssignmentNode))
+				return null;
+			VariableReferenceNode assigned = ((AssignmentNode) ifNode.getStatements().get(0)).getTarget();
+			Node value = ((AssignmentNode) ifNode.getStatements().get(0)).getValue();
+			BooleanCompareNode condition = ifNode.getCondition();
+			if (!isValue(loop, assigned) || !isElement(loop, value))
+				return null;
+			switch (condition.getComparison()) {
+				case LESSTHAN:
+				case LESSEQUAL:
+				case GREATERTHAN:
+				case GREATEQUAL:
+					if (sameElement(condition.getLeft(), value) && isVariable(condition.getRight(), assigned))
+						return new LoopKernel(Kind.COMPARE, assigned, value, null, null, condition.getComparison());
+					if (isVariable(condition.getLeft(), assigned) && sameElement(condition.getRight(), value))
+						return new LoopKernel(Kind.COMPARE, assigned, value, null, null, reverse(condition.getComparison()));
+					break;
+
+				default:
+					break;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether a Node is an array element whose index is checked before the loop runs.
+	 *
+	 * @param loop  The ForNode being recognized.
+	 * @param node  The Node to check.
+	 * @return  true if the Node is one of the loop's range references, and false otherwise.
+	 */
+	private static boolean isElement(ForNode loop, Node node) {
+		return node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getRangeLoop() == loop;
+	}
+
+	/**
+	 * Checks whether a Node is a value that stays the same while the loop runs: an integer or real constant, or a
+	 * variable (without an index) other than the control variable.
+	 *
+	 * @param loop  The ForNode being recognized.
+	 * @param node  The Node to check.
+	 * @return  true if the Node is a constant or such a variable, and false otherwise.
+	 */
+	private static boolean isValue(ForNode loop, Node node) {
+		if (node instanceof IntegerNode || node instanceof RealNode)
+			return true;
+		return node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() == null &&
+				!((VariableReferenceNode) node).getName().equals(loop.getControl().getName());
+	}
+
+	/**
+	 * Checks whether a Node references the same variable (without an index) as another reference.
+	 *
+	 * @param node		The Node to check.
+	 * @param variable  The VariableReferenceNode of the variable.
+	 * @return  true if the Node references the variable, and false otherwise.
+	 */
+	private static boolean isVariable(Node node, VariableReferenceNode variable) {
+		return node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() == null &&
+				((VariableReferenceNode) node).getName().equals(variable.getName());
+	}
+
+	/**
+	 * Checks whether a Node references the same array element as a range reference, ie the same array with the same
+	 * constant added to the control variable.
+	 *
+	 * @param node	   The Node to check.
+	 * @param element  The range reference of the element.
+	 * @return  true if the Node references the same element, and false otherwise.
+	 */
+	private static boolean sameElement(Node node, Node element) {
+		return node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getRangeLoop() != null &&
+				((VariableReferenceNode) node).getRangeLoop() == ((VariableReferenceNode) element).getRangeLoop() &&
+				((VariableReferenceNode) node).getName().equals(((VariableReferenceNode) element).getName()) &&
+				((VariableReferenceNode) node).getIndexOffset() == ((VariableReferenceNode) element).getIndexOffset();
+	}
+
+	/**
+	 * Finds the comparison matching a comparison with its sides swapped.
+	 *
+	 * @param comparison  The Comparison to reverse.
+	 * @return  The Comparison giving the same result with the left and right sides swapped.
+	 */
+	private static BooleanCompareNode.Comparison reverse(BooleanCompareNode.Comparison comparison) {
+		switch (comparison) {
+			case LESSTHAN:
+				return BooleanCompareNode.Comparison.GREATERTHAN;
+
+			case LESSEQUAL:
+				return BooleanCompareNode.Comparison.GREATEQUAL;
+
+			case GREATERTHAN:
+				return BooleanCompareNode.Comparison.LESSTHAN;
+
+			case GREATEQUAL:
+				return BooleanCompareNode.Comparison.LESSEQUAL;
+
+			default:
+				return comparison;
+		}
+	}
+
+	/**
+	 * Runs the whole loop. Every index must already be known to be within bounds.
+	 *
+	 * @param locals  The HashMap of local constants/variables of the function running the loop.
+	 * @param first	  The control variable's value during the first pass through the block.
+	 * @param count	  The number of passes through the block, at least 1.
+	 * @return  true if the loop was run, or false if the data types do not match an idiom (the loop must then be interpreted).
+	 */
+	public boolean run(HashMap<String, InterpreterDataType> locals, int first, int count) {
+		ArrayDataType element = arrayOf(locals, (kind == Kind.SUM || kind == Kind.COMPARE) ? left : target);
+		if (element == null || (element.getType() != ArrayDataType.elementType.INTEGER && element.getType() != ArrayDataType.elementType.REAL))
+			return false;
+		boolean integers = element.getType() == ArrayDataType.elementType.INTEGER;
+		switch (kind) {
+			case COPY:
+				return runCopy(locals, first, count, integers);
+
+			case FILL:
+				return runFill(locals, first, count, integers);
+
+			case MAP:
+				return runMap(locals, first, count, integers);
+
+			case SUM:
+				return runSum(locals, first, count, integers);
+
+			case COMPARE:
+				return runCompare(locals, first, count, integers);
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the array of an array element, if it is an allocated ArrayDataType.
+	 *
+	 * @param locals  The HashMap of local constants/variables.
+	 * @param node	  The array element's Node, or a value's Node.
+	 * @return  The ArrayDataType, or null if the Node is not an array element.
+	 */
+	private static ArrayDataType arrayOf(HashMap<String, InterpreterDataType> locals, Node node) {
+		if (!(node instanceof VariableReferenceNode) || ((VariableReferenceNode) node).getArrayIndexExpression() == null)
+			return null;
+		InterpreterDataType variable = locals.get(((VariableReferenceNode) node).getName());
+		if (!(variable instanceof ArrayDataType) || ((ArrayDataType) variable).getLength() < 0)
+			return null;
+		return (ArrayDataType) variable;
+	}
+
+	/**
+	 * Finds the position (from 0) of an array element during the first pass through the block.
+	 *
+	 * @param array  The ArrayDataType holding the element.
+	 * @param node	 The array element's Node, which is a range reference.
+	 * @param first	 The control variable's value during the first pass.
+	 * @return  The position of the element in the array's storage.
+	 */
+	private static int startOf(ArrayDataType array, Node node, int first) {
+		return first + ((VariableReferenceNode) node).getIndexOffset() - array.getFrom();
+	}
+
+	/**
+	 * Checks whether an array element or value holds the same data type as the loop's arrays.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param node		The Node of the array element or value.
+	 * @param integers  Whether the loop's arrays hold integers (otherwise reals).
+	 * @return  true if the data types match, and false otherwise.
+	 */
+	private static boolean matches(HashMap<String, InterpreterDataType> locals, Node node, boolean integers) {
+		if (node instanceof IntegerNode)
+			return integers;
+		if (node instanceof RealNode)
+			return !integers;
+		ArrayDataType array = arrayOf(locals, node);
+		if (array != null)
+			return array.getType() == (integers ? ArrayDataType.elementType.INTEGER : ArrayDataType.elementType.REAL);
+		InterpreterDataType variable = locals.get(((VariableReferenceNode) node).getName());
+		return integers ? variable instanceof IntegerDataType : variable instanceof RealDataType;
+	}
+
+	/**
+	 * Finds the int held by an integer value.
+	 *
+	 * @param locals  The HashMap of local constants/variables.
+	 * @param node	  The Node of the value, which must hold an integer.
+	 * @return  The int held by the constant or variable.
+	 */
+	private static int integerOf(HashMap<String, InterpreterDataType> locals, Node node) {
+		if (node instanceof IntegerNode)
+			return ((IntegerNode) node).getNum();
+		return ((IntegerDataType) locals.get(((VariableReferenceNode) node).getName())).getValue();
+	}
+
+	/**
+	 * Finds the float held by a real value.
+	 *
+	 * @param locals  The HashMap of local constants/variables.
+	 * @param node	  The Node of the value, which must hold a real.
+	 * @return  The float held by the constant or variable.
+	 */
+	private static float realOf(HashMap<String, InterpreterDataType> locals, Node node) {
+		if (node instanceof RealNode)
+			return ((RealNode) node).getNum();
+		return ((RealDataType) locals.get(((VariableReferenceNode) node).getName())).getValue();
+	}
+
+	/**
+	 * Runs a COPY loop. System.arraycopy() is used unless the copy reads elements the loop has already written.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param first		The control variable's value during the first pass.
+	 * @param count		The number of passes.
+	 * @param integers  Whether the arrays hold integers (otherwise reals).
+	 * @return  true if the loop was run, and false otherwise.
+	 */
+	private boolean runCopy(HashMap<String, InterpreterDataType> locals, int first, int count, boolean integers) {
+		if (!matches(locals, left, integers))
+			return false;
+		ArrayDataType to = arrayOf(locals, target);
+		ArrayDataType from = arrayOf(locals, left);
+		int t = startOf(to, target, first);
+		int f = startOf(from, left, first);
+		to.unshare();
+		if (to.isOffHeap() || from.isOffHeap()) {
+			for (int k = 0; k < count; k++) {
+				if (integers)
+					to.setInteger(t + k, from.getInteger(f + k));
+				else
+					to.setReal(t + k, from.getReal(f + k));
+			}
+			return true;
+		}
+		Object toElements = integers ? to.getIntegers() : to.getReals();
+		Object fromElements = integers ? from.getIntegers() : from.getReals();
+		// Copying forward within the same elements repeats the elements already written, which System.arraycopy() does not.
+		if (toElements != fromElements || t <= f)
+			System.arraycopy(fromElements, f, toElements, t, count);
+		else if (integers) {
+			int[] elements = to.getIntegers();
+			for (int k = 0; k < count; k++)
+				elements[t + k] = elements[f + k];
+		}
+		else {
+			float[] elements = to.getReals();
+			for (int k = 0; k < count; k++)
+				elements[t + k] = elements[f + k];
+		}
+		return true;
+	}
+
+	/**
+	 * Runs a FILL loop.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param first		The control variable's value during the first pass.
+	 * @param count		The number of passes.
+	 * @param integers  Whether the array holds integers (otherwise reals).
+	 * @return  true if the loop was run, and false otherwise.
+	 */
+	private boolean runFill(HashMap<String, InterpreterDataType> locals, int first, int count, boolean integers) {
+		if (!matches(locals, left, integers))
+			return false;
+		ArrayDataType to = arrayOf(locals, target);
+		int t = startOf(to, target, first);
+		to.unshare();
+		if (to.isOffHeap()) {
+			for (int k = 0; k < count; k++) {
+				if (integers)
+					to.setInteger(t + k, integerOf(locals, left));
+				else
+					to.setReal(t + k, realOf(locals, left));
+			}
+		}
+		else if (integers)
+			java.util.Arrays.fill(to.getIntegers(), t, t + count, integerOf(locals, left));
+		else
+			java.util.Arrays.fill(to.getReals(), t, t + count, realOf(locals, left));
+		return true;
+	}
+
+	/**
+	 * Runs a MAP loop. Each operand is either an array element or a value.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param first		The control variable's value during the first pass.
+	 * @param count		The number of passes.
+	 * @param integers  Whether the arrays hold integers (otherwise reals).
+	 * @return  true if the loop was run, and false otherwise.
+	 */
+	private boolean runMap(HashMap<String, InterpreterDataType> locals, int first, int count, boolean integers) {
+		if (!matches(locals, left, integers) || !matches(locals, right, integers))
+			return false;
+		ArrayDataType to = arrayOf(locals, target);
+		ArrayDataType leftArray = arrayOf(locals, left);
+		ArrayDataType rightArray = arrayOf(locals, right);
+		int t = startOf(to, target, first);
+		int l = (leftArray != null) ? startOf(leftArray, left, first) : 0;
+		int r = (rightArray != null) ? startOf(rightArray, right, first) : 0;
+		boolean offHeap = to.isOffHeap() || (leftArray != null && leftArray.isOffHeap()) || (rightArray != null && rightArray.isOffHeap());
+		to.unshare();
+		if (integers) {
+			int lv = (leftArray != null) ? 0 : integerOf(locals, left);
+			int rv = (rightArray != null) ? 0 : integerOf(locals, right);
+			if (offHeap) {
+				for (int k = 0; k < count; k++)
+					to.setInteger(t + k, applyInteger(leftArray != null ? leftArray.getInteger(l + k) : lv, rightArray != null ? rightArray.getInteger(r + k) : rv));
+			}
+			else
+				mapIntegers(to.getIntegers(), t, leftArray != null ? leftArray.getIntegers() : null, l, lv, 
+						rightArray != null ? rightArray.getIntegers() : null, r, rv, count);
+		}
+		else {
+			float lv = (leftArray != null) ? 0 : realOf(locals, left);
+			float rv = (rightArray != null) ? 0 : realOf(locals, right);
+			if (offHeap) {
+				for (int k = 0; k < count; k++)
+					to.setReal(t + k, applyReal(leftArray != null ? leftArray.getReal(l + k) : lv, rightArray != null ? rightArray.getReal(r + k) : rv));
+			}
+			else
+				mapReals(to.getReals(), t, leftArray != null ? leftArray.getReals() : null, l, lv, rightArray != null ? rightArray.getReals() : null, r, rv, count);
+		}
+		return true;
+	}
+
+	/**
+	 * Applies the MAP operation to two ints, as the Interpreter does.
+	 *
+	 * @param a  The left operand.
+	 * @param b  The right operand.
+	 * @return  The result of the operation.
+	 */
+	private int applyInteger(int a, int b) {
+		switch (operation) {
+			case PLUS:
+				return a + b;
+
+			case MINUS:
+				return a - b;
+
+			case TIMES:
+				return a * b;
+
+			default:
+				return a / b;
+		}
+	}
+
+	/**
+	 * Applies the MAP operation to two floats, as the Interpreter does.
+	 *
+	 * @param a  The left operand.
+	 * @param b  The right operand.
+	 * @return  The result of the operation.
+	 */
+	private float applyReal(float a, float b) {
+		switch (operation) {
+			case PLUS:
+				return a + b;
+
+			case MINUS:
+				return a - b;
+
+			case TIMES:
+				return a * b;
+
+			default:
+				return a / b;
+		}
+	}
+
+	/**
+	 * Runs a MAP loop over int arrays. Each operand is an array (with its start) or, when its array is null, a value.
+	 *
+	 * @param to	  The array written.
+	 * @param t		  The position written during the first pass.
+	 * @param a		  The left operand's array, or null.
+	 * @param ai	  The position of the left operand during the first pass.
+	 * @param av	  The left operand's value, if its array is null.
+	 * @param b		  The right operand's array, or null.
+	 * @param bi	  The position of the right operand during the first pass.
+	 * @param bv	  The right operand's value, if its array is null.
+	 * @param count	  The number of passes.
+	 */
+	private void mapIntegers(int[] to, int t, int[] a, int ai, int av, int[] b, int bi, int bv, int count) {
+		switch (operation) {
+			case PLUS:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] + b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] + bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av + b[bi + k];
+				break;
+
+			case MINUS:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] - b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] - bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av - b[bi + k];
+				break;
+
+			case TIMES:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] * b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] * bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av * b[bi + k];
+				break;
+
+			default:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] / b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] / bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av / b[bi + k];
+				break;
+		}
+	}
+
+	/**
+	 * Runs a MAP loop over float arrays. Each operand is an array (with its start) or, when its array is null, a value.
+	 *
+	 * @param to	  The array written.
+	 * @param t		  The position written during the first pass.
+	 * @param a		  The left operand's array, or null.
+	 * @param ai	  The position of the left operand during the first pass.
+	 * @param av	  The left operand's value, if its array is null.
+	 * @param b		  The right operand's array, or null.
+	 * @param bi	  The position of the right operand during the first pass.
+	 * @param bv	  The right operand's value, if its array is null.
+	 * @param count	  The number of passes.
+	 */
+	private void mapReals(float[] to, int t, float[] a, int ai, float av, float[] b, int bi, float bv, int count) {
+		switch (operation) {
+			case PLUS:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] + b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] + bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av + b[bi + k];
+				break;
+
+			case MINUS:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] - b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] - bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av - b[bi + k];
+				break;
+
+			case TIMES:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] * b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] * bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av * b[bi + k];
+				break;
+
+			default:
+				if (a != null && b != null) for (int k = 0; k < count; k++) to[t + k] = a[ai + k] / b[bi + k];
+				else if (a != null)			for (int k = 0; k < count; k++) to[t + k] = a[ai + k] / bv;
+				else						for (int k = 0; k < count; k++) to[t + k] = av / b[bi + k];
+				break;
+		}
+	}
+
+	/**
+	 * Runs a SUM loop, adding the elements in order.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param first		The control variable's value during the first pass.
+	 * @param count		The number of passes.
+	 * @param integers  Whether the array holds integers (otherwise reals).
+	 * @return  true if the loop was run, and false otherwise.
+	 */
+	private boolean runSum(HashMap<String, InterpreterDataType> locals, int first, int count, boolean integers) {
+		if (!matches(locals, target, integers))
+			return false;
+		ArrayDataType from = arrayOf(locals, left);
+		int f = startOf(from, left, first);
+		if (integers) {
+			int sum = integerOf(locals, target);
+			if (from.isOffHeap())
+				for (int k = 0; k < count; k++) sum += from.getInteger(f + k);
+			else {
+				int[] elements = from.getIntegers();
+				for (int k = 0; k < count; k++) sum += elements[f + k];
+			}
+			((IntegerDataType) locals.get(target.getName())).setValue(sum);
+		}
+		else {
+			float sum = realOf(locals, target);
+			if (from.isOffHeap())
+				for (int k = 0; k < count; k++) sum += from.getReal(f + k);
+			else {
+				float[] elements = from.getReals();
+				for (int k = 0; k < count; k++) sum += elements[f + k];
+			}
+			((RealDataType) locals.get(target.getName())).setValue(sum);
+		}
+		return true;
+	}
+
+	/**
+	 * Runs a COMPARE loop, replacing the variable with each element the comparison holds for.
+	 *
+	 * @param locals	The HashMap of local constants/variables.
+	 * @param first		The control variable's value during the first pass.
+	 * @param count		The number of passes.
+	 * @param integers  Whether the array holds integers (otherwise reals).
+	 * @return  true if the loop was run, and false otherwise.
+	 */
+	private boolean runCompare(HashMap<String, InterpreterDataType> locals, int first, int count, boolean integers) {
+		if (!matches(locals, target, integers))
+			return false;
+		ArrayDataType from = arrayOf(locals, left);
+		int f = startOf(from, left, first);
+		if (integers) {
+			int best = integerOf(locals, target);
+			for (int k = 0; k < count; k++) {
+				int element = from.getInteger(f + k);
+				if (compareIntegers(element, best))
+					best = element;
+			}
+			((IntegerDataType) locals.get(target.getName())).setValue(best);
+		}
+		else {
+			float best = realOf(locals, target);
+			for (int k = 0; k < count; k++) {
+				float element = from.getReal(f + k);
+				if (compareReals(element, best))
+					best = element;
+			}
+			((RealDataType) locals.get(target.getName())).setValue(best);
+		}
+		return true;
+	}
+
+	/**
+	 * Applies the COMPARE comparison to two ints.
+	 *
+	 * @param element  The array element.
+	 * @param best	   The variable's current value.
+	 * @return  The result of the comparison.
+	 */
+	private boolean compareIntegers(int element, int best) {
+		switch (comparison) {
+			case LESSTHAN:
+				return element < best;
+
+			case LESSEQUAL:
+				return element <= best;
+
+			case GREATERTHAN:
+				return element > best;
+
+			default:
+				return element >= best;
+		}
+	}
+
+	/**
+	 * Applies the COMPARE comparison to two floats.
+	 *
+	 * @param element  The array element.
+	 * @param best	   The variable's current value.
+	 * @return  The result of the comparison.
+	 */
+	private boolean compareReals(float element, float best) {
+		switch (comparison) {
+			case LESSTHAN:
+				return element < best;
+
+			case LESSEQUAL:
+				return element <= best;
+
+			case GREATERTHAN:
+				return element > best;
+
+			default:
+				return element >= best;
+		}
+	}
+}
@@ -1,10 +1,50 @@
 /**
  * Abstract class which all tree nodes will extend. Declares a toString()
- * which all descendants must implement.
+ * which all descendants must implement. Also holds the data type of the
+ * Node, once it has been found by the TypeChecker.
  * 
  * @author Tara Pedigo
  */
 public abstract class Node {
+	
+	private VariableNode.Type dataType;  // The data type of the expression, or null if it has not been checked.
+	private boolean arrayType;			 // Flag for an expression that is a whole array.
+
+	/**
+	 * Accessor for the dataType field.
+	 * 
+	 * @return  The VariableNode.Type stored in the dataType field.
+	 */
+	public VariableNode.Type getDataType() {
+		return dataType;
+	}
+	
+	/**
+	 * Mutator for the dataType field.
+	 * 
+	 * @param dataType  The VariableNode.Type to store in the dataType field.
+	 */
+	public void setDataType(VariableNode.Type dataType) {
+		this.dataType = dataType;
+	}
+	
+	/**
+	 * Accessor for the arrayType field.
+	 * 
+	 * @return  The boolean stored in the arrayType field.
+	 */
+	public boolean isArrayType() {
+		return arrayType;
+	}
+	
+	/**
+	 * Mutator for the arrayType field.
+	 * 
+	 * @param arrayType  The boolean to store in the arrayType field.
+	 */
+	public void setArrayType(boolean arrayType) {
+		this.arrayType = arrayType;
+	}
 
 	/**
 	 * A method which will override the default toString() method. Each Node 
@@ -0,0 +1,1389 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+/**
+ * A class representing the optimization component of a compiler, run between the Semantic Analysis and the
+ * Interpreter. The Optimizer rewrites the statements of each user-defined function into an equivalent but cheaper
+ * form, so less work is done each time the statements are interpreted.
+ *
+ * Constant folding replaces math expressions whose operands are all literals with a single literal, replaces
+ * references to constants with the constant's value, and removes if blocks and loops whose conditions can never
+ * be true.
+ *
+ * Loop-invariant code motion moves math expressions whose operands are never written within a loop out of the loop.
+ * Each such expression is calculated once into a new temporary variable before the loop, and the loop reads the
+ * temporary variable instead.
+ *
+ * Dead code elimination removes assignments to local variables that are never read, for loops that can never run,
+ * and then any local constant/variable that is no longer used at all, so the Interpreter has fewer to set up per call.
+ *
+ * Inlining replaces a call to a small, non-recursive function with the function's statements. A var parameter 
+ * becomes the caller's variable itself, while any other parameter or local variable of the function becomes a new 
+ * temporary variable of the caller.
+ *
+ * Common subexpression elimination finds a math expression or array element that is calculated more than once within
+ * a run of assignments and function calls, with none of its variables changed in between. It is calculated once into
+ * a new temporary variable, and each use reads the temporary variable instead.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class Optimizer {
+
+	ProgramNode program;		  // the program to optimize.
+	private UsageAnalysis usage;  // used to find which variables are written by statements.
+	private TypeChecker checker;  // used to find the data types of the optimized statements.
+	private int temporaryCount;	  // the number of temporary variables created so far, used to name new ones.
+	private boolean inline;		  // whether calls to small functions are replaced by the function's statements.
+
+	// The largest size (counted in Nodes) a function's statements may have for calls to it to be inlined.
+	private static final int INLINE_LIMIT = 40;
+
+	/**
+	 * Constructor for the Optimizer class.
+	 *
+	 * @param program  The ProgramNode to store in the program field.
+	 */
+	public Optimizer(ProgramNode program) {
+		this.program = program;
+		usage = new UsageAnalysis(program.getFunctions());
+		checker = new TypeChecker(program);
+		temporaryCount = 0;
+		inline = true;
+		if (program.getCallGraph() == null)
+			program.setCallGraph(new CallGraph(program));
+		usage.setCallGraph(program.getCallGraph());
+	}
+
+	/**
+	 * Mutator for the inline field.
+	 *
+	 * @param inline  The boolean to store in the inline field.
+	 */
+	public void setInline(boolean inline) {
+		this.inline = inline;
+	}
+
+	/**
+	 * This method runs each optimization on a single user-defined function.
+	 *
+	 * @param function  The FunctionNode to optimize.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found in the optimized statements.
+	 */
+	public void optimizeFunction(FunctionNode function) throws SyntaxErrorException {
+		foldConstants(function);
+		if (inline)
+			inlineCalls(function);
+		removeDeadCode(function);
+		hoistInvariants(function);
+		eliminateCommonExpressions(function);
+		// Find the data types of the new statements, so the Interpreter can use them.
+		checker.checkFunction(function);
+	}
+
+	/**
+	 * Folds the constant expressions in a function body. A constant can only be replaced by its value if it is never
+	 * passed as a var argument or used as a for loop control variable, since the Interpreter would change its value.
+	 *
+	 * @param function  The FunctionNode whose statements to fold.
+	 */
+	private void foldConstants(FunctionNode function) {
+		if (function.getStatements() == null)
+			return;
+		HashSet<String> writes = new HashSet<String>();
+		usage.collectWrites(function.getStatements(), writes);
+
+		// Find the value of each constant that can be replaced.
+		HashMap<String, Node> constants = new HashMap<String, Node>();
+		for (VariableNode variable : function.getConstAndVars())
+			if (!variable.isChangeable() && !writes.contains(variable.getName()))
+				constants.put(variable.getName(), variable.getValue());
+
+		function.setStatements(foldBlock(function.getStatements(), constants));
+	}
+
+	/**
+	 * Folds the constant expressions within a block of statements, including any inner blocks.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to fold.
+	 * @param constants   The HashMap of constant names and the literal Node holding each constant's value.
+	 * @return  A new ArrayList holding the folded statements.
+	 */
+	private ArrayList<StatementNode> foldBlock(ArrayList<StatementNode> statements, HashMap<String, Node> constants) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> folded = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				Node value;
+				// A boolean compare expression whose result is known is replaced by a BooleanNode.
+				if (assignment.getValue() instanceof BooleanCompareNode) {
+					BooleanCompareNode condition = foldCompare((BooleanCompareNode) assignment.getValue(), constants);
+					Boolean result = compareValue(condition);
+					value = (result == null) ? condition : new BooleanNode(result);
+				}
+				else
+					value = foldExpression(assignment.getValue(), constants);
+				folded.add(new AssignmentNode(foldReference(assignment.getTarget(), constants), value));
+			}
+			else if (statement instanceof FunctionCallNode) {
+				// Fold each argument. A var argument must stay a variable reference, so only its index can be folded.
+				ArrayList<ParameterNode> parameters = new ArrayList<ParameterNode>();
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters()) {
+					if (parameter.isVar())
+						parameters.add(new ParameterNode(foldReference((VariableReferenceNode) parameter.getParameter(), constants), null));
+					else
+						parameters.add(new ParameterNode(null, foldExpression(parameter.getParameter(), constants)));
+				}
+				folded.add(new FunctionCallNode(((FunctionCallNode) statement).getName(), parameters));
+			}
+			else if (statement instanceof IfNode)
+				foldIf((IfNode) statement, constants, folded);
+
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				folded.add(new ForNode(forNode.getControl(), foldExpression(forNode.getFrom(), constants),
+						foldExpression(forNode.getTo(), constants), foldBlock(forNode.getStatements(), constants)));
+			}
+			else if (statement instanceof WhileNode) {
+				// A while loop whose condition is always false never runs, so it is removed.
+				BooleanCompareNode condition = foldCompare(((WhileNode) statement).getCondition(), constants);
+				if (!Boolean.FALSE.equals(compareValue(condition)))
+					folded.add(new WhileNode(condition, foldBlock(((WhileNode) statement).getStatements(), constants)));
+			}
+			else if (statement instanceof RepeatNode) {
+				// A repeat loop also checks its condition first, so it is removed when the condition is always false.
+				BooleanCompareNode condition = foldCompare(((RepeatNode) statement).getCondition(), constants);
+				if (!Boolean.FALSE.equals(compareValue(condition)))
+					folded.add(new RepeatNode(condition, foldBlock(((RepeatNode) statement).getStatements(), constants)));
+			}
+		}
+		return folded;
+	}
+
+	/**
+	 * Folds an if statement. Any if block whose condition is always false is removed, and an if block whose condition
+	 * is always true becomes the else block (all later blocks can never run). If the first remaining block always
+	 * runs, its statements replace the whole if statement.
+	 *
+	 * @param statement  The IfNode to fold.
+	 * @param constants  The HashMap of constant names and the literal Node holding each constant's value.
+	 * @param folded	 The ArrayList of folded statements to add the result to.
+	 */
+	private void foldIf(IfNode statement, HashMap<String, Node> constants, ArrayList<StatementNode> folded) {
+		ArrayList<BooleanCompareNode> conditions = new ArrayList<BooleanCompareNode>();  // the remaining conditions.
+		ArrayList<ArrayList<StatementNode>> blocks = new ArrayList<ArrayList<StatementNode>>();  // the remaining blocks.
+
+		for (IfNode ifBlock = statement; ifBlock != null; ifBlock = ifBlock.getNext()) {
+			BooleanCompareNode condition = null;
+			Boolean result = Boolean.TRUE;  // an else block always runs.
+			if (ifBlock.getCondition() != null) {
+				condition = foldCompare(ifBlock.getCondition(), constants);
+				result = compareValue(condition);
+			}
+			if (Boolean.FALSE.equals(result))
+				continue;
+			conditions.add(Boolean.TRUE.equals(result) ? null : condition);
+			blocks.add(foldBlock(ifBlock.getStatements(), constants));
+			if (Boolean.TRUE.equals(result))
+				break;
+		}
+		if (conditions.isEmpty())
+			return;
+
+		// The first remaining block always runs, so add its statements in place of the if statement.
+		if (conditions.get(0) == null) {
+			if (blocks.get(0) != null)
+				folded.addAll(blocks.get(0));
+			return;
+		}
+		// Re-link the remaining blocks, starting from the last one.
+		IfNode next = null;
+		for (int i = conditions.size() - 1; i >= 0; i--)
+			next = new IfNode(conditions.get(i), blocks.get(i), next);
+		folded.add(next);
+	}
+
+	/**
+	 * Folds an expression. References to constants are replaced by the constant's value, and math expressions whose
+	 * operands are both literals are replaced by a literal holding the result.
+	 *
+	 * @param node		 The Node to fold.
+	 * @param constants  The HashMap of constant names and the literal Node holding each constant's value.
+	 * @return  The folded Node.
+	 */
+	private Node foldExpression(Node node, HashMap<String, Node> constants) {
+		if (node instanceof VariableReferenceNode) {
+			VariableReferenceNode reference = (VariableReferenceNode) node;
+			if (reference.getArrayIndexExpression() == null && constants.containsKey(reference.getName()))
+				return constants.get(reference.getName());
+			return foldReference(reference, constants);
+		}
+		else if (node instanceof MathOpNode) {
+			Node left = foldExpression(((MathOpNode) node).getLeft(), constants);
+			Node right = foldExpression(((MathOpNode) node).getRight(), constants);
+			return foldMathOp(((MathOpNode) node).getOperation(), left, right);
+		}
+		else if (node instanceof BooleanCompareNode)
+			return foldCompare((BooleanCompareNode) node, constants);
+
+		return node;
+	}
+
+	/**
+	 * Folds the array index expression of a variable reference. The variable itself is never replaced, since the
+	 * reference may be the target of an assignment or a var argument.
+	 *
+	 * @param reference  The VariableReferenceNode to fold.
+	 * @param constants  The HashMap of constant names and the literal Node holding each constant's value.
+	 * @return  The folded VariableReferenceNode.
+	 */
+	private VariableReferenceNode foldReference(VariableReferenceNode reference, HashMap<String, Node> constants) {
+		if (reference.getArrayIndexExpression() == null)
+			return reference;
+		return new VariableReferenceNode(reference.getName(), foldExpression(reference.getArrayIndexExpression(), constants));
+	}
+
+	/**
+	 * Folds both sides of a boolean compare expression.
+	 *
+	 * @param node		 The BooleanCompareNode to fold.
+	 * @param constants  The HashMap of constant names and the literal Node holding each constant's value.
+	 * @return  A new BooleanCompareNode holding the folded left and right sides.
+	 */
+	private BooleanCompareNode foldCompare(BooleanCompareNode node, HashMap<String, Node> constants) {
+		return new BooleanCompareNode(foldExpression(node.getLeft(), constants), node.getComparison(),
+				foldExpression(node.getRight(), constants));
+	}
+
+	/**
+	 * Calculates the result of a math operation when both operands are integer literals or both are real literals,
+	 * exactly as the Interpreter would. Integer division or mod by zero is left for the Interpreter to report. String
+	 * operands are not folded, since the Interpreter compares strings by reference.
+	 *
+	 * @param op	 The operation to perform.
+	 * @param left	 The folded left side of the operation.
+	 * @param right  The folded right side of the operation.
+	 * @return  A literal Node holding the result, or a MathOpNode if the result is not known.
+	 */
+	private Node foldMathOp(MathOpNode.Operation op, Node left, Node right) {
+		if (left instanceof IntegerNode && right instanceof IntegerNode) {
+			int leftNum = ((IntegerNode) left).getNum();
+			int rightNum = ((IntegerNode) right).getNum();
+			switch (op) {
+				case PLUS:
+					return new IntegerNode(leftNum + rightNum);
+				case MINUS:
+					return new IntegerNode(leftNum - rightNum);
+				case TIMES:
+					return new IntegerNode(leftNum * rightNum);
+				case DIVIDE:
+					if (rightNum != 0)
+						return new IntegerNode(leftNum / rightNum);
+					break;
+				case MOD:
+					if (rightNum != 0)
+						return new IntegerNode(leftNum % rightNum);
+					break;
+			}
+		}
+		else if (left instanceof RealNode && right instanceof RealNode) {
+			float leftNum = ((RealNode) left).getNum();
+			float rightNum = ((RealNode) right).getNum();
+			switch (op) {
+				case PLUS:
+					return new RealNode(leftNum + rightNum);
+				case MINUS:
+					return new RealNode(leftNum - rightNum);
+				case TIMES:
+					return new RealNode(leftNum * rightNum);
+				case DIVIDE:
+					return new RealNode(leftNum / rightNum);
+				case MOD:
+					return new RealNode(leftNum % rightNum);
+			}
+		}
+		return new MathOpNode(op, left, right);
+	}
+
+	/**
+	 * Calculates the result of a boolean compare expression when both sides are literals of the same data type,
+	 * exactly as the Interpreter's evaluate() method would.
+	 *
+	 * @param node  The folded BooleanCompareNode.
+	 * @return  The result of the comparison, or null if the result is not known.
+	 */
+	private Boolean compareValue(BooleanCompareNode node) {
+		if (node.getLeft() instanceof IntegerNode && node.getRight() instanceof IntegerNode) 
+			return compare(node.getComparison(), Integer.compare(((IntegerNode) node.getLeft()).getNum(), ((IntegerNode) node.getRight()).getNum()));
+		
+		else if (node.getLeft() instanceof RealNode && node.getRight() instanceof RealNode) {
+			float left = ((RealNode) node.getLeft()).getNum();
+			float right = ((RealNode) node.getRight()).getNum();
+			// NaN is never equal to, less than, or greater than anything, so leave it for the Interpreter.
+			if (Float.isNaN(left) || Float.isNaN(right))
+				return null;
+			return compare(node.getComparison(), (left < right) ? -1 : ((left == right) ? 0 : 1));
+		}
+		else if (node.getLeft() instanceof CharacterNode && node.getRight() instanceof CharacterNode)
+			return compare(node.getComparison(), Character.compare(((CharacterNode) node.getLeft()).getChar(), ((CharacterNode) node.getRight()).getChar()));
+
+		else if (node.getLeft() instanceof BooleanNode && node.getRight() instanceof BooleanNode) {
+			boolean equal = ((BooleanNode) node.getLeft()).getBool() == ((BooleanNode) node.getRight()).getBool();
+			if (node.getComparison() == BooleanCompareNode.Comparison.EQUALS)
+				return equal;
+			if (node.getComparison() == BooleanCompareNode.Comparison.NOTEQUAL)
+				return !equal;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the result of a comparison operator, given the sign of the difference between the left and right sides.
+	 *
+	 * @param comparison  The comparison operator.
+	 * @param difference  A negative number if left is less than right, zero if equal, and a positive number otherwise.
+	 * @return  The result of the comparison.
+	 */
+	private Boolean compare(BooleanCompareNode.Comparison comparison, int difference) {
+		switch (comparison) {
+			case GREATERTHAN:
+				return difference > 0;
+			case LESSTHAN:
+				return difference < 0;
+			case GREATEQUAL:
+				return difference >= 0;
+			case LESSEQUAL:
+				return difference <= 0;
+			case EQUALS:
+				return difference == 0;
+			case NOTEQUAL:
+				return difference != 0;
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the dead code in a function body. Removing an assignment can leave another variable unread, so dead
+	 * statements are removed until the set of variables read stops changing. Then, any local constant/variable that
+	 * is never read or written is removed from the function.
+	 *
+	 * @param function  The FunctionNode whose dead code to remove.
+	 */
+	private void removeDeadCode(FunctionNode function) {
+		HashSet<String> reads = new HashSet<String>();
+		usage.collectReads(function.getStatements(), reads);
+		if (function.getStatements() != null) {
+			while (true) {
+				function.setStatements(removeDeadStatements(function.getStatements(), function, reads));
+				HashSet<String> remaining = new HashSet<String>();
+				usage.collectReads(function.getStatements(), remaining);
+				if (remaining.equals(reads))
+					break;
+				reads = remaining;
+			}
+		}
+		HashSet<String> used = new HashSet<String>(reads);
+		usage.collectWrites(function.getStatements(), used);
+		for (int i = function.getConstAndVars().size() - 1; i >= 0; i--)
+			if (!used.contains(function.getConstAndVars().get(i).getName()))
+				function.getConstAndVars().remove(i);
+	}
+
+	/**
+	 * Removes the dead statements within a block of statements, including any inner blocks. An assignment is dead if
+	 * its target is a local variable that is never read, and the assignment can never throw an Exception. A for loop 
+	 * is dead if it has an integer control variable and literal bounds that give no passes through the block.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param function	  The FunctionNode containing the statements.
+	 * @param reads		  The set of variable names read anywhere within the function.
+	 * @return  A new ArrayList holding the remaining statements.
+	 */
+	private ArrayList<StatementNode> removeDeadStatements(ArrayList<StatementNode> statements, FunctionNode function, HashSet<String> reads) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> remaining = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				String name = assignment.getTarget().getName();
+				VariableNode declaration = findDeclaration(function, name);
+				// The value must match the target's data type, or the Interpreter would throw an Exception.
+				boolean dead = !reads.contains(name) && declaration != null && function.getConstAndVars().contains(declaration) && 
+						assignment.getTarget().getArrayIndexExpression() == null && typeOf(assignment.getValue(), function) == declaration.getType() && 
+						isInvariant(assignment.getValue(), function, new HashSet<String>());
+				if (!dead)
+					remaining.add(statement);
+			}
+			else if (statement instanceof IfNode) {
+				// Rebuild the linked list of if blocks, starting from the last one.
+				ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					ifBlocks.add(ifBlock);
+				IfNode next = null;
+				for (int i = ifBlocks.size() - 1; i >= 0; i--)
+					next = new IfNode(ifBlocks.get(i).getCondition(), removeDeadStatements(ifBlocks.get(i).getStatements(), function, reads), next);
+				remaining.add(next);
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				VariableNode control = findDeclaration(function, forNode.getControl().getName());
+				if (control == null || control.getType() != VariableNode.Type.INTEGER || !(forNode.getFrom() instanceof IntegerNode) || 
+						!(forNode.getTo() instanceof IntegerNode) || ((IntegerNode) forNode.getFrom()).getNum() < ((IntegerNode) forNode.getTo()).getNum())
+					remaining.add(new ForNode(forNode.getControl(), forNode.getFrom(), forNode.getTo(), 
+							removeDeadStatements(forNode.getStatements(), function, reads)));
+			}
+			else if (statement instanceof WhileNode)
+				remaining.add(new WhileNode(((WhileNode) statement).getCondition(), removeDeadStatements(((WhileNode) statement).getStatements(), function, reads)));
+			
+			else if (statement instanceof RepeatNode)
+				remaining.add(new RepeatNode(((RepeatNode) statement).getCondition(), removeDeadStatements(((RepeatNode) statement).getStatements(), function, reads)));
+			
+			else
+				remaining.add(statement);
+		}
+		return remaining;
+	}
+
+	/**
+	 * Inlines each call to a small, non-recursive function within a function body. The statements added by inlining
+	 * are not searched again, so a call is only inlined one level deep.
+	 *
+	 * @param function  The FunctionNode whose calls to inline.
+	 */
+	private void inlineCalls(FunctionNode function) {
+		if (function.getStatements() != null)
+			function.setStatements(inlineBlock(function.getStatements(), function));
+	}
+
+	/**
+	 * Inlines each call to a small, non-recursive function within a block of statements, including any inner blocks.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param function	  The FunctionNode containing the statements.
+	 * @return  A new ArrayList holding the statements after inlining.
+	 */
+	private ArrayList<StatementNode> inlineBlock(ArrayList<StatementNode> statements, FunctionNode function) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> inlined = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			if (statement instanceof FunctionCallNode) {
+				FunctionNode callee = program.getFunctions().get(((FunctionCallNode) statement).getName());
+				if (canInline((FunctionCallNode) statement, callee, function))
+					inlineCall((FunctionCallNode) statement, callee, function, inlined);
+				else
+					inlined.add(statement);
+			}
+			else if (statement instanceof IfNode) {
+				// Rebuild the linked list of if blocks, starting from the last one.
+				ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					ifBlocks.add(ifBlock);
+				IfNode next = null;
+				for (int i = ifBlocks.size() - 1; i >= 0; i--)
+					next = new IfNode(ifBlocks.get(i).getCondition(), inlineBlock(ifBlocks.get(i).getStatements(), function), next);
+				inlined.add(next);
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				inlined.add(new ForNode(forNode.getControl(), forNode.getFrom(), forNode.getTo(), inlineBlock(forNode.getStatements(), function)));
+			}
+			else if (statement instanceof WhileNode)
+				inlined.add(new WhileNode(((WhileNode) statement).getCondition(), inlineBlock(((WhileNode) statement).getStatements(), function)));
+			
+			else if (statement instanceof RepeatNode)
+				inlined.add(new RepeatNode(((RepeatNode) statement).getCondition(), inlineBlock(((RepeatNode) statement).getStatements(), function)));
+			
+			else
+				inlined.add(statement);
+		}
+		return inlined;
+	}
+
+	/**
+	 * Evaluates whether a function call can be inlined. The called function must be a small, non-recursive,
+	 * user-defined function without arrays, and each argument must match its parameter's data type (otherwise the 
+	 * Interpreter would throw an Exception, so the call is left for it). A var parameter can only become the caller's 
+	 * variable if no other var parameter does too, and if neither function passes it on from its own var parameter, 
+	 * since the Interpreter does not update a var parameter's caller with changes made through such a call.
+	 *
+	 * @param call	   The FunctionCallNode to evaluate.
+	 * @param callee   The FunctionNode being called, or null if there is none.
+	 * @param caller   The FunctionNode containing the call.
+	 * @return  true if the call can be inlined, and false otherwise.
+	 */
+	private boolean canInline(FunctionCallNode call, FunctionNode callee, FunctionNode caller) {
+		if (callee == null || callee == caller || callee.isBuiltIn() || callee.isVariadic() || callee.getStatements() == null || 
+				callee.getParameters().size() != call.getParameters().size() || countNodes(callee.getStatements()) > INLINE_LIMIT || 
+				program.getCallGraph().isRecursive(callee))
+			return false;
+
+		// Every variable used by the function must be declared by it, and none can be an array.
+		HashSet<String> declared = new HashSet<String>();
+		for (VariableNode parameter : callee.getParameters()) {
+			if (parameter.isArray())
+				return false;
+			declared.add(parameter.getName());
+		}
+		for (VariableNode variable : callee.getConstAndVars()) {
+			if (variable.isArray())
+				return false;
+			declared.add(variable.getName());
+		}
+		HashSet<String> used = new HashSet<String>();
+		usage.collectReads(callee.getStatements(), used);
+		usage.collectWrites(callee.getStatements(), used);
+		if (!declared.containsAll(used))
+			return false;
+
+		HashSet<String> callWrites = new HashSet<String>();  // the variables the function passes on to be changed.
+		usage.collectCallWrites(callee.getStatements(), callWrites);
+		HashSet<String> aliases = new HashSet<String>();  // the caller's variables used as var parameters.
+		for (int i = 0; i < call.getParameters().size(); i++) {
+			ParameterNode argument = call.getParameters().get(i);
+			VariableNode parameter = callee.getParameters().get(i);
+			if (typeOf(argument.getParameter(), caller) != parameter.getType())
+				return false;
+			if (argument.isVar() && parameter.isChangeable()) {
+				VariableReferenceNode reference = (VariableReferenceNode) argument.getParameter();
+				if (reference.getArrayIndexExpression() != null || callWrites.contains(parameter.getName()) || !aliases.add(reference.getName()))
+					return false;
+				// The caller's own var parameter is updated by replacing it, which its caller never sees, so it cannot be changed directly.
+				VariableNode declaration = findDeclaration(caller, reference.getName());
+				if (declaration == null || (declaration.isChangeable() && !caller.getConstAndVars().contains(declaration)))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces a function call with the called function's statements. Each var parameter is renamed to the caller's
+	 * variable. Any other parameter is renamed to a new temporary variable assigned the argument's value, unless the 
+	 * function never changes it and the argument is a literal or an unchanged variable, which is then used directly. 
+	 * Each local constant/variable is also renamed to a temporary variable, re-assigned its initial value before the 
+	 * statements.
+	 *
+	 * @param call	   The FunctionCallNode to replace.
+	 * @param callee   The FunctionNode being called.
+	 * @param caller   The FunctionNode containing the call.
+	 * @param inlined  The ArrayList of statements to add the function's statements to.
+	 */
+	private void inlineCall(FunctionCallNode call, FunctionNode callee, FunctionNode caller, ArrayList<StatementNode> inlined) {
+		HashSet<String> writes = new HashSet<String>();
+		usage.collectWrites(callee.getStatements(), writes);
+		HashMap<String, Node> replacements = new HashMap<String, Node>();  // each name used by the function, and its replacement.
+
+		// Find the caller's variables used as var parameters first, since they can change while the statements run.
+		HashSet<String> aliases = new HashSet<String>();
+		for (int i = 0; i < call.getParameters().size(); i++)
+			if (call.getParameters().get(i).isVar() && callee.getParameters().get(i).isChangeable()) {
+				aliases.add(((VariableReferenceNode) call.getParameters().get(i).getParameter()).getName());
+				replacements.put(callee.getParameters().get(i).getName(), call.getParameters().get(i).getParameter());
+			}
+		for (int i = 0; i < call.getParameters().size(); i++) {
+			Node argument = call.getParameters().get(i).getParameter();
+			VariableNode parameter = callee.getParameters().get(i);
+			if (replacements.containsKey(parameter.getName()))
+				continue;
+			boolean unchanged = argument instanceof VariableReferenceNode && ((VariableReferenceNode) argument).getArrayIndexExpression() == null && 
+					!aliases.contains(((VariableReferenceNode) argument).getName());
+			if (!writes.contains(parameter.getName()) && (isLiteral(argument) || unchanged))
+				replacements.put(parameter.getName(), argument);
+			else {
+				String name = createTemporary(caller, parameter.getType());
+				inlined.add(new AssignmentNode(new VariableReferenceNode(name, null), argument));
+				replacements.put(parameter.getName(), new VariableReferenceNode(name, null));
+			}
+		}
+		// A local replaces a parameter of the same name, just as in the Interpreter's locals HashMap.
+		for (VariableNode variable : callee.getConstAndVars()) {
+			if (!variable.isChangeable() && !writes.contains(variable.getName()))
+				replacements.put(variable.getName(), variable.getValue());
+			else {
+				String name = createTemporary(caller, variable.getType());
+				inlined.add(new AssignmentNode(new VariableReferenceNode(name, null), variable.getValue()));
+				replacements.put(variable.getName(), new VariableReferenceNode(name, null));
+			}
+		}
+		inlined.addAll(renameBlock(callee.getStatements(), replacements));
+	}
+
+	/**
+	 * Renames the variables within a block of statements (including any inner blocks) for inlining.
+	 *
+	 * @param statements	The ArrayList of StatementNodes to rename.
+	 * @param replacements  The HashMap of each variable name and the Node to replace it with.
+	 * @return  A new ArrayList holding the renamed statements.
+	 */
+	private ArrayList<StatementNode> renameBlock(ArrayList<StatementNode> statements, HashMap<String, Node> replacements) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> renamed = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode)
+				renamed.add(new AssignmentNode((VariableReferenceNode) renameExpression(((AssignmentNode) statement).getTarget(), replacements), 
+						renameExpression(((AssignmentNode) statement).getValue(), replacements)));
+			
+			else if (statement instanceof FunctionCallNode) {
+				ArrayList<ParameterNode> parameters = new ArrayList<ParameterNode>();
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters()) {
+					if (parameter.isVar())
+						parameters.add(new ParameterNode((VariableReferenceNode) renameExpression(parameter.getParameter(), replacements), null));
+					else
+						parameters.add(new ParameterNode(null, renameExpression(parameter.getParameter(), replacements)));
+				}
+				renamed.add(new FunctionCallNode(((FunctionCallNode) statement).getName(), parameters));
+			}
+			else if (statement instanceof IfNode) {
+				// Rebuild the linked list of if blocks, starting from the last one.
+				ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					ifBlocks.add(ifBlock);
+				IfNode next = null;
+				for (int i = ifBlocks.size() - 1; i >= 0; i--)
+					next = new IfNode((BooleanCompareNode) renameExpression(ifBlocks.get(i).getCondition(), replacements), 
+							renameBlock(ifBlocks.get(i).getStatements(), replacements), next);
+				renamed.add(next);
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				renamed.add(new ForNode((VariableReferenceNode) renameExpression(forNode.getControl(), replacements), 
+						renameExpression(forNode.getFrom(), replacements), renameExpression(forNode.getTo(), replacements), 
+						renameBlock(forNode.getStatements(), replacements)));
+			}
+			else if (statement instanceof WhileNode) 
+				renamed.add(new WhileNode((BooleanCompareNode) renameExpression(((WhileNode) statement).getCondition(), replacements), 
+						renameBlock(((WhileNode) statement).getStatements(), replacements)));
+			
+			else if (statement instanceof RepeatNode) 
+				renamed.add(new RepeatNode((BooleanCompareNode) renameExpression(((RepeatNode) statement).getCondition(), replacements), 
+						renameBlock(((RepeatNode) statement).getStatements(), replacements)));
+		}
+		return renamed;
+	}
+
+	/**
+	 * Renames the variables within an expression for inlining. A variable that is changed is always replaced by a
+	 * variable reference, so only a variable that is read can be replaced by a literal.
+	 *
+	 * @param node			The Node to rename, or null.
+	 * @param replacements  The HashMap of each variable name and the Node to replace it with.
+	 * @return  The renamed Node.
+	 */
+	private Node renameExpression(Node node, HashMap<String, Node> replacements) {
+		if (node instanceof VariableReferenceNode) {
+			VariableReferenceNode reference = (VariableReferenceNode) node;
+			Node replacement = replacements.get(reference.getName());
+			if (replacement instanceof VariableReferenceNode)
+				return new VariableReferenceNode(((VariableReferenceNode) replacement).getName(), 
+						renameExpression(reference.getArrayIndexExpression(), replacements));
+			return replacement;
+		}
+		else if (node instanceof MathOpNode) 
+			return new MathOpNode(((MathOpNode) node).getOperation(), renameExpression(((MathOpNode) node).getLeft(), replacements), 
+					renameExpression(((MathOpNode) node).getRight(), replacements));
+		
+		else if (node instanceof BooleanCompareNode) 
+			return new BooleanCompareNode(renameExpression(((BooleanCompareNode) node).getLeft(), replacements), 
+					((BooleanCompareNode) node).getComparison(), renameExpression(((BooleanCompareNode) node).getRight(), replacements));
+		
+		return node;
+	}
+
+	/**
+	 * Counts the Nodes within a block of statements (including any inner blocks and expressions), used as the size
+	 * of a function when deciding whether to inline it.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to count.
+	 * @return  The number of Nodes.
+	 */
+	private int countNodes(ArrayList<StatementNode> statements) {
+		int count = 0;
+		if (statements == null)
+			return count;
+		for (StatementNode statement : statements) {
+			count++;
+			if (statement instanceof AssignmentNode)
+				count += countNodes(((AssignmentNode) statement).getTarget()) + countNodes(((AssignmentNode) statement).getValue());
+			
+			else if (statement instanceof FunctionCallNode) {
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters())
+					count += countNodes(parameter.getParameter());
+			}
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					count += countNodes(ifBlock.getCondition()) + countNodes(ifBlock.getStatements());
+			}
+			else if (statement instanceof ForNode)
+				count += countNodes(((ForNode) statement).getFrom()) + countNodes(((ForNode) statement).getTo()) + 
+						countNodes(((ForNode) statement).getStatements());
+			
+			else if (statement instanceof WhileNode)
+				count += countNodes(((WhileNode) statement).getCondition()) + countNodes(((WhileNode) statement).getStatements());
+			
+			else if (statement instanceof RepeatNode)
+				count += countNodes(((RepeatNode) statement).getCondition()) + countNodes(((RepeatNode) statement).getStatements());
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the Nodes within an expression.
+	 *
+	 * @param node  The Node to count, or null.
+	 * @return  The number of Nodes.
+	 */
+	private int countNodes(Node node) {
+		if (node instanceof VariableReferenceNode)
+			return 1 + countNodes(((VariableReferenceNode) node).getArrayIndexExpression());
+		else if (node instanceof MathOpNode)
+			return 1 + countNodes(((MathOpNode) node).getLeft()) + countNodes(((MathOpNode) node).getRight());
+		else if (node instanceof BooleanCompareNode)
+			return 1 + countNodes(((BooleanCompareNode) node).getLeft()) + countNodes(((BooleanCompareNode) node).getRight());
+		return (node == null) ? 0 : 1;
+	}
+
+	/**
+	 * Moves the loop-invariant math expressions of each loop in a function body out of the loop.
+	 *
+	 * @param function  The FunctionNode whose loops to optimize.
+	 */
+	private void hoistInvariants(FunctionNode function) {
+		if (function.getStatements() != null)
+			function.setStatements(hoistLoops(function, function.getStatements()));
+	}
+
+	/**
+	 * Finds each loop within a block of statements, including any inner blocks. Inner loops are optimized first, so
+	 * an expression can be moved out of several nested loops. The assignments to the temporary variables of a loop
+	 * are added to the block just before the loop.
+	 *
+	 * @param function	  The FunctionNode containing the statements.
+	 * @param statements  The ArrayList of StatementNodes to optimize.
+	 * @return  A new ArrayList holding the optimized statements.
+	 */
+	private ArrayList<StatementNode> hoistLoops(FunctionNode function, ArrayList<StatementNode> statements) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> optimized = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			StatementNode loop = null;  // will hold the loop, after its inner loops are optimized.
+			if (statement instanceof IfNode)
+				optimized.add(hoistIf((IfNode) statement, function));
+
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				loop = new ForNode(forNode.getControl(), forNode.getFrom(), forNode.getTo(), hoistLoops(function, forNode.getStatements()));
+			}
+			else if (statement instanceof WhileNode)
+				loop = new WhileNode(((WhileNode) statement).getCondition(), hoistLoops(function, ((WhileNode) statement).getStatements()));
+
+			else if (statement instanceof RepeatNode)
+				loop = new RepeatNode(((RepeatNode) statement).getCondition(), hoistLoops(function, ((RepeatNode) statement).getStatements()));
+
+			else
+				optimized.add(statement);
+
+			if (loop != null) {
+				// Find every variable written within the loop. Any expression using only other variables is invariant.
+				HashSet<String> writes = new HashSet<String>();
+				usage.collectWrites(loop, writes);
+				// Count the writes to each variable, since only a temporary variable written once can have its assignment moved.
+				HashMap<String, Integer> writeCounts = new HashMap<String, Integer>();
+				usage.countWrites(loop, writeCounts);
+				HashMap<String, String> temporaries = new HashMap<String, String>();
+				ArrayList<StatementNode> hoisted = new ArrayList<StatementNode>();
+				
+				if (loop instanceof ForNode) {
+					ForNode forNode = (ForNode) loop;
+					loop = new ForNode(forNode.getControl(), forNode.getFrom(), forNode.getTo(), 
+							hoistBlock(forNode.getStatements(), function, writes, writeCounts, temporaries, hoisted));
+				}
+				else if (loop instanceof WhileNode) 
+					loop = new WhileNode((BooleanCompareNode) hoistExpression(((WhileNode) loop).getCondition(), function, writes, temporaries, hoisted), 
+							hoistBlock(((WhileNode) loop).getStatements(), function, writes, writeCounts, temporaries, hoisted));
+				else 
+					loop = new RepeatNode((BooleanCompareNode) hoistExpression(((RepeatNode) loop).getCondition(), function, writes, temporaries, hoisted), 
+							hoistBlock(((RepeatNode) loop).getStatements(), function, writes, writeCounts, temporaries, hoisted));
+				
+				optimized.addAll(hoisted);
+				optimized.add(loop);
+			}
+		}
+		return optimized;
+	}
+
+	/**
+	 * Finds each loop within the blocks of an if statement.
+	 *
+	 * @param statement  The IfNode to optimize.
+	 * @param function	 The FunctionNode containing the if statement.
+	 * @return  A new IfNode holding the optimized blocks.
+	 */
+	private IfNode hoistIf(IfNode statement, FunctionNode function) {
+		if (statement == null)
+			return null;
+		return new IfNode(statement.getCondition(), hoistLoops(function, statement.getStatements()), hoistIf(statement.getNext(), function));
+	}
+
+	/**
+	 * Replaces each loop-invariant math expression within a block of statements (including any inner blocks) with a
+	 * reference to a temporary variable.
+	 *
+	 * @param statements   The ArrayList of StatementNodes within the loop.
+	 * @param function	   The FunctionNode containing the loop.
+	 * @param writes	   The set of variable names written within the loop.
+	 * @param writeCounts  The HashMap of each variable name written within the loop and its number of writes.
+	 * @param temporaries  The HashMap of each moved expression (as a String) and its temporary variable's name.
+	 * @param hoisted	   The ArrayList of assignments to the temporary variables, to add before the loop.
+	 * @return  A new ArrayList holding the optimized statements.
+	 */
+	private ArrayList<StatementNode> hoistBlock(ArrayList<StatementNode> statements, FunctionNode function, HashSet<String> writes, 
+			HashMap<String, Integer> writeCounts, HashMap<String, String> temporaries, ArrayList<StatementNode> hoisted) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> optimized = new ArrayList<StatementNode>();
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				// A temporary variable assigned only once within the loop (such as one from an inner loop) keeps the same
+				// value on every pass, so an invariant assignment can be moved. An inlined local is assigned more than once.
+				if (assignment.getTarget().getName().startsWith("$") && writeCounts.get(assignment.getTarget().getName()) == 1 && 
+						typeOf(assignment.getValue(), function) != null && 
+						isInvariant(assignment.getValue(), function, writes)) {
+					hoisted.add(assignment);
+					continue;
+				}
+				optimized.add(new AssignmentNode((VariableReferenceNode) hoistExpression(assignment.getTarget(), function, writes, temporaries, hoisted), 
+						hoistExpression(assignment.getValue(), function, writes, temporaries, hoisted)));
+			}
+			else if (statement instanceof FunctionCallNode) {
+				ArrayList<ParameterNode> parameters = new ArrayList<ParameterNode>();
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters()) {
+					Node argument = hoistExpression(parameter.getParameter(), function, writes, temporaries, hoisted);
+					if (parameter.isVar())
+						parameters.add(new ParameterNode((VariableReferenceNode) argument, null));
+					else
+						parameters.add(new ParameterNode(null, argument));
+				}
+				optimized.add(new FunctionCallNode(((FunctionCallNode) statement).getName(), parameters));
+			}
+			else if (statement instanceof IfNode) {
+				// Rebuild the linked list of if blocks, starting from the last one.
+				ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					ifBlocks.add(ifBlock);
+				IfNode next = null;
+				for (int i = ifBlocks.size() - 1; i >= 0; i--) {
+					BooleanCompareNode condition = ifBlocks.get(i).getCondition();
+					if (condition != null)
+						condition = (BooleanCompareNode) hoistExpression(condition, function, writes, temporaries, hoisted);
+					next = new IfNode(condition, hoistBlock(ifBlocks.get(i).getStatements(), function, writes, writeCounts, temporaries, hoisted), next);
+				}
+				optimized.add(next);
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				optimized.add(new ForNode(forNode.getControl(), hoistExpression(forNode.getFrom(), function, writes, temporaries, hoisted), 
+						hoistExpression(forNode.getTo(), function, writes, temporaries, hoisted), 
+						hoistBlock(forNode.getStatements(), function, writes, writeCounts, temporaries, hoisted)));
+			}
+			else if (statement instanceof WhileNode) 
+				optimized.add(new WhileNode((BooleanCompareNode) hoistExpression(((WhileNode) statement).getCondition(), function, writes, temporaries, hoisted), 
+						hoistBlock(((WhileNode) statement).getStatements(), function, writes, writeCounts, temporaries, hoisted)));
+			
+			else if (statement instanceof RepeatNode) 
+				optimized.add(new RepeatNode((BooleanCompareNode) hoistExpression(((RepeatNode) statement).getCondition(), function, writes, temporaries, hoisted), 
+						hoistBlock(((RepeatNode) statement).getStatements(), function, writes, writeCounts, temporaries, hoisted)));
+		}
+		return optimized;
+	}
+
+	/**
+	 * Replaces each loop-invariant math expression within an expression with a reference to a temporary variable. The
+	 * first time an expression is moved, a new temporary variable is added to the function's variables, and an 
+	 * assignment of the expression to the temporary variable is added to the hoisted list.
+	 *
+	 * @param node		   The Node to optimize.
+	 * @param function	   The FunctionNode containing the loop.
+	 * @param writes	   The set of variable names written within the loop.
+	 * @param temporaries  The HashMap of each moved expression (as a String) and its temporary variable's name.
+	 * @param hoisted	   The ArrayList of assignments to the temporary variables, to add before the loop.
+	 * @return  The optimized Node.
+	 */
+	private Node hoistExpression(Node node, FunctionNode function, HashSet<String> writes, HashMap<String, String> temporaries, 
+			ArrayList<StatementNode> hoisted) {
+		if (node instanceof MathOpNode) {
+			VariableNode.Type type = typeOf(node, function);
+			if (type != null && isInvariant(node, function, writes)) {
+				String name = temporaries.get(node.toString());
+				if (name == null) {
+					name = createTemporary(function, type);
+					temporaries.put(node.toString(), name);
+					hoisted.add(new AssignmentNode(new VariableReferenceNode(name, null), node));
+				}
+				return new VariableReferenceNode(name, null);
+			}
+			return new MathOpNode(((MathOpNode) node).getOperation(), hoistExpression(((MathOpNode) node).getLeft(), function, writes, temporaries, hoisted), 
+					hoistExpression(((MathOpNode) node).getRight(), function, writes, temporaries, hoisted));
+		}
+		else if (node instanceof BooleanCompareNode) 
+			return new BooleanCompareNode(hoistExpression(((BooleanCompareNode) node).getLeft(), function, writes, temporaries, hoisted), 
+					((BooleanCompareNode) node).getComparison(), hoistExpression(((BooleanCompareNode) node).getRight(), function, writes, temporaries, hoisted));
+		
+		else if (node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() != null) 
+			return new VariableReferenceNode(((VariableReferenceNode) node).getName(), 
+					hoistExpression(((VariableReferenceNode) node).getArrayIndexExpression(), function, writes, temporaries, hoisted));
+		
+		return node;
+	}
+
+	/**
+	 * Eliminates the common subexpressions within each run of assignments and function calls in a function body.
+	 *
+	 * @param function  The FunctionNode whose common subexpressions to eliminate.
+	 */
+	private void eliminateCommonExpressions(FunctionNode function) {
+		if (function.getStatements() != null)
+			function.setStatements(eliminateInBlock(function.getStatements(), function));
+	}
+
+	/**
+	 * Splits a block of statements into runs of assignments and function calls, and eliminates the common
+	 * subexpressions within each run. Any if statement or loop ends a run, and its own blocks are searched separately.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param function	  The FunctionNode containing the statements.
+	 * @return  A new ArrayList holding the optimized statements.
+	 */
+	private ArrayList<StatementNode> eliminateInBlock(ArrayList<StatementNode> statements, FunctionNode function) {
+		if (statements == null)
+			return null;
+		ArrayList<StatementNode> optimized = new ArrayList<StatementNode>();
+		ArrayList<StatementNode> run = new ArrayList<StatementNode>();  // the current run of assignments and calls.
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode || statement instanceof FunctionCallNode) {
+				run.add(statement);
+				continue;
+			}
+			optimized.addAll(eliminateInRun(run, function));
+			run.clear();
+			if (statement instanceof IfNode) {
+				// Rebuild the linked list of if blocks, starting from the last one.
+				ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					ifBlocks.add(ifBlock);
+				IfNode next = null;
+				for (int i = ifBlocks.size() - 1; i >= 0; i--)
+					next = new IfNode(ifBlocks.get(i).getCondition(), eliminateInBlock(ifBlocks.get(i).getStatements(), function), next);
+				optimized.add(next);
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				optimized.add(new ForNode(forNode.getControl(), forNode.getFrom(), forNode.getTo(), eliminateInBlock(forNode.getStatements(), function)));
+			}
+			else if (statement instanceof WhileNode)
+				optimized.add(new WhileNode(((WhileNode) statement).getCondition(), eliminateInBlock(((WhileNode) statement).getStatements(), function)));
+
+			else if (statement instanceof RepeatNode)
+				optimized.add(new RepeatNode(((RepeatNode) statement).getCondition(), eliminateInBlock(((RepeatNode) statement).getStatements(), function)));
+		}
+		optimized.addAll(eliminateInRun(run, function));
+		return optimized;
+	}
+
+	/**
+	 * Eliminates the common subexpressions within a run of assignments and function calls. Each expression is given a
+	 * generation, which is moved on whenever a statement writes one of its variables, so only uses of an expression
+	 * within the same generation are common.
+	 *
+	 * The run is counted twice. The second count skips the operands of every repeated use of an expression found by
+	 * the first count, since only the first use will still calculate them. Then, each expression counted at least twice
+	 * within a generation is assigned to a temporary variable just before the statement holding its first use.
+	 *
+	 * @param run		The ArrayList of AssignmentNodes and FunctionCallNodes to optimize.
+	 * @param function  The FunctionNode containing the statements.
+	 * @return  A new ArrayList holding the optimized statements.
+	 */
+	private ArrayList<StatementNode> eliminateInRun(ArrayList<StatementNode> run, FunctionNode function) {
+		HashMap<String, HashSet<String>> uses = new HashMap<String, HashSet<String>>();  // each expression and the variables it uses.
+		HashMap<String, Integer> firstCounts = countRun(run, function, uses, null);
+		HashMap<String, Integer> counts = countRun(run, function, uses, firstCounts);
+
+		ArrayList<StatementNode> optimized = new ArrayList<StatementNode>();
+		HashMap<String, Integer> generations = new HashMap<String, Integer>();
+		HashMap<String, String> temporaries = new HashMap<String, String>();  // each common expression and its temporary variable's name.
+		for (StatementNode statement : run) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				VariableReferenceNode target = assignment.getTarget();
+				Node index = replaceCommon(target.getArrayIndexExpression(), function, uses, generations, counts, temporaries, optimized);
+				Node value = replaceCommon(assignment.getValue(), function, uses, generations, counts, temporaries, optimized);
+				optimized.add(new AssignmentNode(new VariableReferenceNode(target.getName(), index), value));
+			}
+			else {
+				// A var argument must stay a variable reference, so only its index can be replaced.
+				ArrayList<ParameterNode> parameters = new ArrayList<ParameterNode>();
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters()) {
+					if (parameter.isVar()) {
+						VariableReferenceNode reference = (VariableReferenceNode) parameter.getParameter();
+						parameters.add(new ParameterNode(new VariableReferenceNode(reference.getName(), replaceCommon(reference.getArrayIndexExpression(),
+								function, uses, generations, counts, temporaries, optimized)), null));
+					}
+					else
+						parameters.add(new ParameterNode(null, replaceCommon(parameter.getParameter(), function, uses, generations, counts, temporaries, optimized)));
+				}
+				optimized.add(new FunctionCallNode(((FunctionCallNode) statement).getName(), parameters));
+			}
+			nextGenerations(statement, uses, generations);
+		}
+		return optimized;
+	}
+
+	/**
+	 * Counts the uses of each expression within a run of assignments and function calls, by generation.
+	 *
+	 * @param run		   The ArrayList of AssignmentNodes and FunctionCallNodes to count.
+	 * @param function	   The FunctionNode containing the statements.
+	 * @param uses		   The HashMap of each expression and the variables it uses, added to as expressions are found.
+	 * @param firstCounts  The HashMap of counts from the first count, or null if this is the first count.
+	 * @return  The HashMap of each expression and generation (as a String) and its count.
+	 */
+	private HashMap<String, Integer> countRun(ArrayList<StatementNode> run, FunctionNode function, HashMap<String, HashSet<String>> uses,
+			HashMap<String, Integer> firstCounts) {
+		HashMap<String, Integer> counts = new HashMap<String, Integer>();
+		HashMap<String, Integer> generations = new HashMap<String, Integer>();
+		for (StatementNode statement : run) {
+			if (statement instanceof AssignmentNode) {
+				countExpressions(((AssignmentNode) statement).getTarget().getArrayIndexExpression(), function, uses, generations, counts, firstCounts);
+				countExpressions(((AssignmentNode) statement).getValue(), function, uses, generations, counts, firstCounts);
+			}
+			else {
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters()) {
+					if (parameter.isVar())
+						countExpressions(((VariableReferenceNode) parameter.getParameter()).getArrayIndexExpression(), function, uses, generations, counts, firstCounts);
+					else
+						countExpressions(parameter.getParameter(), function, uses, generations, counts, firstCounts);
+				}
+			}
+			nextGenerations(statement, uses, generations);
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts the uses of each math expression and array element within an expression, including the expression itself.
+	 *
+	 * @param node		   The Node to count, or null.
+	 * @param function	   The FunctionNode containing the expression.
+	 * @param uses		   The HashMap of each expression and the variables it uses.
+	 * @param generations  The HashMap of each expression and its current generation.
+	 * @param counts	   The HashMap of each expression and generation (as a String) and its count.
+	 * @param firstCounts  The HashMap of counts from the first count, or null if this is the first count.
+	 */
+	private void countExpressions(Node node, FunctionNode function, HashMap<String, HashSet<String>> uses, HashMap<String, Integer> generations,
+			HashMap<String, Integer> counts, HashMap<String, Integer> firstCounts) {
+		if (node == null)
+			return;
+		if (isCommonCandidate(node, function)) {
+			String key = generationKey(node, uses, generations);
+			int count = counts.containsKey(key) ? counts.get(key) + 1 : 1;
+			counts.put(key, count);
+			// A repeated use of a common expression will read the temporary variable, so its operands are not calculated.
+			if (firstCounts != null && count > 1 && firstCounts.containsKey(key) && firstCounts.get(key) > 1)
+				return;
+		}
+		if (node instanceof MathOpNode) {
+			countExpressions(((MathOpNode) node).getLeft(), function, uses, generations, counts, firstCounts);
+			countExpressions(((MathOpNode) node).getRight(), function, uses, generations, counts, firstCounts);
+		}
+		else if (node instanceof BooleanCompareNode) {
+			countExpressions(((BooleanCompareNode) node).getLeft(), function, uses, generations, counts, firstCounts);
+			countExpressions(((BooleanCompareNode) node).getRight(), function, uses, generations, counts, firstCounts);
+		}
+		else if (node instanceof VariableReferenceNode)
+			countExpressions(((VariableReferenceNode) node).getArrayIndexExpression(), function, uses, generations, counts, firstCounts);
+	}
+
+	/**
+	 * Replaces each common math expression and array element within an expression with a reference to its temporary
+	 * variable. The first use of a common expression adds the assignment to the temporary variable to the statements.
+	 *
+	 * @param node		   The Node to optimize, or null.
+	 * @param function	   The FunctionNode containing the expression.
+	 * @param uses		   The HashMap of each expression and the variables it uses.
+	 * @param generations  The HashMap of each expression and its current generation.
+	 * @param counts	   The HashMap of each expression and generation (as a String) and its count.
+	 * @param temporaries  The HashMap of each common expression and generation, and its temporary variable's name.
+	 * @param optimized	   The ArrayList of optimized statements to add the assignments to.
+	 * @return  The optimized Node.
+	 */
+	private Node replaceCommon(Node node, FunctionNode function, HashMap<String, HashSet<String>> uses, HashMap<String, Integer> generations,
+			HashMap<String, Integer> counts, HashMap<String, String> temporaries, ArrayList<StatementNode> optimized) {
+		String key = null;  // will hold the expression and generation, if the expression is common.
+		if (isCommonCandidate(node, function)) {
+			key = generationKey(node, uses, generations);
+			if (counts.get(key) < 2)
+				key = null;
+			else if (temporaries.containsKey(key))
+				return new VariableReferenceNode(temporaries.get(key), null);
+		}
+		Node replaced = node;
+		if (node instanceof MathOpNode)
+			replaced = new MathOpNode(((MathOpNode) node).getOperation(),
+					replaceCommon(((MathOpNode) node).getLeft(), function, uses, generations, counts, temporaries, optimized),
+					replaceCommon(((MathOpNode) node).getRight(), function, uses, generations, counts, temporaries, optimized));
+
+		else if (node instanceof BooleanCompareNode)
+			replaced = new BooleanCompareNode(replaceCommon(((BooleanCompareNode) node).getLeft(), function, uses, generations, counts, temporaries, optimized),
+					((BooleanCompareNode) node).getComparison(),
+					replaceCommon(((BooleanCompareNode) node).getRight(), function, uses, generations, counts, temporaries, optimized));
+
+		else if (node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() != null)
+			replaced = new VariableReferenceNode(((VariableReferenceNode) node).getName(),
+					replaceCommon(((VariableReferenceNode) node).getArrayIndexExpression(), function, uses, generations, counts, temporaries, optimized));
+
+		if (key == null)
+			return replaced;
+		// The first use of a common expression, so calculate it into a new temporary variable.
+		String name = createTemporary(function, typeOf(node, function));
+		temporaries.put(key, name);
+		optimized.add(new AssignmentNode(new VariableReferenceNode(name, null), replaced));
+		return new VariableReferenceNode(name, null);
+	}
+
+	/**
+	 * Evaluates whether an expression can be a common subexpression, ie it is a math expression or an array element
+	 * with a known data type other than STRING. The Interpreter compares strings by reference, so two separately
+	 * calculated strings must not be merged into one.
+	 *
+	 * @param node		The Node to evaluate.
+	 * @param function  The FunctionNode containing the expression.
+	 * @return  true if the expression can be a common subexpression, and false otherwise.
+	 */
+	private boolean isCommonCandidate(Node node, FunctionNode function) {
+		boolean candidate = node instanceof MathOpNode ||
+				(node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() != null);
+		if (!candidate)
+			return false;
+		VariableNode.Type type = typeOf(node, function);
+		return type != null && type != VariableNode.Type.STRING;
+	}
+
+	/**
+	 * Builds a String identifying an expression, so that two expressions have the same key only if they are the same.
+	 * String and character literals are written with their length first, since their text could otherwise look like
+	 * part of the surrounding expression.
+	 *
+	 * @param node  The Node to build the key of, or null.
+	 * @return  The key of the expression.
+	 */
+	private String expressionKey(Node node) {
+		if (node instanceof StringNode)
+			return "String(" + ((StringNode) node).getString().length() + ":" + ((StringNode) node).getString() + ")";
+
+		else if (node instanceof CharacterNode)
+			return "Character(1:" + ((CharacterNode) node).getChar() + ")";
+
+		else if (node instanceof MathOpNode)
+			return "MathOp(" + ((MathOpNode) node).getOperation() + ", " + expressionKey(((MathOpNode) node).getLeft()) + ", " +
+					expressionKey(((MathOpNode) node).getRight()) + ")";
+
+		else if (node instanceof BooleanCompareNode)
+			return "Compare(" + expressionKey(((BooleanCompareNode) node).getLeft()) + ", " + ((BooleanCompareNode) node).getComparison() +
+					", " + expressionKey(((BooleanCompareNode) node).getRight()) + ")";
+
+		else if (node instanceof VariableReferenceNode)
+			return "Variable(" + ((VariableReferenceNode) node).getName() + ", " +
+					expressionKey(((VariableReferenceNode) node).getArrayIndexExpression()) + ")";
+
+		return String.valueOf(node);
+	}
+
+	/**
+	 * Finds the key of an expression in its current generation. The variables used by the expression are recorded the
+	 * first time it is found.
+	 *
+	 * @param node		   The Node to find the key of.
+	 * @param uses		   The HashMap of each expression and the variables it uses.
+	 * @param generations  The HashMap of each expression and its current generation.
+	 * @return  A String holding the expression and its generation.
+	 */
+	private String generationKey(Node node, HashMap<String, HashSet<String>> uses, HashMap<String, Integer> generations) {
+		String expression = expressionKey(node);
+		if (!uses.containsKey(expression)) {
+			HashSet<String> variables = new HashSet<String>();
+			usage.collectExpressionReads(node, variables);
+			uses.put(expression, variables);
+		}
+		int generation = generations.containsKey(expression) ? generations.get(expression) : 0;
+		return expression + "#" + generation;
+	}
+
+	/**
+	 * Moves on the generation of each expression using a variable written by a statement.
+	 *
+	 * @param statement	   The StatementNode that was run.
+	 * @param uses		   The HashMap of each expression and the variables it uses.
+	 * @param generations  The HashMap of each expression and its current generation.
+	 */
+	private void nextGenerations(StatementNode statement, HashMap<String, HashSet<String>> uses, HashMap<String, Integer> generations) {
+		HashSet<String> writes = new HashSet<String>();
+		usage.collectWrites(statement, writes);
+		for (String expression : uses.keySet()) {
+			for (String variable : uses.get(expression)) {
+				if (writes.contains(variable)) {
+					generations.put(expression, generations.containsKey(expression) ? generations.get(expression) + 1 : 1);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates whether an expression is loop-invariant, ie every variable it uses is not written within the loop. The
+	 * expression must also never throw an Exception, since it will be calculated even if the loop body never runs. So,
+	 * an integer division or mod is only invariant when dividing by a non-zero literal. A string concatenation is never
+	 * invariant, since the Interpreter compares strings by reference, so sharing one calculated string between passes
+	 * would change the result of a comparison. With an empty set of writes, this evaluates whether the expression can be
+	 * calculated without ever throwing an Exception (and is not a string concatenation).
+	 *
+	 * @param node		The Node to evaluate.
+	 * @param function  The FunctionNode containing the loop.
+	 * @param writes	The set of variable names written within the loop.
+	 * @return  true if the expression is loop-invariant, and false otherwise.
+	 */
+	private boolean isInvariant(Node node, FunctionNode function, HashSet<String> writes) {
+		if (isLiteral(node))
+			return true;
+
+		else if (node instanceof VariableReferenceNode) {
+			VariableReferenceNode reference = (VariableReferenceNode) node;
+			VariableNode declaration = findDeclaration(function, reference.getName());
+			return reference.getArrayIndexExpression() == null && !writes.contains(reference.getName()) && declaration != null && 
+					!declaration.isArray();
+		}
+		else if (node instanceof MathOpNode) {
+			MathOpNode mathOp = (MathOpNode) node;
+			if (typeOf(mathOp, function) == VariableNode.Type.STRING)
+				return false;
+			if ((mathOp.getOperation() == MathOpNode.Operation.DIVIDE || mathOp.getOperation() == MathOpNode.Operation.MOD) && 
+					typeOf(mathOp, function) == VariableNode.Type.INTEGER && 
+					(!(mathOp.getRight() instanceof IntegerNode) || ((IntegerNode) mathOp.getRight()).getNum() == 0))
+				return false;
+			return isInvariant(mathOp.getLeft(), function, writes) && isInvariant(mathOp.getRight(), function, writes);
+		}
+		return false;
+	}
+
+	/**
+	 * Evaluates whether a Node is a literal value.
+	 *
+	 * @param node  The Node to evaluate.
+	 * @return  true if the Node is an Integer, Real, String, Character or BooleanNode, and false otherwise.
+	 */
+	private boolean isLiteral(Node node) {
+		return node instanceof IntegerNode || node instanceof RealNode || node instanceof StringNode || node instanceof CharacterNode || 
+				node instanceof BooleanNode;
+	}
+
+	/**
+	 * Finds the data type of an expression, following the same rules as the TypeChecker.
+	 *
+	 * @param node		The Node to find the data type of.
+	 * @param function  The FunctionNode containing the expression.
+	 * @return  The data type of the expression, or null if it is unknown or the expression is invalid.
+	 */
+	private VariableNode.Type typeOf(Node node, FunctionNode function) {
+		// The TypeChecker has already found the data type of each Node in the original statements.
+		if (node.getDataType() != null)
+			return node.isArrayType() ? null : node.getDataType();
+		if (node instanceof IntegerNode)
+			return VariableNode.Type.INTEGER;
+		else if (node instanceof RealNode)
+			return VariableNode.Type.REAL;
+		else if (node instanceof StringNode)
+			return VariableNode.Type.STRING;
+		else if (node instanceof CharacterNode)
+			return VariableNode.Type.CHARACTER;
+		else if (node instanceof BooleanNode)
+			return VariableNode.Type.BOOLEAN;
+
+		else if (node instanceof VariableReferenceNode) {
+			// An array must be indexed to give a single element of its data type.
+			VariableNode declaration = findDeclaration(function, ((VariableReferenceNode) node).getName());
+			if (declaration == null || declaration.isArray() != (((VariableReferenceNode) node).getArrayIndexExpression() != null))
+				return null;
+			return declaration.getType();
+		}
+		else if (node instanceof MathOpNode) {
+			VariableNode.Type left = typeOf(((MathOpNode) node).getLeft(), function);
+			VariableNode.Type right = typeOf(((MathOpNode) node).getRight(), function);
+			if (left == null || right == null)
+				return null;
+			if ((left == VariableNode.Type.INTEGER || left == VariableNode.Type.REAL) && left == right)
+				return left;
+			// Only addition is valid for strings, and a character can only be added after a string.
+			if (((MathOpNode) node).getOperation() == MathOpNode.Operation.PLUS && left == VariableNode.Type.STRING && 
+					(right == VariableNode.Type.STRING || right == VariableNode.Type.CHARACTER))
+				return VariableNode.Type.STRING;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the declaration of a variable in a function. Constants and variables are searched first, since they
+	 * replace a parameter of the same name in the Interpreter's locals HashMap.
+	 *
+	 * @param function  The FunctionNode to search.
+	 * @param name		The name of the variable.
+	 * @return  The VariableNode declaring the variable, or null if there is none.
+	 */
+	private VariableNode findDeclaration(FunctionNode function, String name) {
+		if (function.getConstAndVars() != null)
+			for (VariableNode variable : function.getConstAndVars())
+				if (variable.getName().equals(name))
+					return variable;
+		if (function.getParameters() != null)
+			for (VariableNode parameter : function.getParameters())
+				if (parameter.getName().equals(name))
+					return parameter;
+		return null;
+	}
+
+	/**
+	 * Adds a new temporary variable to a function's variables. Temporary variable names begin with "$", so they can
+	 * never match a variable name in the Shank program.
+	 *
+	 * @param function  The FunctionNode to add the variable to.
+	 * @param type		The data type of the variable.
+	 * @return  The name of the new temporary variable.
+	 */
+	private String createTemporary(FunctionNode function, VariableNode.Type type) {
+		String name = "$t" + temporaryCount++;
+		Node value = null;  // the initial value of the variable.
+		switch (type) {
+			case INTEGER:
+				value = new IntegerNode(0);
+				break;
+			case REAL:
+				value = new RealNode(0);
+				break;
+			case STRING:
+				value = new StringNode(null);
+				break;
+			case CHARACTER:
+				value = new CharacterNode(' ');
+				break;
+			case BOOLEAN:
+				value = new BooleanNode(false);
+				break;
+		}
+		function.getConstAndVars().add(new VariableNode(name, type, true, value, 0, 0, 0, 0, false));
+		return name;
+	}
+}
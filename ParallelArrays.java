@@ -0,0 +1,326 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+/**
+ * A class holding the parallel array operations used by the parallel built-in functions (parallelSum, parallelMin,
+ * parallelMax, parallelSort and parallelPrefixSum). An array of at least parallelThreshold elements is split into
+ * chunks, which are run as fork/join tasks on the common ForkJoinPool. A smaller array is handled by one chunk on the
+ * calling thread, so it stays sequential. The chunk boundaries depend only on the array's length and the threshold,
+ * never on the number of threads, so a result is the same on every machine. Chunks read and write an on-heap array's
+ * primitive array directly, and an array stored outside the Java heap through the ArrayDataType accessors.
+ *
+ * Integer results are the same as those of a sequential loop, since int addition wraps around in any order. A real
+ * sum or prefix sum adds the chunks' sums together, so its last digits may differ from a sequential loop's, but not
+ * from one run (or machine) to the next.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class ParallelArrays {
+
+	private static final int MAX_CHUNKS = 64;  // The most chunks an array is split into.
+	private static int parallelThreshold = 1 << 16;  // The smallest number of elements that are split into chunks.
+
+	/**
+	 * Accessor for the parallelThreshold field.
+	 *
+	 * @return  The int stored in the parallelThreshold field.
+	 */
+	public static int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Mutator for the parallelThreshold field.
+	 *
+	 * @param threshold  The int to store in the parallelThreshold field, at least 1.
+	 */
+	public static void setParallelThreshold(int threshold) {
+		parallelThreshold = threshold;
+	}
+
+	/**
+	 * Finds the number of chunks to split an array into: one for an array below the threshold, and otherwise one for
+	 * every threshold / 4 elements, up to MAX_CHUNKS. The count depends only on the length and the threshold.
+	 *
+	 * @param length  The number of elements in the array.
+	 * @return  The number of chunks.
+	 */
+	private static int chunkCount(int length) {
+		if (length < parallelThreshold)
+			return 1;
+		long bySize = (4L * length) / parallelThreshold;
+		return (int) Math.max(1, Math.min(bySize, MAX_CHUNKS));
+	}
+
+	/**
+	 * Finds the position of the first element of a chunk. Chunk c holds the elements from start(c) up to start(c + 1).
+	 *
+	 * @param length  The number of elements in the array.
+	 * @param chunks  The number of chunks.
+	 * @param chunk	  The chunk, from 0 to chunks (which gives the length).
+	 * @return  The position of the chunk's first element.
+	 */
+	private static int start(int length, int chunks, int chunk) {
+		return (int) ((long) length * chunk / chunks);
+	}
+
+	/**
+	 * Runs one task per chunk. A single task is run on the calling thread instead.
+	 *
+	 * @param tasks  The ArrayList of RecursiveActions, one per chunk.
+	 */
+	private static void run(ArrayList<RecursiveAction> tasks) {
+		if (tasks.size() == 1)
+			tasks.get(0).invoke();
+		else
+			ForkJoinTask.invokeAll(tasks);
+	}
+
+	/**
+	 * Adds up the elements of an INTEGER or REAL array.
+	 *
+	 * @param array  The ArrayDataType to add up.
+	 * @return  An Integer or Real IDT (matching the elementType) holding the sum.
+	 */
+	public static InterpreterDataType sum(final ArrayDataType array) {
+		final int length = array.getLength();
+		final int chunks = chunkCount(length);
+		final boolean integers = array.getType() == ArrayDataType.elementType.INTEGER;
+		final int[] integerSums = new int[chunks];
+		final float[] realSums = new float[chunks];
+		ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (int c = 0; c < chunks; c++) {
+			final int chunk = c;
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					int from = start(length, chunks, chunk);
+					int to = start(length, chunks, chunk + 1);
+					if (integers) {
+						int sum = 0;
+						int[] elements = array.getIntegers();
+						if (elements != null)
+							for (int i = from; i < to; i++) sum += elements[i];
+						else
+							for (int i = from; i < to; i++) sum += array.getInteger(i);
+						integerSums[chunk] = sum;
+					}
+					else {
+						float sum = 0;
+						float[] elements = array.getReals();
+						if (elements != null)
+							for (int i = from; i < to; i++) sum += elements[i];
+						else
+							for (int i = from; i < to; i++) sum += array.getReal(i);
+						realSums[chunk] = sum;
+					}
+				}
+			});
+		}
+		run(tasks);
+		// Add the chunks' sums together, in order.
+		if (integers) {
+			int sum = 0;
+			for (int c = 0; c < chunks; c++)
+				sum += integerSums[c];
+			return new IntegerDataType(sum, 0, 0, true);
+		}
+		float sum = 0;
+		for (int c = 0; c < chunks; c++)
+			sum += realSums[c];
+		return new RealDataType(sum, 0, 0, true);
+	}
+
+	/**
+	 * Finds the smallest or largest element of an INTEGER or REAL array.
+	 *
+	 * @param array	   The ArrayDataType to search, with at least one element.
+	 * @param largest  Whether to find the largest element (otherwise the smallest).
+	 * @return  An Integer or Real IDT (matching the elementType) holding the element found.
+	 */
+	public static InterpreterDataType extreme(final ArrayDataType array, final boolean largest) {
+		final int length = array.getLength();
+		final int chunks = chunkCount(length);
+		final boolean integers = array.getType() == ArrayDataType.elementType.INTEGER;
+		final int[] integerResults = new int[chunks];
+		final float[] realResults = new float[chunks];
+		ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (int c = 0; c < chunks; c++) {
+			final int chunk = c;
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					int from = start(length, chunks, chunk);
+					int to = start(length, chunks, chunk + 1);
+					if (integers) {
+						int best = array.getInteger(from);
+						for (int i = from + 1; i < to; i++) {
+							int element = array.getInteger(i);
+							if (largest ? element > best : element < best)
+								best = element;
+						}
+						integerResults[chunk] = best;
+					}
+					else {
+						float best = array.getReal(from);
+						for (int i = from + 1; i < to; i++) {
+							float element = array.getReal(i);
+							if (largest ? element > best : element < best)
+								best = element;
+						}
+						realResults[chunk] = best;
+					}
+				}
+			});
+		}
+		run(tasks);
+		// Compare the chunks' results, in order.
+		if (integers) {
+			int best = integerResults[0];
+			for (int c = 1; c < chunks; c++)
+				if (largest ? integerResults[c] > best : integerResults[c] < best)
+					best = integerResults[c];
+			return new IntegerDataType(best, 0, 0, true);
+		}
+		float best = realResults[0];
+		for (int c = 1; c < chunks; c++)
+			if (largest ? realResults[c] > best : realResults[c] < best)
+				best = realResults[c];
+		return new RealDataType(best, 0, 0, true);
+	}
+
+	/**
+	 * Sorts the elements of an array into ascending order, using Arrays.parallelSort(). An array below the threshold,
+	 * or a BOOLEAN array, is sorted by ArrayDataType.sort() instead. The elements of an array stored outside the Java
+	 * heap are copied into a primitive array to be sorted, and then copied back.
+	 *
+	 * @param array  The ArrayDataType to sort.
+	 */
+	public static void sort(ArrayDataType array) {
+		int length = array.getLength();
+		if (length < parallelThreshold || array.getType() == ArrayDataType.elementType.BOOLEAN) {
+			array.sort();
+			return;
+		}
+		array.unshare();
+		switch (array.getType()) {
+			case INTEGER:
+				int[] integers = array.getIntegers();
+				if (integers == null) {
+					integers = new int[length];
+					for (int i = 0; i < length; i++)
+						integers[i] = array.getInteger(i);
+				}
+				java.util.Arrays.parallelSort(integers, 0, length);
+				if (array.isOffHeap())
+					for (int i = 0; i < length; i++)
+						array.setInteger(i, integers[i]);
+				break;
+
+			case REAL:
+				float[] reals = array.getReals();
+				if (reals == null) {
+					reals = new float[length];
+					for (int i = 0; i < length; i++)
+						reals[i] = array.getReal(i);
+				}
+				java.util.Arrays.parallelSort(reals, 0, length);
+				if (array.isOffHeap())
+					for (int i = 0; i < length; i++)
+						array.setReal(i, reals[i]);
+				break;
+
+			case CHARACTER:
+				char[] characters = array.getCharacters();
+				if (characters == null) {
+					characters = new char[length];
+					for (int i = 0; i < length; i++)
+						characters[i] = array.getCharacter(i);
+				}
+				java.util.Arrays.parallelSort(characters, 0, length);
+				if (array.isOffHeap())
+					for (int i = 0; i < length; i++)
+						array.setCharacter(i, characters[i]);
+				break;
+
+			default:
+				java.util.Arrays.parallelSort(array.getStrings(), 0, length);
+				break;
+		}
+	}
+
+	/**
+	 * Replaces each element of an INTEGER or REAL array with the sum of itself and every element before it. Each chunk
+	 * is first added up in parallel, then the chunks' starting sums are found in order, and finally each chunk's prefix
+	 * sums are written in parallel.
+	 *
+	 * @param array  The ArrayDataType to change.
+	 */
+	public static void prefixSum(final ArrayDataType array) {
+		array.unshare();
+		final int length = array.getLength();
+		final int chunks = chunkCount(length);
+		final boolean integers = array.getType() == ArrayDataType.elementType.INTEGER;
+		final int[] integerOffsets = new int[chunks];
+		final float[] realOffsets = new float[chunks];
+
+		// A single chunk is written in one pass, so the first pass is only needed with several chunks.
+		if (chunks > 1) {
+			ArrayList<RecursiveAction> totals = new ArrayList<RecursiveAction>();
+			for (int c = 0; c < chunks - 1; c++) {
+				final int chunk = c;
+				totals.add(new RecursiveAction() {
+					@Override
+					protected void compute() {
+						int from = start(length, chunks, chunk);
+						int to = start(length, chunks, chunk + 1);
+						if (integers) {
+							int sum = 0;
+							for (int i = from; i < to; i++) sum += array.getInteger(i);
+							integerOffsets[chunk + 1] = sum;
+						}
+						else {
+							float sum = 0;
+							for (int i = from; i < to; i++) sum += array.getReal(i);
+							realOffsets[chunk + 1] = sum;
+						}
+					}
+				});
+			}
+			run(totals);
+			for (int c = 1; c < chunks; c++) {
+				integerOffsets[c] += integerOffsets[c - 1];
+				realOffsets[c] += realOffsets[c - 1];
+			}
+		}
+		ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (int c = 0; c < chunks; c++) {
+			final int chunk = c;
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					int from = start(length, chunks, chunk);
+					int to = start(length, chunks, chunk + 1);
+					if (integers) {
+						int sum = integerOffsets[chunk];
+						int[] elements = array.getIntegers();
+						if (elements != null)
+							for (int i = from; i < to; i++) elements[i] = sum += elements[i];
+						else
+							for (int i = from; i < to; i++) array.setInteger(i, sum += array.getInteger(i));
+					}
+					else {
+						float sum = realOffsets[chunk];
+						float[] elements = array.getReals();
+						if (elements != null)
+							for (int i = from; i < to; i++) elements[i] = sum += elements[i];
+						else
+							for (int i = from; i < to; i++) array.setReal(i, sum += array.getReal(i));
+					}
+				}
+			});
+		}
+		run(tasks);
+	}
+}
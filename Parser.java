@@ -636,6 +636,81 @@ public class Parser {
 				functionName = "end";
 				break;
 				
+			case MAPFILE:
+				matchAndRemove(Token.tokenType.MAPFILE);
+				functionName = "mapFile";
+				break;
+				
+			case ARRAYFILL:
+				matchAndRemove(Token.tokenType.ARRAYFILL);
+				functionName = "arrayFill";
+				break;
+				
+			case ARRAYCOPY:
+				matchAndRemove(Token.tokenType.ARRAYCOPY);
+				functionName = "arrayCopy";
+				break;
+				
+			case ARRAYSORT:
+				matchAndRemove(Token.tokenType.ARRAYSORT);
+				functionName = "arraySort";
+				break;
+				
+			case BINARYSEARCH:
+				matchAndRemove(Token.tokenType.BINARYSEARCH);
+				functionName = "binarySearch";
+				break;
+				
+			case PARALLELSUM:
+				matchAndRemove(Token.tokenType.PARALLELSUM);
+				functionName = "parallelSum";
+				break;
+				
+			case PARALLELMIN:
+				matchAndRemove(Token.tokenType.PARALLELMIN);
+				functionName = "parallelMin";
+				break;
+				
+			case PARALLELMAX:
+				matchAndRemove(Token.tokenType.PARALLELMAX);
+				functionName = "parallelMax";
+				break;
+				
+			case PARALLELSORT:
+				matchAndRemove(Token.tokenType.PARALLELSORT);
+				functionName = "parallelSort";
+				break;
+				
+			case PARALLELPREFIXSUM:
+				matchAndRemove(Token.tokenType.PARALLELPREFIXSUM);
+				functionName = "parallelPrefixSum";
+				break;
+				
+			case APPEND:
+				matchAndRemove(Token.tokenType.APPEND);
+				functionName = "append";
+				break;
+				
+			case RESIZE:
+				matchAndRemove(Token.tokenType.RESIZE);
+				functionName = "resize";
+				break;
+				
+			case SHRINKTOFIT:
+				matchAndRemove(Token.tokenType.SHRINKTOFIT);
+				functionName = "shrinkToFit";
+				break;
+				
+			case READBINARY:
+				matchAndRemove(Token.tokenType.READBINARY);
+				functionName = "readBinary";
+				break;
+				
+			case WRITEBINARY:
+				matchAndRemove(Token.tokenType.WRITEBINARY);
+				functionName = "writeBinary";
+				break;
+				
 			default:
 				throw new SyntaxErrorException("Invalid function call: unrecognized function name.");
 		}
@@ -765,6 +840,21 @@ public class Parser {
 			case REALTOINTEGER: 
 			case START: 
 			case END: 
+			case MAPFILE: 
+			case ARRAYFILL: 
+			case ARRAYCOPY: 
+			case ARRAYSORT: 
+			case BINARYSEARCH: 
+			case PARALLELSUM: 
+			case PARALLELMIN: 
+			case PARALLELMAX: 
+			case PARALLELSORT: 
+			case PARALLELPREFIXSUM: 
+			case APPEND: 
+			case RESIZE: 
+			case SHRINKTOFIT: 
+			case READBINARY: 
+			case WRITEBINARY: 
 				return parseFunctionCalls();
 			default: // No valid statement present, so throw Exception and exit.
 				throw new SyntaxErrorException("Invalid function body: unrecognized statement near line " + peek(0).getLineNumber() + ".");
@@ -1324,6 +1414,21 @@ public class Parser {
 		program.getFunctions().put("realToInteger", new BuiltInRealToInteger());
 		program.getFunctions().put("start", new BuiltInStart());
 		program.getFunctions().put("end", new BuiltInEnd());
+		program.getFunctions().put("mapFile", new BuiltInMapFile());
+		program.getFunctions().put("arrayFill", new BuiltInArrayFill());
+		program.getFunctions().put("arrayCopy", new BuiltInArrayCopy());
+		program.getFunctions().put("arraySort", new BuiltInArraySort());
+		program.getFunctions().put("binarySearch", new BuiltInBinarySearch());
+		program.getFunctions().put("parallelSum", new BuiltInParallelSum());
+		program.getFunctions().put("parallelMin", new BuiltInParallelMin());
+		program.getFunctions().put("parallelMax", new BuiltInParallelMax());
+		program.getFunctions().put("parallelSort", new BuiltInParallelSort());
+		program.getFunctions().put("parallelPrefixSum", new BuiltInParallelPrefixSum());
+		program.getFunctions().put("append", new BuiltInAppend());
+		program.getFunctions().put("resize", new BuiltInResize());
+		program.getFunctions().put("shrinkToFit", new BuiltInShrinkToFit());
+		program.getFunctions().put("readBinary", new BuiltInReadBinary());
+		program.getFunctions().put("writeBinary", new BuiltInWriteBinary());
 		
 		// Ensure the Start function exists.
 		if (!program.getFunctions().containsKey("Start"))
@@ -12,6 +12,8 @@ public class ProgramNode extends Node {
 	// FunctionNode for the actual function.
 	private HashMap<String, FunctionNode> functions;  
 													  
+	private CallGraph callGraph;  // Which functions call which, built once for use by later passes.
+	
 	/**
 	 * Constructor for the ProgramNode. Initiated the functions HashMap to be an empty HashMap.
 	 */
@@ -28,6 +30,24 @@ public class ProgramNode extends Node {
 		return functions;
 	}
 	
+	/**
+	 * Accessor for the callGraph field.
+	 * 
+	 * @return  The CallGraph stored in the callGraph field, or null if it has not been built.
+	 */
+	public CallGraph getCallGraph() {
+		return callGraph;
+	}
+	
+	/**
+	 * Mutator for the callGraph field.
+	 * 
+	 * @param callGraph  The CallGraph to store in the callGraph field.
+	 */
+	public void setCallGraph(CallGraph callGraph) {
+		this.callGraph = callGraph;
+	}
+	
 	/**
 	 * Implementation of the toString() method for the ProgramNode.
 	 * 
@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+/**
+ * A class used by the Interpreter to find the array references whose index stays within known bounds. Within a counted
+ * for loop (one whose block never writes the control variable), the control variable takes each value from its value
+ * when the loop starts up to that value plus (to - from - 1). So an array reference indexed by the control variable
+ * (plus or minus an integer constant) only needs its index checked against the array's bounds once, before the loop
+ * runs, as long as the block never replaces the array by passing it as a var argument.
+ *
+ * Each such reference is added to the range references of its loop, and given the loop and the constant. The
+ * Interpreter checks the whole range of each range reference when the loop starts, and skips the check of each index
+ * while the loop runs if every range reference is within bounds.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class RangeAnalysis {
+
+	private UsageAnalysis usage;  // Used to find the arrays each for block passes to be changed.
+
+	/**
+	 * Constructor for the RangeAnalysis class.
+	 *
+	 * @param usage  The UsageAnalysis to store in the usage field.
+	 */
+	public RangeAnalysis(UsageAnalysis usage) {
+		this.usage = usage;
+	}
+
+	/**
+	 * Marks the range references of each counted for loop within a block of statements (including inner loops). The
+	 * for loops must already be marked as counted.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search for for loops.
+	 */
+	public void markRangeReferences(ArrayList<StatementNode> statements) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					markRangeReferences(ifBlock.getStatements());
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				forNode.setRangeReferences(null);
+				if (forNode.isCounted() && forNode.isControlRead()) {
+					HashSet<String> replaced = new HashSet<String>();  // the arrays the block may replace.
+					usage.collectCallWrites(forNode.getStatements(), replaced);
+					ArrayList<VariableReferenceNode> references = new ArrayList<VariableReferenceNode>();
+					collectBlock(forNode, forNode.getStatements(), replaced, references);
+					if (!references.isEmpty())
+						forNode.setRangeReferences(references);
+				}
+				markRangeReferences(forNode.getStatements());
+			}
+			else if (statement instanceof WhileNode)
+				markRangeReferences(((WhileNode) statement).getStatements());
+
+			else if (statement instanceof RepeatNode)
+				markRangeReferences(((RepeatNode) statement).getStatements());
+		}
+	}
+
+	/**
+	 * Finds the range references of a counted for loop within a block of statements (including any inner blocks).
+	 *
+	 * @param loop		  The counted ForNode whose range references are being found.
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param replaced	  The set of variable names the loop's block passes to be changed.
+	 * @param references  The ArrayList of range references to add to.
+	 */
+	private void collectBlock(ForNode loop, ArrayList<StatementNode> statements, HashSet<String> replaced,
+			ArrayList<VariableReferenceNode> references) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				collectExpression(loop, ((AssignmentNode) statement).getTarget(), replaced, references);
+				collectExpression(loop, ((AssignmentNode) statement).getValue(), replaced, references);
+			}
+			else if (statement instanceof FunctionCallNode) {
+				for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters())
+					collectExpression(loop, parameter.getParameter(), replaced, references);
+			}
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext()) {
+					collectExpression(loop, ifBlock.getCondition(), replaced, references);
+					collectBlock(loop, ifBlock.getStatements(), replaced, references);
+				}
+			}
+			else if (statement instanceof ForNode) {
+				collectExpression(loop, ((ForNode) statement).getFrom(), replaced, references);
+				collectExpression(loop, ((ForNode) statement).getTo(), replaced, references);
+				collectBlock(loop, ((ForNode) statement).getStatements(), replaced, references);
+			}
+			else if (statement instanceof WhileNode) {
+				collectExpression(loop, ((WhileNode) statement).getCondition(), replaced, references);
+				collectBlock(loop, ((WhileNode) statement).getStatements(), replaced, references);
+			}
+			else if (statement instanceof RepeatNode) {
+				collectExpression(loop, ((RepeatNode) statement).getCondition(), replaced, references);
+				collectBlock(loop, ((RepeatNode) statement).getStatements(), replaced, references);
+			}
+		}
+	}
+
+	/**
+	 * Finds the range references of a counted for loop within an expression.
+	 *
+	 * @param loop		  The counted ForNode whose range references are being found.
+	 * @param node		  The Node to search, or null.
+	 * @param replaced	  The set of variable names the loop's block passes to be changed.
+	 * @param references  The ArrayList of range references to add to.
+	 */
+	private void collectExpression(ForNode loop, Node node, HashSet<String> replaced, ArrayList<VariableReferenceNode> references) {
+		if (node instanceof VariableReferenceNode) {
+			VariableReferenceNode reference = (VariableReferenceNode) node;
+			Node index = reference.getArrayIndexExpression();
+			if (index == null)
+				return;
+			Integer offset = findOffset(loop, index);
+			if (offset != null && !replaced.contains(reference.getName())) {
+				reference.setRangeLoop(loop);
+				reference.setIndexOffset(offset);
+				references.add(reference);
+			}
+			collectExpression(loop, index, replaced, references);
+		}
+		else if (node instanceof MathOpNode) {
+			collectExpression(loop, ((MathOpNode) node).getLeft(), replaced, references);
+			collectExpression(loop, ((MathOpNode) node).getRight(), replaced, references);
+		}
+		else if (node instanceof BooleanCompareNode) {
+			collectExpression(loop, ((BooleanCompareNode) node).getLeft(), replaced, references);
+			collectExpression(loop, ((BooleanCompareNode) node).getRight(), replaced, references);
+		}
+	}
+
+	/**
+	 * Finds the constant an array index adds to a loop's control variable, when the index is the control variable,
+	 * the control variable plus or minus an integer, or an integer plus the control variable.
+	 *
+	 * @param loop   The counted ForNode whose control variable may give the index.
+	 * @param index  The array index expression.
+	 * @return  The constant added to the control variable, or null if the index has none of these forms.
+	 */
+	private Integer findOffset(ForNode loop, Node index) {
+		if (isControl(loop, index))
+			return 0;
+		if (!(index instanceof MathOpNode))
+			return null;
+		MathOpNode mathOp = (MathOpNode) index;
+		if (isControl(loop, mathOp.getLeft()) && mathOp.getRight() instanceof IntegerNode) {
+			if (mathOp.getOperation() == MathOpNode.Operation.PLUS)
+				return ((IntegerNode) mathOp.getRight()).getNum();
+			if (mathOp.getOperation() == MathOpNode.Operation.MINUS)
+				return -((IntegerNode) mathOp.getRight()).getNum();
+		}
+		else if (mathOp.getLeft() instanceof IntegerNode && isControl(loop, mathOp.getRight()) && mathOp.getOperation() == MathOpNode.Operation.PLUS)
+			return ((IntegerNode) mathOp.getLeft()).getNum();
+		return null;
+	}
+
+	/**
+	 * Checks whether an expression is exactly a loop's (integer) control variable.
+	 *
+	 * @param loop  The ForNode whose control variable to compare with.
+	 * @param node  The Node to check.
+	 * @return  true if the Node references the control variable without an index, and false otherwise.
+	 */
+	private boolean isControl(ForNode loop, Node node) {
+		return node instanceof VariableReferenceNode && ((VariableReferenceNode) node).getArrayIndexExpression() == null &&
+				((VariableReferenceNode) node).getName().equals(loop.getControl().getName()) &&
+				loop.getControl().getDataType() != VariableNode.Type.REAL;
+	}
+}
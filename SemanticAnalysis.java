@@ -7,7 +7,7 @@ import java.util.ArrayList;
  * @author Tara Pedigo
  *
  */
-public class SemanticAnalysis {
+public class SemanticAnalysis implements FunctionAnalysis {
 
 	ProgramNode program;  // the program to analyze.
 	
@@ -21,27 +21,39 @@ public class SemanticAnalysis {
 	}
 	
 	/**
-	 * This method analyzes each function in the Shank program.
+	 * This method analyzes each function in the Shank program. Every function is analyzed before an error is thrown.
 	 * 
 	 * @param program  The ProgramNode with all functions to analyze.
-	 * @throws SyntaxErrorException  
+	 * @throws SyntaxErrorException  When any function has an incorrect data type or illegal constant. The message
+	 * 									lists the error of each such function.
 	 */
 	public void checkAssignments(ProgramNode program) throws SyntaxErrorException {
-		for (FunctionNode function : program.getFunctions().values()) {
-			analyzeStatements(function.getConstAndVars(), function.getParameters(), function.getStatements());
-		}
+		// Each function is analyzed on its own, so they can be analyzed in parallel.
+		AnalysisTask.analyze(this, program.getFunctions());
+	}
+	
+	/**
+	 * This method analyzes a single function in the Shank program.
+	 * 
+	 * @param function  The FunctionNode to analyze.
+	 * @throws SyntaxErrorException  When an incorrect data type or illegal constant is detected.
+	 */
+	public void analyzeFunction(FunctionNode function) throws SyntaxErrorException {
+		// Build the function's symbol table once, so each assignment target is found without a search.
+		SymbolTable symbols = new SymbolTable(function);
+		function.setSymbolTable(symbols);
+		analyzeStatements(symbols, function.getStatements());
 	}
 	
 	/**
 	 * This method analyzes the block of statements in a function body. It will analyze function body statments as
 	 * well as if block statements, while loop statements, etc.
 	 * 
-	 * @param constAndVars  The list of constants and variables in the containing function.
-	 * @param parameters	The list of parameters in the containing function.
+	 * @param symbols	    The SymbolTable of the containing function.
 	 * @param statements    The list of statements in the current block.
 	 * @throws SyntaxErrorException  When an incorrect data type or illegal constant is detected.
 	 */
-	public void analyzeStatements(ArrayList<VariableNode> constAndVars, ArrayList<VariableNode> parameters, ArrayList<StatementNode> statements) throws SyntaxErrorException {
+	public void analyzeStatements(SymbolTable symbols, ArrayList<StatementNode> statements) throws SyntaxErrorException {
 		// Analyze each statement in the statements list.
 		if (statements != null) 
 			for (StatementNode statement : statements) {
@@ -49,19 +61,13 @@ public class SemanticAnalysis {
 				if (statement instanceof AssignmentNode) {
 					String name = ((AssignmentNode) statement).getTarget().getName();  // target variable name
 					VariableNode.Type type = null;  // to hold the correct data type.
-					// Find the declared variable that matches the target name of the assignment.
-					if (constAndVars != null)
-						for (VariableNode variable : constAndVars) 
-							if (variable.getName().equals(name)) { 
-								if (!variable.isChangeable())  // trying to assign a new value to a constant. Throw Exception.
-									throw new SyntaxErrorException("Error: invalid assignment. Cannot assign a new value to a constant.");
-								type = variable.getType();
-							}
-					// If type is still null, try to find the parameter that matches the target name of the assignment.
-					if (parameters != null)
-						for (VariableNode parameter : parameters) 
-							if (parameter.getName().equals(name)) 
-								type = parameter.getType();
+					// Find the declared constant/variable or parameter that matches the target name of the assignment.
+					VariableNode variable = symbols.lookup(name);
+					if (variable != null) {
+						if (!variable.isChangeable() && symbols.lookupLocal(name) == variable)  // trying to assign a new value to a constant. Throw Exception.
+							throw new SyntaxErrorException("Error: invalid assignment. Cannot assign a new value to a constant.");
+						type = variable.getType();
+					}
 					// Perform the type checking, assuming the left side has the correct data type.
 					if (((AssignmentNode) statement).getValue() instanceof IntegerNode && type != VariableNode.Type.INTEGER) 
 						throw new SyntaxErrorException("Error: invalid assignment. Left side \"" + name + "\" is of type " + type + 
@@ -85,16 +91,16 @@ public class SemanticAnalysis {
 				}
 				// An inner block of statements needs further analyzing. So, pass in the block's statement list.
 				else if (statement instanceof IfNode) 
-					analyzeStatements(constAndVars, parameters, ((IfNode) statement).getStatements());
+					analyzeStatements(symbols, ((IfNode) statement).getStatements());
 				
 				else if (statement instanceof ForNode) 
-					analyzeStatements(constAndVars, parameters, ((ForNode) statement).getStatements());
+					analyzeStatements(symbols, ((ForNode) statement).getStatements());
 				
 				else if (statement instanceof WhileNode) 
-					analyzeStatements(constAndVars, parameters, ((WhileNode) statement).getStatements());
+					analyzeStatements(symbols, ((WhileNode) statement).getStatements());
 				
 				else if (statement instanceof RepeatNode) 
-					analyzeStatements(constAndVars, parameters, ((RepeatNode) statement).getStatements());
+					analyzeStatements(symbols, ((RepeatNode) statement).getStatements());
 			}
 		
 	}
@@ -17,15 +17,38 @@ public class Shank {
 	/**
 	 * The main method for the program.
 	 * 
-	 * @param args  	  The single piece of input will be assumed to be the filename which contains Shank code 
-	 * 						to run through the lexer.
-	 * @throws Exception  When there are zero or more than one arguments.
+	 * @param args  	  The first piece of input will be assumed to be the filename which contains Shank code 
+	 * 						to run through the lexer. Any following input is an interpreter option:
+	 * 						"-explicitstack" runs Shank function calls on a heap-allocated call stack.
+	 * 						"-noinline" disables inlining calls to small functions.
+	 * 						"-notier" interprets every function, without compiling hot functions.
+	 * 						"-parallelthreshold n" sets the smallest array the parallel built-in functions
+	 * 						split between threads to n elements.
+	 * @throws Exception  When there are zero arguments, or an unrecognized option is given.
 	 */
 	public static void main (String[] args) throws Exception {
 		
-		// Can accept one and only one argument. Throw Exception and exit otherwise.
-		if (args.length != 1)
-			throw new Exception("Invalid number of arguments for main method. One and only one argument accepted.");
+		// Must have at least one argument, the filename. Throw Exception and exit otherwise.
+		if (args.length < 1)
+			throw new Exception("Invalid number of arguments for main method. A Shank filename must be given.");
+		
+		boolean explicitStack = false;  // Flag for running function calls on a heap-allocated call stack.
+		boolean inline = true;			// Flag for inlining calls to small functions.
+		boolean tier = true;				// Flag for compiling hot functions on a background thread.
+		
+		// Check each option after the filename.
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-explicitstack"))
+				explicitStack = true;
+			else if (args[i].equals("-noinline"))
+				inline = false;
+			else if (args[i].equals("-notier"))
+				tier = false;
+			else if (args[i].equals("-parallelthreshold") && i + 1 < args.length && args[i + 1].matches("[1-9][0-9]*"))
+				ParallelArrays.setParallelThreshold(Integer.parseInt(args[++i]));
+			else
+				throw new Exception("Invalid option for main method: " + args[i] + ".");
+		}
 		
 		Path myPath = Paths.get(args[0]);
 		List <String> lines = Files.readAllLines(myPath, StandardCharsets.UTF_8);
@@ -48,6 +71,12 @@ public class Shank {
 
 		// Parse the Shank program.
 		ProgramNode program = parser.parse();
+		
+		// Build the call graph of the Shank program, used by the later passes.
+		program.setCallGraph(new CallGraph(program));
+		
+		// Remove the functions that can never be called from "Start", so they are not analyzed or optimized.
+		program.getCallGraph().removeUnreachable(program);
 	
 		// Create the semantic analyzer.
 		SemanticAnalysis analyzer = new SemanticAnalysis(program);
@@ -55,8 +84,25 @@ public class Shank {
 		// Use semantic analysis on the Shank program.
 		analyzer.checkAssignments(program);
 		
-		// Create the Interpreter.
+		// Create the type checker.
+		TypeChecker checker = new TypeChecker(program);
+		
+		// Find the data type of every expression in the Shank program, and reject any mismatches.
+		checker.checkTypes(program);
+		
+		// Create the optimizer.
+		Optimizer optimizer = new Optimizer(program);
+		optimizer.setInline(inline);
+		
+		// Create the Interpreter. Each function is optimized the first time the Interpreter calls it.
 		Interpreter interpreter = new Interpreter(program.getFunctions());
+		interpreter.setOptimizer(optimizer);
+		interpreter.setCallGraph(program.getCallGraph());
+		interpreter.setExplicitStack(explicitStack);
+		
+		// Compile hot functions, unless explicit stack mode is used (compiled functions use the Java call stack).
+		if (tier && !explicitStack)
+			interpreter.setTierCompiler(new TierCompiler(interpreter));
 		
 		// Interpret the Shank program, by interpreting the driver "Start" function.
 		interpreter.interpretFunction(program.getFunctions().get("Start"), null);
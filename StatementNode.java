@@ -1,9 +1,29 @@
 /**
- * An abstract class to represent a statement within a function.
+ * An abstract class to represent a statement within a function. A loop statement (for, while or repeat) also counts
+ * its back-edges, ie the passes made through its block, which the Interpreter uses to find hot functions.
  * 
  * @author Tara Pedigo
  *
  */
 public abstract class StatementNode extends Node {
 
+	private long backEdges;  // The number of passes made through the block of a loop statement.
+	
+	/**
+	 * Accessor for the backEdges field.
+	 * 
+	 * @return  The long stored in the backEdges field.
+	 */
+	public long getBackEdges() {
+		return backEdges;
+	}
+	
+	/**
+	 * Mutator for the backEdges field.
+	 * 
+	 * @param backEdges  The long to store in the backEdges field.
+	 */
+	public void setBackEdges(long backEdges) {
+		this.backEdges = backEdges;
+	}
 }
@@ -0,0 +1,106 @@
+import java.util.HashMap;
+/**
+ * A class representing a single scope of declared names, used to find the declaration of a variable without
+ * searching a function's lists of parameters and constants/variables. Each SymbolTable may have a parent (the
+ * enclosing scope), which is searched when a name is not declared in the SymbolTable itself. A function's
+ * SymbolTable holds its constants/variables, and its parent holds its parameters, so a constant/variable replaces a
+ * parameter of the same name (as in the Interpreter's locals HashMap).
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class SymbolTable {
+
+	private SymbolTable parent;					   // The enclosing scope, or null for the outermost scope.
+	private HashMap<String, VariableNode> symbols;  // Holds each name declared in this scope and its declaration.
+
+	/**
+	 * Constructor for the SymbolTable class. Creates an empty scope within an enclosing scope.
+	 *
+	 * @param parent  The SymbolTable to store in the parent field, or null.
+	 */
+	public SymbolTable(SymbolTable parent) {
+		this.parent = parent;
+		symbols = new HashMap<String, VariableNode>();
+	}
+
+	/**
+	 * Constructor for the SymbolTable class. Creates the scope of a function's constants/variables, within a parent
+	 * scope holding the function's parameters.
+	 *
+	 * @param function  The FunctionNode to create the SymbolTable for.
+	 */
+	public SymbolTable(FunctionNode function) {
+		this(new SymbolTable((SymbolTable) null));
+		if (function.getParameters() != null)
+			for (VariableNode parameter : function.getParameters())
+				parent.add(parameter);
+		if (function.getConstAndVars() != null)
+			for (VariableNode variable : function.getConstAndVars())
+				add(variable);
+	}
+
+	/**
+	 * Declares a name in this scope. A later declaration replaces an earlier one of the same name.
+	 *
+	 * @param variable  The VariableNode to declare.
+	 */
+	public void add(VariableNode variable) {
+		symbols.put(variable.getName(), variable);
+	}
+
+	/**
+	 * Finds the declaration of a name, searching this scope first and then each enclosing scope.
+	 *
+	 * @param name  The name to find.
+	 * @return  The VariableNode declaring the name, or null if it is not declared.
+	 */
+	public VariableNode lookup(String name) {
+		for (SymbolTable scope = this; scope != null; scope = scope.parent) {
+			VariableNode variable = scope.symbols.get(name);
+			if (variable != null)
+				return variable;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the declaration of a name in this scope only.
+	 *
+	 * @param name  The name to find.
+	 * @return  The VariableNode declaring the name, or null if it is not declared in this scope.
+	 */
+	public VariableNode lookupLocal(String name) {
+		return symbols.get(name);
+	}
+
+	/**
+	 * Counts the names visible from this scope. A name declared in more than one scope is only counted once.
+	 *
+	 * @return  The number of different names declared in this scope and every enclosing scope.
+	 */
+	public int size() {
+		int size = symbols.size();
+		for (SymbolTable scope = parent; scope != null; scope = scope.parent)
+			for (String name : scope.symbols.keySet())
+				if (lookupBelow(name, scope) == null)
+					size++;
+		return size;
+	}
+
+	/**
+	 * Finds the declaration of a name in the scopes between this scope and an enclosing scope.
+	 *
+	 * @param name   The name to find.
+	 * @param outer  The enclosing SymbolTable to stop at (it is not searched).
+	 * @return  The VariableNode declaring the name, or null if it is not declared before the enclosing scope.
+	 */
+	private VariableNode lookupBelow(String name, SymbolTable outer) {
+		for (SymbolTable scope = this; scope != outer; scope = scope.parent) {
+			VariableNode variable = scope.symbols.get(name);
+			if (variable != null)
+				return variable;
+		}
+		return null;
+	}
+}
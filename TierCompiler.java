@@ -0,0 +1,656 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+/**
+ * A class representing the second tier of the Interpreter. Every function starts out interpreted by walking its
+ * statements. Once a function has been called CALL_THRESHOLD times, or its loops have run BACK_EDGE_THRESHOLD passes,
+ * the TierCompiler compiles it on a background thread into closures (CompiledStatements and CompiledExpressions),
+ * which already hold each statement's kind and each expression's data type. Once compiled, the function's next call
+ * runs the closures instead of walking the statements.
+ *
+ * Only functions the TypeChecker has annotated, and that use no arrays, are compiled. Function calls are still made
+ * through the Interpreter, so var arguments and tail calls work the same in both tiers. Any function that cannot be
+ * compiled simply stays interpreted.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class TierCompiler {
+
+	// The number of calls after which a function is compiled.
+	private static final int CALL_THRESHOLD = 1000;
+
+	// The number of passes through a function's loop blocks after which the function is compiled.
+	private static final long BACK_EDGE_THRESHOLD = 10000;
+
+	private Interpreter interpreter;		  // the Interpreter used to make function calls from compiled statements.
+	private ExecutorService executor;		  // the background thread that compiles functions.
+	private HashSet<FunctionNode> requested;  // the functions already sent to be compiled.
+
+	/**
+	 * Constructor for the TierCompiler class. Starts the background thread used to compile functions. The thread is a
+	 * daemon thread, so it never keeps a finished Shank program running.
+	 *
+	 * @param interpreter  The Interpreter to store in the interpreter field.
+	 */
+	public TierCompiler(Interpreter interpreter) {
+		this.interpreter = interpreter;
+		requested = new HashSet<FunctionNode>();
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "Shank tier compiler");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Sends a function to be compiled on the background thread, if it has become hot and has not been sent before.
+	 * The compiled statements are stored in the function once they are ready.
+	 *
+	 * @param function  The user-defined FunctionNode being called.
+	 */
+	public void promoteIfHot(final FunctionNode function) {
+		if (function.getCallCount() < CALL_THRESHOLD && function.getBackEdgeCount() < BACK_EDGE_THRESHOLD)
+			return;
+		if (!requested.add(function))
+			return;
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				if (canCompileBlock(function.getStatements()))
+					function.setCompiledBody(compileBlock(function.getStatements()));
+			}
+		});
+	}
+
+	/**
+	 * Runs a block of compiled statements.
+	 *
+	 * @param block   The array of CompiledStatements to run.
+	 * @param locals  The HashMap of local constants/variables of the function running the block.
+	 * @throws SyntaxErrorException  When an invalid variable reference is made, or a called function throws.
+	 */
+	public static void runBlock(CompiledStatement[] block, HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+		for (int i = 0; i < block.length; i++)
+			block[i].run(locals);
+	}
+
+	/**
+	 * Looks up a variable in the locals HashMap.
+	 *
+	 * @param locals  The HashMap of local constants/variables.
+	 * @param name	  The name of the variable.
+	 * @throws SyntaxErrorException  When there is no variable with the name.
+	 * @return  The IDT of the variable.
+	 */
+	private static InterpreterDataType lookup(HashMap<String, InterpreterDataType> locals, String name) throws SyntaxErrorException {
+		InterpreterDataType variable = locals.get(name);
+		if (variable == null)
+			throw new SyntaxErrorException("Error: invalid variable reference. No variable with name " + name + ".");
+		return variable;
+	}
+
+	/**
+	 * Evaluates whether a block of statements (including any inner blocks) can be compiled.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to evaluate.
+	 * @return  true if every statement can be compiled, and false otherwise.
+	 */
+	private boolean canCompileBlock(ArrayList<StatementNode> statements) {
+		if (statements == null)
+			return false;
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				if (!isScalarVariable(assignment.getTarget()))
+					return false;
+				if (assignment.getValue() instanceof BooleanCompareNode) {
+					if (assignment.getTarget().getDataType() != VariableNode.Type.BOOLEAN || !canCompileCondition((BooleanCompareNode) assignment.getValue()))
+						return false;
+				}
+				else if (!canCompileExpression(assignment.getValue()) || assignment.getValue().getDataType() != assignment.getTarget().getDataType())
+					return false;
+			}
+			// A function call is made by the Interpreter, so it can always be compiled.
+			else if (statement instanceof FunctionCallNode)
+				continue;
+
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					if ((ifBlock.getCondition() != null && !canCompileCondition(ifBlock.getCondition())) || !canCompileBlock(ifBlock.getStatements()))
+						return false;
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				VariableNode.Type type = forNode.getControl().getDataType();
+				if (!isScalarVariable(forNode.getControl()) || (type != VariableNode.Type.INTEGER && type != VariableNode.Type.REAL) ||
+						!canCompileExpression(forNode.getFrom()) || forNode.getFrom().getDataType() != type ||
+						!canCompileExpression(forNode.getTo()) || forNode.getTo().getDataType() != type || !canCompileBlock(forNode.getStatements()))
+					return false;
+			}
+			else if (statement instanceof WhileNode) {
+				if (!canCompileCondition(((WhileNode) statement).getCondition()) || !canCompileBlock(((WhileNode) statement).getStatements()))
+					return false;
+			}
+			else if (statement instanceof RepeatNode) {
+				if (!canCompileCondition(((RepeatNode) statement).getCondition()) || !canCompileBlock(((RepeatNode) statement).getStatements()))
+					return false;
+			}
+			else
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Evaluates whether a boolean compare expression can be compiled. Both operands must be compiled expressions of
+	 * the same data type, and strings and booleans can only be compared using = and <>.
+	 *
+	 * @param condition  The BooleanCompareNode to evaluate.
+	 * @return  true if the condition can be compiled, and false otherwise.
+	 */
+	private boolean canCompileCondition(BooleanCompareNode condition) {
+		if (condition == null || !canCompileExpression(condition.getLeft()) || !canCompileExpression(condition.getRight()) ||
+				condition.getLeft().getDataType() != condition.getRight().getDataType())
+			return false;
+		VariableNode.Type type = condition.getLeft().getDataType();
+		return (type != VariableNode.Type.STRING && type != VariableNode.Type.BOOLEAN) || condition.getComparison() == BooleanCompareNode.Comparison.EQUALS ||
+				condition.getComparison() == BooleanCompareNode.Comparison.NOTEQUAL;
+	}
+
+	/**
+	 * Evaluates whether an expression can be compiled. Every Node in it must have been annotated by the TypeChecker,
+	 * and it cannot use an array or hold a boolean compare expression.
+	 *
+	 * @param node  The Node to evaluate.
+	 * @return  true if the expression can be compiled, and false otherwise.
+	 */
+	private boolean canCompileExpression(Node node) {
+		if (node instanceof IntegerNode || node instanceof RealNode || node instanceof StringNode || node instanceof CharacterNode || node instanceof BooleanNode)
+			return true;
+		if (node instanceof VariableReferenceNode)
+			return isScalarVariable((VariableReferenceNode) node);
+		if (node instanceof MathOpNode)
+			return node.getDataType() != null && canCompileExpression(((MathOpNode) node).getLeft()) && canCompileExpression(((MathOpNode) node).getRight());
+		return false;
+	}
+
+	/**
+	 * Evaluates whether a variable reference refers to an annotated, non-array variable.
+	 *
+	 * @param reference  The VariableReferenceNode to evaluate.
+	 * @return  true if the variable is a scalar of a known data type, and false otherwise.
+	 */
+	private boolean isScalarVariable(VariableReferenceNode reference) {
+		return reference.getArrayIndexExpression() == null && reference.getDataType() != null && !reference.isArrayType();
+	}
+
+	/**
+	 * Compiles a block of statements, which has already been found to be compilable.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to compile.
+	 * @return  The array of CompiledStatements.
+	 */
+	private CompiledStatement[] compileBlock(ArrayList<StatementNode> statements) {
+		CompiledStatement[] block = new CompiledStatement[statements.size()];
+		for (int i = 0; i < block.length; i++)
+			block[i] = compileStatement(statements.get(i));
+		return block;
+	}
+
+	/**
+	 * Compiles a single statement.
+	 *
+	 * @param statement  The StatementNode to compile.
+	 * @return  The CompiledStatement.
+	 */
+	private CompiledStatement compileStatement(StatementNode statement) {
+		if (statement instanceof AssignmentNode)
+			return compileAssignment((AssignmentNode) statement);
+
+		else if (statement instanceof FunctionCallNode) {
+			// The Interpreter makes the call, which also handles var arguments and tail calls.
+			final ArrayList<StatementNode> call = new ArrayList<StatementNode>();
+			call.add(statement);
+			return new CompiledStatement() {
+				@Override
+				public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					interpreter.interpretBlock(locals, call);
+				}
+			};
+		}
+		else if (statement instanceof IfNode) {
+			// Each if/elsif/else block, in order. An else block has no condition.
+			ArrayList<IfNode> ifBlocks = new ArrayList<IfNode>();
+			for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+				ifBlocks.add(ifBlock);
+			final CompiledExpression[] conditions = new CompiledExpression[ifBlocks.size()];
+			final CompiledStatement[][] blocks = new CompiledStatement[ifBlocks.size()][];
+			for (int i = 0; i < conditions.length; i++) {
+				conditions[i] = (ifBlocks.get(i).getCondition() != null) ? compileCondition(ifBlocks.get(i).getCondition()) : null;
+				blocks[i] = compileBlock(ifBlocks.get(i).getStatements());
+			}
+			return new CompiledStatement() {
+				@Override
+				public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					for (int i = 0; i < conditions.length; i++)
+						if (conditions[i] == null || conditions[i].boolValue(locals)) {
+							runBlock(blocks[i], locals);
+							return;
+						}
+				}
+			};
+		}
+		else if (statement instanceof ForNode)
+			return compileFor((ForNode) statement);
+
+		// A repeat statement runs its block while its condition is true, just like a while statement in the Interpreter.
+		final CompiledExpression condition = compileCondition((statement instanceof WhileNode) ? ((WhileNode) statement).getCondition() :
+				((RepeatNode) statement).getCondition());
+		final CompiledStatement[] block = compileBlock((statement instanceof WhileNode) ? ((WhileNode) statement).getStatements() :
+				((RepeatNode) statement).getStatements());
+		return new CompiledStatement() {
+			@Override
+			public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+				while (condition.boolValue(locals))
+					runBlock(block, locals);
+			}
+		};
+	}
+
+	/**
+	 * Compiles an assignment statement, using the data type of its target.
+	 *
+	 * @param assignment  The AssignmentNode to compile.
+	 * @return  The CompiledStatement.
+	 */
+	private CompiledStatement compileAssignment(AssignmentNode assignment) {
+		final String name = assignment.getTarget().getName();
+		final CompiledExpression value = (assignment.getValue() instanceof BooleanCompareNode) ? compileCondition((BooleanCompareNode) assignment.getValue()) :
+				compileExpression(assignment.getValue());
+		switch (assignment.getTarget().getDataType()) {
+			case INTEGER:
+				return new CompiledStatement() {
+					@Override
+					public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						IntegerDataType target = (IntegerDataType) lookup(locals, name);
+						target.setValue(value.intValue(locals));
+					}
+				};
+
+			case REAL:
+				return new CompiledStatement() {
+					@Override
+					public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						RealDataType target = (RealDataType) lookup(locals, name);
+						target.setValue(value.realValue(locals));
+					}
+				};
+
+			case BOOLEAN:
+				return new CompiledStatement() {
+					@Override
+					public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						BooleanDataType target = (BooleanDataType) lookup(locals, name);
+						target.setBool(value.boolValue(locals));
+					}
+				};
+
+			case CHARACTER:
+				return new CompiledStatement() {
+					@Override
+					public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						CharacterDataType target = (CharacterDataType) lookup(locals, name);
+						target.setChar(value.charValue(locals));
+					}
+				};
+
+			default:
+				return new CompiledStatement() {
+					@Override
+					public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						StringDataType target = (StringDataType) lookup(locals, name);
+						target.setString(value.stringValue(locals));
+					}
+				};
+		}
+	}
+
+	/**
+	 * Compiles a for statement. As in the Interpreter, the control variable is found once before the loop, the block
+	 * runs (to - from) times, and the control variable is incremented after each pass. A counted loop keeps its count
+	 * in a Java int, only storing it into the control variable before each pass if the block reads it.
+	 *
+	 * @param forNode  The ForNode to compile.
+	 * @return  The CompiledStatement.
+	 */
+	private CompiledStatement compileFor(final ForNode forNode) {
+		final String name = forNode.getControl().getName();
+		final CompiledExpression from = compileExpression(forNode.getFrom());
+		final CompiledExpression to = compileExpression(forNode.getTo());
+		final CompiledStatement[] block = compileBlock(forNode.getStatements());
+
+		if (forNode.getControl().getDataType() == VariableNode.Type.REAL)
+			return new CompiledStatement() {
+				@Override
+				public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					RealDataType control = (RealDataType) lookup(locals, name);
+					float realTo = to.realValue(locals);
+					for (float i = from.realValue(locals); i < realTo; i++) {
+						runBlock(block, locals);
+						control.setValue(control.getValue() + 1);
+					}
+				}
+			};
+
+		if (forNode.isCounted()) {
+			final boolean controlRead = forNode.isControlRead();
+			return new CompiledStatement() {
+				@Override
+				public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					IntegerDataType control = (IntegerDataType) lookup(locals, name);
+					int intFrom = from.intValue(locals);
+					int intTo = to.intValue(locals);
+					int value = control.getValue();
+					for (int i = intFrom; i < intTo; i++) {
+						if (controlRead)
+							control.setValue(value);
+						runBlock(block, locals);
+						value++;
+					}
+					control.setValue(value);
+				}
+			};
+		}
+		return new CompiledStatement() {
+			@Override
+			public void run(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+				IntegerDataType control = (IntegerDataType) lookup(locals, name);
+				int intFrom = from.intValue(locals);
+				int intTo = to.intValue(locals);
+				for (int i = intFrom; i < intTo; i++) {
+					runBlock(block, locals);
+					control.setValue(control.getValue() + 1);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compiles a boolean compare expression, using the data type of its operands.
+	 *
+	 * @param condition  The BooleanCompareNode to compile.
+	 * @return  The CompiledExpression, whose boolValue() is the result of the comparison.
+	 */
+	private CompiledExpression compileCondition(BooleanCompareNode condition) {
+		final CompiledExpression left = compileExpression(condition.getLeft());
+		final CompiledExpression right = compileExpression(condition.getRight());
+		final BooleanCompareNode.Comparison comparison = condition.getComparison();
+		switch (condition.getLeft().getDataType()) {
+			case INTEGER:
+				return new CompiledCondition() {
+					@Override
+					public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						return compare(comparison, Integer.compare(left.intValue(locals), right.intValue(locals)));
+					}
+				};
+
+			case REAL:
+				return new CompiledCondition() {
+					@Override
+					public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						float leftValue = left.realValue(locals);
+						float rightValue = right.realValue(locals);
+						switch (comparison) {
+							case GREATERTHAN:
+								return leftValue > rightValue;
+							case LESSTHAN:
+								return leftValue < rightValue;
+							case GREATEQUAL:
+								return leftValue >= rightValue;
+							case LESSEQUAL:
+								return leftValue <= rightValue;
+							case EQUALS:
+								return leftValue == rightValue;
+							default:
+								return leftValue != rightValue;
+						}
+					}
+				};
+
+			case CHARACTER:
+				return new CompiledCondition() {
+					@Override
+					public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						return compare(comparison, Character.compare(left.charValue(locals), right.charValue(locals)));
+					}
+				};
+
+			// As in the Interpreter, strings are compared by reference.
+			case STRING:
+				return new CompiledCondition() {
+					@Override
+					public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						return (left.stringValue(locals) == right.stringValue(locals)) == (comparison == BooleanCompareNode.Comparison.EQUALS);
+					}
+				};
+
+			default:
+				return new CompiledCondition() {
+					@Override
+					public boolean boolValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+						return (left.boolValue(locals) == right.boolValue(locals)) == (comparison == BooleanCompareNode.Comparison.EQUALS);
+					}
+				};
+		}
+	}
+
+	/**
+	 * Finds the result of a comparison, given the sign of the difference between its operands. Only used for integers
+	 * and characters, since comparing reals this way would treat NaN differently than the Interpreter.
+	 *
+	 * @param comparison  The comparison operator.
+	 * @param difference  A negative number, zero, or a positive number when the left side is less than, equal to, or
+	 * 						greater than the right side.
+	 * @return  The result of the comparison.
+	 */
+	private static boolean compare(BooleanCompareNode.Comparison comparison, int difference) {
+		switch (comparison) {
+			case GREATERTHAN:
+				return difference > 0;
+			case LESSTHAN:
+				return difference < 0;
+			case GREATEQUAL:
+				return difference >= 0;
+			case LESSEQUAL:
+				return difference <= 0;
+			case EQUALS:
+				return difference == 0;
+			default:
+				return difference != 0;
+		}
+	}
+
+	/**
+	 * Compiles an expression, using its data type.
+	 *
+	 * @param node  The Node to compile.
+	 * @return  The CompiledExpression.
+	 */
+	private CompiledExpression compileExpression(Node node) {
+		if (node instanceof IntegerNode) {
+			final int value = ((IntegerNode) node).getNum();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) {
+					return new IntegerDataType(value, 0, 0, true);
+				}
+				@Override
+				public int intValue(HashMap<String, InterpreterDataType> locals) {
+					return value;
+				}
+			};
+		}
+		else if (node instanceof RealNode) {
+			final float value = ((RealNode) node).getNum();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) {
+					return new RealDataType(value, 0, 0, true);
+				}
+				@Override
+				public float realValue(HashMap<String, InterpreterDataType> locals) {
+					return value;
+				}
+			};
+		}
+		else if (node instanceof StringNode) {
+			final String value = ((StringNode) node).getString();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) {
+					return new StringDataType(value, 0, 0, true);
+				}
+				@Override
+				public String stringValue(HashMap<String, InterpreterDataType> locals) {
+					return value;
+				}
+			};
+		}
+		else if (node instanceof CharacterNode) {
+			final char value = ((CharacterNode) node).getChar();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) {
+					return new CharacterDataType(value, true);
+				}
+				@Override
+				public char charValue(HashMap<String, InterpreterDataType> locals) {
+					return value;
+				}
+			};
+		}
+		else if (node instanceof BooleanNode) {
+			final boolean value = ((BooleanNode) node).getBool();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) {
+					return new BooleanDataType(value, true);
+				}
+				@Override
+				public boolean boolValue(HashMap<String, InterpreterDataType> locals) {
+					return value;
+				}
+			};
+		}
+		else if (node instanceof VariableReferenceNode) {
+			final String name = ((VariableReferenceNode) node).getName();
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					return lookup(locals, name);
+				}
+			};
+		}
+		return compileMathOp((MathOpNode) node);
+	}
+
+	/**
+	 * Compiles a math expression, using its data type. Integer and real expressions find their value as a Java int
+	 * or float, so only the outermost expression creates an IDT.
+	 *
+	 * @param mathOp  The MathOpNode to compile.
+	 * @return  The CompiledExpression.
+	 */
+	private CompiledExpression compileMathOp(MathOpNode mathOp) {
+		final CompiledExpression left = compileExpression(mathOp.getLeft());
+		final CompiledExpression right = compileExpression(mathOp.getRight());
+		final MathOpNode.Operation operation = mathOp.getOperation();
+
+		if (mathOp.getDataType() == VariableNode.Type.INTEGER) {
+			switch (operation) {
+				case PLUS:
+					return new CompiledInteger() {
+						@Override
+						public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+							return left.intValue(locals) + right.intValue(locals);
+						}
+					};
+				case MINUS:
+					return new CompiledInteger() {
+						@Override
+						public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+							return left.intValue(locals) - right.intValue(locals);
+						}
+					};
+				case TIMES:
+					return new CompiledInteger() {
+						@Override
+						public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+							return left.intValue(locals) * right.intValue(locals);
+						}
+					};
+				case DIVIDE:
+					return new CompiledInteger() {
+						@Override
+						public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+							return left.intValue(locals) / right.intValue(locals);
+						}
+					};
+				default:
+					return new CompiledInteger() {
+						@Override
+						public int intValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+							return left.intValue(locals) % right.intValue(locals);
+						}
+					};
+			}
+		}
+		else if (mathOp.getDataType() == VariableNode.Type.REAL) {
+			return new CompiledExpression() {
+				@Override
+				public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					return new RealDataType(realValue(locals), 0, 0, true);
+				}
+				@Override
+				public float realValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+					float leftValue = left.realValue(locals);
+					float rightValue = right.realValue(locals);
+					switch (operation) {
+						case PLUS:
+							return leftValue + rightValue;
+						case MINUS:
+							return leftValue - rightValue;
+						case TIMES:
+							return leftValue * rightValue;
+						case DIVIDE:
+							return leftValue / rightValue;
+						default:
+							return leftValue % rightValue;
+					}
+				}
+			};
+		}
+		// A string is added to another string or a character, on either side.
+		final boolean leftCharacter = mathOp.getLeft().getDataType() == VariableNode.Type.CHARACTER;
+		final boolean rightCharacter = mathOp.getRight().getDataType() == VariableNode.Type.CHARACTER;
+		return new CompiledExpression() {
+			@Override
+			public InterpreterDataType value(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+				return new StringDataType(stringValue(locals), 0, 0, true);
+			}
+			@Override
+			public String stringValue(HashMap<String, InterpreterDataType> locals) throws SyntaxErrorException {
+				String leftValue = leftCharacter ? String.valueOf(left.charValue(locals)) : left.stringValue(locals);
+				String rightValue = rightCharacter ? String.valueOf(right.charValue(locals)) : right.stringValue(locals);
+				return leftValue + rightValue;
+			}
+		};
+	}
+}
@@ -10,8 +10,11 @@ public class Token {
 	enum tokenType { IDENTIFIER, NUMBER, DECIMALNUMBER, ENDOFLINE, WHILE, FOR, IF, THEN, ELSIF, ELSE, 
 					DEFINE, CONSTANT, VARIABLE, STRING, INTEGER, WRITE, ARRAY, FROM, TO, OF, REAL, BOOLEAN,
 					CHARACTER, VAR, MOD, REPEAT, UNTIL, NOT, AND, OR, READ, LEFT, RIGHT, SUBSTRING, SQUAREROOT, 
-					GETRANDOM, INTEGERTOREAL, REALTOINTEGER, START, END, ASSIGNMENT, COLON, EQUALS, NOTEQUAL, 
-					LESSTHAN, LESSEQUAL, GREATERTHAN, GREATEQUAL, LPAREN, RPAREN, LSQUBRACK, RSQUBRACK,
+					GETRANDOM, INTEGERTOREAL, REALTOINTEGER, START, END, MAPFILE, ARRAYFILL, ARRAYCOPY, ARRAYSORT, 
+					BINARYSEARCH, PARALLELSUM, PARALLELMIN, PARALLELMAX, PARALLELSORT, PARALLELPREFIXSUM, 
+					APPEND, RESIZE, SHRINKTOFIT, READBINARY, WRITEBINARY, 
+					ASSIGNMENT, COLON, EQUALS, NOTEQUAL, LESSTHAN, LESSEQUAL, GREATERTHAN, GREATEQUAL, 
+					LPAREN, RPAREN, LSQUBRACK, RSQUBRACK,
 					SEMICOLON, COMMA, PLUS, MINUS, TIMES, DIVIDE, DOUBLEQUOTE, SINGLEQUOTE,
 					STRINGLITERAL, CHARACTERLITERAL, INDENT, DEDENT, TRUE, FALSE } 
 	
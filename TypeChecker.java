@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+/**
+ * A class representing the type checking component of a compiler, run after the Semantic Analysis. The TypeChecker
+ * finds the data type of every expression in each user-defined function, and stores it in the expression's Node so
+ * the Interpreter and Optimizer do not need to find it again. Names are found through the SymbolTable of each function,
+ * where a local constant/variable replaces a parameter of the same name (as in the Interpreter). Any
+ * expression or statement whose data types do not match is rejected before the program runs.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class TypeChecker implements FunctionAnalysis {
+
+	ProgramNode program;  // the program to check.
+
+	/**
+	 * Constructor for the TypeChecker class.
+	 *
+	 * @param program  The ProgramNode to store in the program field.
+	 */
+	public TypeChecker(ProgramNode program) {
+		this.program = program;
+	}
+
+	/**
+	 * This method checks each user-defined function in the Shank program. Every function is checked before an error
+	 * is thrown.
+	 *
+	 * @param program  The ProgramNode with all functions to check.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found. The message lists the error
+	 * 									of each such function.
+	 */
+	public void checkTypes(ProgramNode program) throws SyntaxErrorException {
+		// Each function is checked on its own, so they can be checked in parallel.
+		AnalysisTask.analyze(this, program.getFunctions());
+	}
+
+	/**
+	 * This method checks a single user-defined function, as part of checking the whole program.
+	 *
+	 * @param function  The FunctionNode to check.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found.
+	 */
+	public void analyzeFunction(FunctionNode function) throws SyntaxErrorException {
+		checkFunction(function);
+	}
+
+	/**
+	 * This method checks a single user-defined function, and stores the data type of each of its expressions.
+	 *
+	 * @param function  The FunctionNode to check.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found.
+	 */
+	public void checkFunction(FunctionNode function) throws SyntaxErrorException {
+		// Reuse the symbol table built by the SemanticAnalysis, unless the Optimizer has added constants/variables since.
+		SymbolTable symbols = function.getSymbolTable();
+		if (symbols == null || !declaresLocals(symbols, function)) {
+			symbols = new SymbolTable(function);
+			function.setSymbolTable(symbols);
+		}
+		checkBlock(function.getStatements(), symbols, function);
+	}
+
+	/**
+	 * Checks whether a function's SymbolTable holds each of its constants/variables. A constant/variable removed from the
+	 * function may still be in the SymbolTable, but nothing refers to it any more.
+	 *
+	 * @param symbols   The SymbolTable of the function.
+	 * @param function  The FunctionNode to check.
+	 * @return  true if every constant/variable of the function is declared in the SymbolTable, and false otherwise.
+	 */
+	private boolean declaresLocals(SymbolTable symbols, FunctionNode function) {
+		if (function.getConstAndVars() != null)
+			for (VariableNode variable : function.getConstAndVars())
+				if (symbols.lookupLocal(variable.getName()) != variable)
+					return false;
+		return true;
+	}
+
+	/**
+	 * This method checks a block of statements, including any inner blocks.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to check.
+	 * @param symbols	  The SymbolTable of the function.
+	 * @param function	  The FunctionNode containing the statements.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found.
+	 */
+	private void checkBlock(ArrayList<StatementNode> statements, SymbolTable symbols, FunctionNode function) throws SyntaxErrorException {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof AssignmentNode) {
+				AssignmentNode assignment = (AssignmentNode) statement;
+				VariableNode.Type target = checkExpression(assignment.getTarget(), symbols, function);
+				VariableNode.Type value = checkExpression(assignment.getValue(), symbols, function);
+				if (assignment.getTarget().isArrayType())
+					throw new SyntaxErrorException("Error: invalid assignment in function " + function.getName() + ". Left side \"" +
+							assignment.getTarget().getName() + "\" is an array, so an index must be given.");
+				if (target != value || assignment.getValue().isArrayType())
+					throw new SyntaxErrorException("Error: invalid assignment in function " + function.getName() + ". Left side \"" +
+							assignment.getTarget().getName() + "\" is of type " + target + " but right side is of type " + describe(assignment.getValue()) + ".");
+			}
+			else if (statement instanceof FunctionCallNode)
+				checkCall((FunctionCallNode) statement, symbols, function);
+
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext()) {
+					if (ifBlock.getCondition() != null)
+						checkExpression(ifBlock.getCondition(), symbols, function);
+					checkBlock(ifBlock.getStatements(), symbols, function);
+				}
+			}
+			else if (statement instanceof ForNode) {
+				ForNode forNode = (ForNode) statement;
+				VariableNode.Type control = checkExpression(forNode.getControl(), symbols, function);
+				if ((control != VariableNode.Type.INTEGER && control != VariableNode.Type.REAL) || forNode.getControl().isArrayType())
+					throw new SyntaxErrorException("Error: invalid for statement in function " + function.getName() + ". Control variable \"" +
+							forNode.getControl().getName() + "\" must be an integer or a real.");
+				if (checkExpression(forNode.getFrom(), symbols, function) != control || forNode.getFrom().isArrayType() ||
+						checkExpression(forNode.getTo(), symbols, function) != control || forNode.getTo().isArrayType())
+					throw new SyntaxErrorException("Error: invalid for statement in function " + function.getName() + ". The from and to values must be of type " +
+							control + ", the type of control variable \"" + forNode.getControl().getName() + "\".");
+				checkBlock(forNode.getStatements(), symbols, function);
+			}
+			else if (statement instanceof WhileNode) {
+				checkExpression(((WhileNode) statement).getCondition(), symbols, function);
+				checkBlock(((WhileNode) statement).getStatements(), symbols, function);
+			}
+			else if (statement instanceof RepeatNode) {
+				checkExpression(((RepeatNode) statement).getCondition(), symbols, function);
+				checkBlock(((RepeatNode) statement).getStatements(), symbols, function);
+			}
+		}
+	}
+
+	/**
+	 * This method checks a function call. Each argument is checked, and for a user-defined function, the number of
+	 * arguments and each argument's data type must match the function's parameters. Built-in functions check their
+	 * own arguments when they are executed.
+	 *
+	 * @param functionCall  The FunctionCallNode to check.
+	 * @param symbols		The SymbolTable of the function.
+	 * @param function		The FunctionNode containing the call.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found.
+	 */
+	private void checkCall(FunctionCallNode functionCall, SymbolTable symbols, FunctionNode function) throws SyntaxErrorException {
+		FunctionNode callee = program.getFunctions().get(functionCall.getName());
+		if (callee == null)
+			throw new SyntaxErrorException("Error: invalid function call in function " + function.getName() + ". Function \"" +
+					functionCall.getName() + "\" is not defined.");
+		for (ParameterNode parameter : functionCall.getParameters())
+			checkExpression(parameter.getParameter(), symbols, function);
+		if (callee.isBuiltIn() || callee.isVariadic())
+			return;
+
+		if (callee.getParameters().size() != functionCall.getParameters().size())
+			throw new SyntaxErrorException("Error: invalid function call in function " + function.getName() + ". Function " + callee.getName() +
+					" requires " + callee.getParameters().size() + " arguments.");
+		for (int i = 0; i < callee.getParameters().size(); i++) {
+			VariableNode parameter = callee.getParameters().get(i);
+			Node argument = functionCall.getParameters().get(i).getParameter();
+			if (argument.getDataType() != parameter.getType() || argument.isArrayType() != parameter.isArray())
+				throw new SyntaxErrorException("Error: invalid function call in function " + function.getName() + ". Argument " + i + " of function " +
+						callee.getName() + " must be " + (parameter.isArray() ? "an array of type " : "of type ") + parameter.getType() +
+						" but is " + describe(argument) + ".");
+		}
+	}
+
+	/**
+	 * This method finds the data type of an expression, and stores it in the expression's Node (and each Node within
+	 * it). A reference to a whole array is also marked as an array.
+	 *
+	 * @param node		The Node to check.
+	 * @param symbols	The SymbolTable of the function.
+	 * @param function  The FunctionNode containing the expression.
+	 * @throws SyntaxErrorException  When a data type mismatch or an invalid name is found.
+	 * @return  The data type of the expression.
+	 */
+	private VariableNode.Type checkExpression(Node node, SymbolTable symbols, FunctionNode function) throws SyntaxErrorException {
+		VariableNode.Type type = null;  // will hold the data type of the expression.
+		if (node instanceof IntegerNode)
+			type = VariableNode.Type.INTEGER;
+		else if (node instanceof RealNode)
+			type = VariableNode.Type.REAL;
+		else if (node instanceof StringNode)
+			type = VariableNode.Type.STRING;
+		else if (node instanceof CharacterNode)
+			type = VariableNode.Type.CHARACTER;
+		else if (node instanceof BooleanNode)
+			type = VariableNode.Type.BOOLEAN;
+
+		else if (node instanceof VariableReferenceNode) {
+			VariableReferenceNode reference = (VariableReferenceNode) node;
+			VariableNode declaration = symbols.lookup(reference.getName());
+			if (declaration == null)
+				throw new SyntaxErrorException("Error: invalid variable reference in function " + function.getName() + ". No variable with name " +
+						reference.getName() + ".");
+			if (reference.getArrayIndexExpression() != null) {
+				if (!declaration.isArray())
+					throw new SyntaxErrorException("Error: invalid variable reference in function " + function.getName() + ". Variable " +
+							reference.getName() + " is not an array, so it cannot be indexed.");
+				if (checkExpression(reference.getArrayIndexExpression(), symbols, function) != VariableNode.Type.INTEGER ||
+						reference.getArrayIndexExpression().isArrayType())
+					throw new SyntaxErrorException("Error: invalid array index in function " + function.getName() + ". The index of array " +
+							reference.getName() + " must be an integer.");
+			}
+			node.setArrayType(reference.getArrayIndexExpression() == null && declaration.isArray());
+			type = declaration.getType();
+		}
+		else if (node instanceof MathOpNode) {
+			MathOpNode mathOp = (MathOpNode) node;
+			VariableNode.Type left = checkExpression(mathOp.getLeft(), symbols, function);
+			VariableNode.Type right = checkExpression(mathOp.getRight(), symbols, function);
+			if (!mathOp.getLeft().isArrayType() && !mathOp.getRight().isArrayType()) {
+				if ((left == VariableNode.Type.INTEGER || left == VariableNode.Type.REAL) && left == right)
+					type = left;
+				// Strings can only be added, to another string or a character.
+				else if (mathOp.getOperation() == MathOpNode.Operation.PLUS && ((left == VariableNode.Type.STRING &&
+						(right == VariableNode.Type.STRING || right == VariableNode.Type.CHARACTER)) ||
+						(left == VariableNode.Type.CHARACTER && right == VariableNode.Type.STRING)))
+					type = VariableNode.Type.STRING;
+			}
+			if (type == null)
+				throw new SyntaxErrorException("Error: invalid math expression in function " + function.getName() + ". Cannot use " +
+						mathOp.getOperation() + " on " + describe(mathOp.getLeft()) + " and " + describe(mathOp.getRight()) + ".");
+		}
+		else if (node instanceof BooleanCompareNode) {
+			BooleanCompareNode compare = (BooleanCompareNode) node;
+			VariableNode.Type left = checkExpression(compare.getLeft(), symbols, function);
+			VariableNode.Type right = checkExpression(compare.getRight(), symbols, function);
+			if (left != right || compare.getLeft().isArrayType() || compare.getRight().isArrayType())
+				throw new SyntaxErrorException("Error: invalid boolean compare expression in function " + function.getName() + ". Cannot compare " +
+						describe(compare.getLeft()) + " and " + describe(compare.getRight()) + ".");
+			// Strings and booleans can only be compared using = and <>.
+			if ((left == VariableNode.Type.STRING || left == VariableNode.Type.BOOLEAN) && compare.getComparison() != BooleanCompareNode.Comparison.EQUALS &&
+					compare.getComparison() != BooleanCompareNode.Comparison.NOTEQUAL)
+				throw new SyntaxErrorException("Error: invalid boolean compare expression in function " + function.getName() + ". Values of type " +
+						left + " can only be compared using = and <>.");
+			type = VariableNode.Type.BOOLEAN;
+		}
+		node.setDataType(type);
+		return type;
+	}
+
+	/**
+	 * Describes the data type of a checked expression, for error messages.
+	 *
+	 * @param node  The checked Node to describe.
+	 * @return  A String holding the data type, and whether the expression is a whole array.
+	 */
+	private String describe(Node node) {
+		return node.isArrayType() ? "an array of type " + node.getDataType() : String.valueOf(node.getDataType());
+	}
+}
@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+/**
+ * A class used by the Optimizer to find how variables are used within a block of statements. A variable is written
+ * by a statement when it is the target of an assignment, the control variable of a for loop, or a var argument of
+ * a function call (any variable argument of read is also counted as written), as found by CallGraph.writesArgument().
+ * Once a CallGraph is given, a var argument of a user-defined function is only counted when the function may change
+ * that parameter. A variable is read by a statement when it is used anywhere within an expression, or passed as any argument.
+ *
+ * @author Tara Pedigo
+ *
+ */
+public class UsageAnalysis {
+
+	// The HashMap to hold all the program's functions. Holds a String for the function name and a FunctionNode
+	// for the actual function.
+	private HashMap<String, FunctionNode> functions;
+
+	private CallGraph callGraph;  // Used to find the var parameters each function may change, or null.
+
+	/**
+	 * Constructor for the UsageAnalysis class.
+	 *
+	 * @param functions  The HashMap of functions to store in the functions field.
+	 */
+	public UsageAnalysis(HashMap<String, FunctionNode> functions) {
+		this.functions = functions;
+	}
+
+	/**
+	 * Mutator for the callGraph field.
+	 *
+	 * @param callGraph  The CallGraph to store in the callGraph field, or null to count every var argument as written.
+	 */
+	public void setCallGraph(CallGraph callGraph) {
+		this.callGraph = callGraph;
+	}
+
+	/**
+	 * Adds the name of every variable written within a block of statements (including any inner blocks) to a set.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to analyze.
+	 * @param writes	  The set of variable names to add to.
+	 */
+	public void collectWrites(ArrayList<StatementNode> statements, HashSet<String> writes) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements)
+			collectWrites(statement, writes);
+	}
+
+	/**
+	 * Adds the name of every variable written by a single statement (including any inner blocks) to a set.
+	 *
+	 * @param statement  The StatementNode to analyze.
+	 * @param writes	 The set of variable names to add to.
+	 */
+	public void collectWrites(StatementNode statement, HashSet<String> writes) {
+		if (statement instanceof AssignmentNode)
+			writes.add(((AssignmentNode) statement).getTarget().getName());
+
+		else if (statement instanceof FunctionCallNode) {
+			FunctionNode function = functions.get(((FunctionCallNode) statement).getName());
+			ArrayList<ParameterNode> arguments = ((FunctionCallNode) statement).getParameters();
+			for (int i = 0; i < arguments.size(); i++)
+				if (CallGraph.writesArgument(callGraph, function, arguments.get(i), i))
+					writes.add(((VariableReferenceNode) arguments.get(i).getParameter()).getName());
+		}
+		else if (statement instanceof IfNode) {
+			for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+				collectWrites(ifBlock.getStatements(), writes);
+		}
+		else if (statement instanceof ForNode) {
+			writes.add(((ForNode) statement).getControl().getName());
+			collectWrites(((ForNode) statement).getStatements(), writes);
+		}
+		else if (statement instanceof WhileNode)
+			collectWrites(((WhileNode) statement).getStatements(), writes);
+
+		else if (statement instanceof RepeatNode)
+			collectWrites(((RepeatNode) statement).getStatements(), writes);
+	}
+
+	/**
+	 * Adds the name of every variable passed to another function to be changed within a block of statements 
+	 * (including any inner blocks) to a set.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to search.
+	 * @param writes	  The set of variable names to add to.
+	 */
+	public void collectCallWrites(ArrayList<StatementNode> statements, HashSet<String> writes) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements) {
+			if (statement instanceof FunctionCallNode)
+				collectWrites(statement, writes);
+			else if (statement instanceof IfNode) {
+				for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+					collectCallWrites(ifBlock.getStatements(), writes);
+			}
+			else if (statement instanceof ForNode)
+				collectCallWrites(((ForNode) statement).getStatements(), writes);
+			else if (statement instanceof WhileNode)
+				collectCallWrites(((WhileNode) statement).getStatements(), writes);
+			else if (statement instanceof RepeatNode)
+				collectCallWrites(((RepeatNode) statement).getStatements(), writes);
+		}
+	}
+
+	/**
+	 * Counts the number of statements writing each variable within a single statement (including any inner blocks).
+	 *
+	 * @param statement  The StatementNode to analyze.
+	 * @param counts	 The HashMap of each variable name and its number of writes, to add to.
+	 */
+	public void countWrites(StatementNode statement, HashMap<String, Integer> counts) {
+		HashSet<String> writes = new HashSet<String>();
+		if (statement instanceof IfNode) {
+			for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext())
+				countWrites(ifBlock.getStatements(), counts);
+		}
+		else if (statement instanceof ForNode) {
+			writes.add(((ForNode) statement).getControl().getName());
+			countWrites(((ForNode) statement).getStatements(), counts);
+		}
+		else if (statement instanceof WhileNode)
+			countWrites(((WhileNode) statement).getStatements(), counts);
+
+		else if (statement instanceof RepeatNode)
+			countWrites(((RepeatNode) statement).getStatements(), counts);
+
+		else
+			collectWrites(statement, writes);
+		for (String name : writes)
+			counts.put(name, counts.containsKey(name) ? counts.get(name) + 1 : 1);
+	}
+
+	/**
+	 * Counts the number of statements writing each variable within a block of statements (including any inner blocks).
+	 *
+	 * @param statements  The ArrayList of StatementNodes to analyze.
+	 * @param counts	  The HashMap of each variable name and its number of writes, to add to.
+	 */
+	public void countWrites(ArrayList<StatementNode> statements, HashMap<String, Integer> counts) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements)
+			countWrites(statement, counts);
+	}
+
+	/**
+	 * Adds the name of every variable read within a block of statements (including any inner blocks) to a set.
+	 *
+	 * @param statements  The ArrayList of StatementNodes to analyze.
+	 * @param reads		  The set of variable names to add to.
+	 */
+	public void collectReads(ArrayList<StatementNode> statements, HashSet<String> reads) {
+		if (statements == null)
+			return;
+		for (StatementNode statement : statements)
+			collectReads(statement, reads);
+	}
+
+	/**
+	 * Adds the name of every variable read by a single statement (including any inner blocks) to a set.
+	 *
+	 * @param statement  The StatementNode to analyze.
+	 * @param reads		 The set of variable names to add to.
+	 */
+	public void collectReads(StatementNode statement, HashSet<String> reads) {
+		if (statement instanceof AssignmentNode) {
+			// The target itself is not read, but its array index is.
+			collectExpressionReads(((AssignmentNode) statement).getTarget().getArrayIndexExpression(), reads);
+			collectExpressionReads(((AssignmentNode) statement).getValue(), reads);
+		}
+		else if (statement instanceof FunctionCallNode) {
+			// A var argument is still read, since its value is passed into the function.
+			for (ParameterNode parameter : ((FunctionCallNode) statement).getParameters())
+				collectExpressionReads(parameter.getParameter(), reads);
+		}
+		else if (statement instanceof IfNode) {
+			for (IfNode ifBlock = (IfNode) statement; ifBlock != null; ifBlock = ifBlock.getNext()) {
+				collectExpressionReads(ifBlock.getCondition(), reads);
+				collectReads(ifBlock.getStatements(), reads);
+			}
+		}
+		else if (statement instanceof ForNode) {
+			collectExpressionReads(((ForNode) statement).getFrom(), reads);
+			collectExpressionReads(((ForNode) statement).getTo(), reads);
+			collectReads(((ForNode) statement).getStatements(), reads);
+		}
+		else if (statement instanceof WhileNode) {
+			collectExpressionReads(((WhileNode) statement).getCondition(), reads);
+			collectReads(((WhileNode) statement).getStatements(), reads);
+		}
+		else if (statement instanceof RepeatNode) {
+			collectExpressionReads(((RepeatNode) statement).getCondition(), reads);
+			collectReads(((RepeatNode) statement).getStatements(), reads);
+		}
+	}
+
+	/**
+	 * Adds the name of every variable used within an expression to a set.
+	 *
+	 * @param node   The Node to analyze, or null.
+	 * @param reads  The set of variable names to add to.
+	 */
+	public void collectExpressionReads(Node node, HashSet<String> reads) {
+		if (node instanceof VariableReferenceNode) {
+			reads.add(((VariableReferenceNode) node).getName());
+			collectExpressionReads(((VariableReferenceNode) node).getArrayIndexExpression(), reads);
+		}
+		else if (node instanceof MathOpNode) {
+			collectExpressionReads(((MathOpNode) node).getLeft(), reads);
+			collectExpressionReads(((MathOpNode) node).getRight(), reads);
+		}
+		else if (node instanceof BooleanCompareNode) {
+			collectExpressionReads(((BooleanCompareNode) node).getLeft(), reads);
+			collectExpressionReads(((BooleanCompareNode) node).getRight(), reads);
+		}
+	}
+}
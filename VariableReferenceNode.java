@@ -9,6 +9,8 @@ public class VariableReferenceNode extends Node {
 
 	private String name;				// The name of the referenced variable.
 	private Node arrayIndexExpression;	// And optional array index expression inside brackets [].
+	private ForNode rangeLoop;			// The counted for loop whose control variable gives the index, or null.
+	private int indexOffset;			// The constant added to rangeLoop's control variable to give the index.
 	
 	/**
 	 * Constructor for the VariableReferenceNode class. Takes in a name and a Node for the array
@@ -40,6 +42,42 @@ public class VariableReferenceNode extends Node {
 		return arrayIndexExpression;
 	}
 	
+	/**
+	 * Accessor for the rangeLoop field.
+	 * 
+	 * @return  The ForNode stored in the rangeLoop field.
+	 */
+	public ForNode getRangeLoop() {
+		return rangeLoop;
+	}
+	
+	/**
+	 * Mutator for the rangeLoop field.
+	 * 
+	 * @param rangeLoop  The ForNode to store in the rangeLoop field, or null.
+	 */
+	public void setRangeLoop(ForNode rangeLoop) {
+		this.rangeLoop = rangeLoop;
+	}
+	
+	/**
+	 * Accessor for the indexOffset field.
+	 * 
+	 * @return  The int stored in the indexOffset field.
+	 */
+	public int getIndexOffset() {
+		return indexOffset;
+	}
+	
+	/**
+	 * Mutator for the indexOffset field.
+	 * 
+	 * @param indexOffset  The int to store in the indexOffset field.
+	 */
+	public void setIndexOffset(int indexOffset) {
+		this.indexOffset = indexOffset;
+	}
+	
 	/**
 	 * Implementation of the toString() method for the VariableReferenceNode.
 	 * 